@@ -21,6 +21,8 @@ repositories {
 tasks.withType<JavaCompile> {
     options.compilerArgs.add("-Xlint:unchecked")
     options.compilerArgs.add("-Xlint:deprecation")
+    // Keeps constructor parameter names for GraphQLInputMapper's immutable class binding
+    options.compilerArgs.add("-parameters")
 }
 
 dependencies {
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.admission;
+
+import graphql.ErrorType;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution front-end limiting how many operations a {@code GraphQL} instance executes at once.
+ *
+ * <p>Operations over the {@link ConcurrencyLimit} wait in a bounded queue and start in priority
+ * order as running ones complete. Once the queue is full, a new operation displaces the most
+ * recently queued one of a lower priority class, or is shed itself. Priorities are assigned by
+ * operation name, so shedding happens before the document is parsed or validated. Shed operations
+ * complete with a single error, recognizable with {@link #isShed(ExecutionResult)}.
+ *
+ * <pre>
+ *   AdmissionController admission =
+ *       AdmissionController.newAdmissionController(graphQL)
+ *           .limit(AimdLimit.newAimdLimit().latencyTarget(Duration.ofMillis(500)).build())
+ *           .maxQueueSize(200)
+ *           .priority("HealthCheck", Priority.CRITICAL)
+ *           .priority("Export", Priority.SHEDDABLE)
+ *           .build();
+ * </pre>
+ */
+public class AdmissionController {
+  static final String SHED_CODE = "OVERLOADED";
+
+  private final GraphQL graphQL;
+  private final ConcurrencyLimit limit;
+  private final int maxQueueSize;
+  private final Map<String, Priority> priorities;
+  private final Priority defaultPriority;
+  private final EnumMap<Priority, ArrayDeque<Pending>> queues = new EnumMap<>(Priority.class);
+  private final EnumMap<Priority, LongAdder> shed = new EnumMap<>(Priority.class);
+  private final LongAdder admitted = new LongAdder();
+  private int inFlight;
+  private int queued;
+
+  private AdmissionController(Builder builder) {
+    this.graphQL = builder.graphQL;
+    this.limit = builder.limit;
+    this.maxQueueSize = builder.maxQueueSize;
+    this.priorities = new HashMap<>(builder.priorities);
+    this.defaultPriority = builder.defaultPriority;
+    for (Priority priority : Priority.values()) {
+      queues.put(priority, new ArrayDeque<>());
+      shed.put(priority, new LongAdder());
+    }
+  }
+
+  /**
+   * @param graphQL GraphQL instance to execute operations with
+   * @return Builder with an {@link AimdLimit} and a queue of 100 operations
+   */
+  public static Builder newAdmissionController(GraphQL graphQL) {
+    return new Builder(graphQL);
+  }
+
+  /**
+   * @param result Result returned by this controller
+   * @return Whether the operation was shed rather than executed
+   */
+  public static boolean isShed(ExecutionResult result) {
+    List<GraphQLError> errors = result.getErrors();
+    if (errors.size() != 1 || errors.get(0).getExtensions() == null) {
+      return false;
+    }
+    return SHED_CODE.equals(errors.get(0).getExtensions().get("code"));
+  }
+
+  /**
+   * @param query GraphQL document to execute
+   * @return Execution result, or a shed result if the operation wasn't admitted
+   */
+  public ExecutionResult execute(String query) {
+    return execute(ExecutionInput.newExecutionInput(query).build());
+  }
+
+  /**
+   * @param input Operation to execute
+   * @return Execution result, or a shed result if the operation wasn't admitted
+   */
+  public ExecutionResult execute(ExecutionInput input) {
+    return executeAsync(input).join();
+  }
+
+  /**
+   * @param input Operation to execute
+   * @return Future execution result, completed with a shed result if the operation wasn't admitted
+   *     or was displaced from the queue
+   */
+  public CompletableFuture<ExecutionResult> executeAsync(ExecutionInput input) {
+    Priority priority = priorityOf(input.getOperationName());
+    Pending pending = null;
+    Pending displaced = null;
+    synchronized (this) {
+      if (queued == 0 && inFlight < limit.getLimit()) {
+        inFlight++;
+      } else {
+        if (queued >= maxQueueSize) {
+          displaced = pollNewestBelow(priority);
+          if (displaced == null) {
+            shed.get(priority).increment();
+            return CompletableFuture.completedFuture(shedResult(priority));
+          }
+        }
+        pending = new Pending(input, priority);
+        queues.get(priority).addLast(pending);
+        queued++;
+      }
+    }
+
+    if (displaced != null) {
+      shed.get(displaced.priority).increment();
+      displaced.future.complete(shedResult(displaced.priority));
+    }
+    if (pending != null) {
+      // Completions may have freed capacity since the check above
+      drain();
+      return pending.future;
+    }
+    return run(input);
+  }
+
+  /** @return Number of operations currently executing */
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  /** @return Current concurrency limit */
+  public int getLimit() {
+    return limit.getLimit();
+  }
+
+  /** @return Number of operations waiting to execute */
+  public synchronized int getQueueDepth() {
+    return queued;
+  }
+
+  /**
+   * @param priority Priority class
+   * @return Number of operations of the class waiting to execute
+   */
+  public synchronized int getQueueDepth(Priority priority) {
+    return queues.get(priority).size();
+  }
+
+  /** @return Number of operations that started executing */
+  public long getAdmittedCount() {
+    return admitted.sum();
+  }
+
+  /** @return Number of operations shed, whether on arrival or displaced from the queue */
+  public long getShedCount() {
+    return shed.values().stream().mapToLong(LongAdder::sum).sum();
+  }
+
+  /**
+   * @param priority Priority class
+   * @return Number of operations of the class shed
+   */
+  public long getShedCount(Priority priority) {
+    return shed.get(priority).sum();
+  }
+
+  private Priority priorityOf(String operationName) {
+    if (operationName == null) {
+      return defaultPriority;
+    }
+    return priorities.getOrDefault(operationName, defaultPriority);
+  }
+
+  private Pending pollNewestBelow(Priority priority) {
+    Priority[] classes = Priority.values();
+    for (int i = classes.length - 1; i > priority.ordinal(); i--) {
+      Pending newest = queues.get(classes[i]).pollLast();
+      if (newest != null) {
+        queued--;
+        return newest;
+      }
+    }
+    return null;
+  }
+
+  private CompletableFuture<ExecutionResult> run(ExecutionInput input) {
+    admitted.increment();
+    long start = System.nanoTime();
+    CompletableFuture<ExecutionResult> result;
+    try {
+      result = graphQL.executeAsync(input);
+    } catch (RuntimeException | Error e) {
+      completed(start, true);
+      throw e;
+    }
+    return result.whenComplete((r, t) -> completed(start, t != null));
+  }
+
+  private void completed(long start, boolean dropped) {
+    int concurrent;
+    synchronized (this) {
+      concurrent = inFlight--;
+    }
+    limit.onSample(System.nanoTime() - start, concurrent, dropped);
+    drain();
+  }
+
+  private void drain() {
+    List<Pending> ready = new ArrayList<>();
+    synchronized (this) {
+      for (Priority priority : Priority.values()) {
+        ArrayDeque<Pending> queue = queues.get(priority);
+        while (!queue.isEmpty() && inFlight < limit.getLimit()) {
+          ready.add(queue.pollFirst());
+          queued--;
+          inFlight++;
+        }
+      }
+    }
+
+    for (Pending pending : ready) {
+      try {
+        run(pending.input)
+            .whenComplete(
+                (result, t) -> {
+                  if (t != null) {
+                    pending.future.completeExceptionally(t);
+                  } else {
+                    pending.future.complete(result);
+                  }
+                });
+      } catch (RuntimeException | Error e) {
+        pending.future.completeExceptionally(e);
+      }
+    }
+  }
+
+  private static ExecutionResult shedResult(Priority priority) {
+    GraphQLError error =
+        GraphqlErrorBuilder.newError()
+            .message("%s", "Operation shed under load")
+            .errorType(ErrorType.ExecutionAborted)
+            .extensions(Map.of("code", SHED_CODE, "priority", priority.name()))
+            .build();
+    return ExecutionResultImpl.newExecutionResult().addError(error).build();
+  }
+
+  private static class Pending {
+    private final ExecutionInput input;
+    private final Priority priority;
+    private final CompletableFuture<ExecutionResult> future = new CompletableFuture<>();
+
+    private Pending(ExecutionInput input, Priority priority) {
+      this.input = input;
+      this.priority = priority;
+    }
+  }
+
+  /** Builder for an {@link AdmissionController}. */
+  public static class Builder {
+    private final GraphQL graphQL;
+    private ConcurrencyLimit limit = AimdLimit.newAimdLimit().build();
+    private int maxQueueSize = 100;
+    private final Map<String, Priority> priorities = new HashMap<>();
+    private Priority defaultPriority = Priority.NORMAL;
+
+    private Builder(GraphQL graphQL) {
+      this.graphQL = graphQL;
+    }
+
+    /**
+     * @param limit Limit on concurrently executing operations
+     * @return Fluent builder instance
+     */
+    public Builder limit(ConcurrencyLimit limit) {
+      this.limit = limit;
+      return this;
+    }
+
+    /**
+     * @param maxQueueSize Maximum number of operations waiting to execute, or zero to shed as soon
+     *     as the limit is reached
+     * @return Fluent builder instance
+     */
+    public Builder maxQueueSize(int maxQueueSize) {
+      if (maxQueueSize < 0) {
+        throw new IllegalArgumentException("Admission queue size can't be negative");
+      }
+      this.maxQueueSize = maxQueueSize;
+      return this;
+    }
+
+    /**
+     * @param operationName Name of the operation as sent by clients
+     * @param priority Priority class for the operation
+     * @return Fluent builder instance
+     */
+    public Builder priority(String operationName, Priority priority) {
+      this.priorities.put(operationName, priority);
+      return this;
+    }
+
+    /**
+     * @param priority Priority class for unnamed operations and names without one configured
+     * @return Fluent builder instance
+     */
+    public Builder defaultPriority(Priority priority) {
+      this.defaultPriority = priority;
+      return this;
+    }
+
+    /** @return Admission controller for the GraphQL instance */
+    public AdmissionController build() {
+      return new AdmissionController(this);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.admission;
+
+import java.time.Duration;
+
+/**
+ * Additive-increase, multiplicative-decrease concurrency limit.
+ *
+ * <p>Each operation completing within the latency target while the limit is at least half used
+ * raises the limit by one. Each operation slower than the target, or failing outright, multiplies
+ * the limit by the backoff ratio. The limit stays between the configured minimum and maximum.
+ */
+public class AimdLimit implements ConcurrencyLimit {
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoffRatio;
+  private final long latencyTargetNanos;
+  private volatile int limit;
+
+  private AimdLimit(Builder builder) {
+    this.minLimit = builder.minLimit;
+    this.maxLimit = builder.maxLimit;
+    this.backoffRatio = builder.backoffRatio;
+    this.latencyTargetNanos = builder.latencyTarget.toNanos();
+    this.limit = builder.initialLimit;
+  }
+
+  /** @return Builder with an initial limit of 20, between 1 and 200, backing off by 0.9 */
+  public static Builder newAimdLimit() {
+    return new Builder();
+  }
+
+  @Override
+  public int getLimit() {
+    return limit;
+  }
+
+  @Override
+  public synchronized void onSample(long latencyNanos, int inFlight, boolean dropped) {
+    if (dropped || latencyNanos > latencyTargetNanos) {
+      limit = Math.max(minLimit, (int) (limit * backoffRatio));
+    } else if (inFlight * 2 >= limit) {
+      limit = Math.min(maxLimit, limit + 1);
+    }
+  }
+
+  /** Builder for an {@link AimdLimit}. */
+  public static class Builder {
+    private int initialLimit = 20;
+    private int minLimit = 1;
+    private int maxLimit = 200;
+    private double backoffRatio = 0.9;
+    private Duration latencyTarget = Duration.ofSeconds(1);
+
+    private Builder() {}
+
+    /**
+     * @param initialLimit Limit before any operations complete
+     * @return Fluent builder instance
+     */
+    public Builder initialLimit(int initialLimit) {
+      this.initialLimit = initialLimit;
+      return this;
+    }
+
+    /**
+     * @param minLimit Lowest the limit backs off to
+     * @return Fluent builder instance
+     */
+    public Builder minLimit(int minLimit) {
+      this.minLimit = minLimit;
+      return this;
+    }
+
+    /**
+     * @param maxLimit Highest the limit grows to
+     * @return Fluent builder instance
+     */
+    public Builder maxLimit(int maxLimit) {
+      this.maxLimit = maxLimit;
+      return this;
+    }
+
+    /**
+     * @param backoffRatio Multiplier applied to the limit on a slow or failed operation, between 0
+     *     and 1 exclusive
+     * @return Fluent builder instance
+     */
+    public Builder backoffRatio(double backoffRatio) {
+      this.backoffRatio = backoffRatio;
+      return this;
+    }
+
+    /**
+     * @param latencyTarget Operations slower than this reduce the limit
+     * @return Fluent builder instance
+     */
+    public Builder latencyTarget(Duration latencyTarget) {
+      this.latencyTarget = latencyTarget;
+      return this;
+    }
+
+    /** @return AIMD limit with the configured bounds */
+    public AimdLimit build() {
+      if (minLimit <= 0 || maxLimit < minLimit) {
+        throw new IllegalArgumentException("Concurrency limit bounds must be positive and ordered");
+      }
+      if (initialLimit < minLimit || initialLimit > maxLimit) {
+        throw new IllegalArgumentException("Initial concurrency limit must be within its bounds");
+      }
+      if (backoffRatio <= 0 || backoffRatio >= 1) {
+        throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+      }
+      return new AimdLimit(this);
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.admission;
+
+/**
+ * Number of operations an {@link AdmissionController} lets execute at once, optionally adjusted
+ * from the latency of completed operations. Implementations must be thread-safe.
+ */
+public interface ConcurrencyLimit {
+  /** @return Current number of operations allowed to execute concurrently */
+  int getLimit();
+
+  /**
+   * Called as each admitted operation completes.
+   *
+   * @param latencyNanos Time the operation spent executing, excluding time queued
+   * @param inFlight Number of operations executing when it completed, including itself
+   * @param dropped Whether the operation failed outright instead of returning a result
+   */
+  void onSample(long latencyNanos, int inFlight, boolean dropped);
+
+  /**
+   * @param limit Number of operations allowed to execute concurrently
+   * @return Limit that never changes
+   */
+  static ConcurrencyLimit fixed(int limit) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Concurrency limit must be positive");
+    }
+    return new ConcurrencyLimit() {
+      @Override
+      public int getLimit() {
+        return limit;
+      }
+
+      @Override
+      public void onSample(long latencyNanos, int inFlight, boolean dropped) {}
+    };
+  }
+}
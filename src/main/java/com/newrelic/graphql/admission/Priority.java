@@ -0,0 +1,12 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.admission;
+
+/** Priority class of an operation, highest first. Lower classes are shed first under load. */
+public enum Priority {
+  CRITICAL,
+  NORMAL,
+  SHEDDABLE
+}
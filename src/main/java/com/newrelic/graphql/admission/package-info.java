@@ -0,0 +1,6 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+/** Admission control and load shedding in front of GraphQL execution */
+package com.newrelic.graphql.admission;
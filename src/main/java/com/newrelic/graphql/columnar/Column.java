@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.columnar;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import graphql.schema.CoercingSerializeException;
+import java.io.IOException;
+
+/** Values for a single field across every row of a {@link ColumnarList}. */
+abstract class Column {
+  abstract int size();
+
+  abstract Object get(int row);
+
+  abstract void write(JsonGenerator gen, SerializerProvider provider, int row) throws IOException;
+
+  static final class LongColumn extends Column {
+    private final long[] values;
+
+    LongColumn(long[] values) {
+      this.values = values;
+    }
+
+    @Override
+    int size() {
+      return values.length;
+    }
+
+    @Override
+    Object get(int row) {
+      return values[row];
+    }
+
+    @Override
+    void write(JsonGenerator gen, SerializerProvider provider, int row) throws IOException {
+      gen.writeNumber(values[row]);
+    }
+  }
+
+  static final class DoubleColumn extends Column {
+    private final double[] values;
+
+    DoubleColumn(double[] values) {
+      this.values = values;
+    }
+
+    @Override
+    int size() {
+      return values.length;
+    }
+
+    @Override
+    Object get(int row) {
+      return values[row];
+    }
+
+    // NaN and infinities aren't valid JSON, and GraphQLFloat refuses to serialize them too
+    @Override
+    void write(JsonGenerator gen, SerializerProvider provider, int row) throws IOException {
+      double value = values[row];
+      if (!Double.isFinite(value)) {
+        throw new CoercingSerializeException(
+            "Expected a finite Float value but row " + row + " was " + value);
+      }
+      gen.writeNumber(value);
+    }
+  }
+
+  static final class ObjectColumn extends Column {
+    private final Object[] values;
+
+    ObjectColumn(Object[] values) {
+      this.values = values;
+    }
+
+    @Override
+    int size() {
+      return values.length;
+    }
+
+    @Override
+    Object get(int row) {
+      return values[row];
+    }
+
+    @Override
+    void write(JsonGenerator gen, SerializerProvider provider, int row) throws IOException {
+      provider.defaultSerializeValue(values[row], gen);
+    }
+  }
+
+  // Same value on every row, used for __typename
+  static final class ConstantColumn extends Column {
+    private final String value;
+
+    ConstantColumn(String value) {
+      this.value = value;
+    }
+
+    @Override
+    int size() {
+      return Integer.MAX_VALUE;
+    }
+
+    @Override
+    Object get(int row) {
+      return value;
+    }
+
+    @Override
+    void write(JsonGenerator gen, SerializerProvider provider, int row) throws IOException {
+      gen.writeString(value);
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.columnar;
+
+import com.newrelic.graphql.columnar.Column.ConstantColumn;
+import com.newrelic.graphql.execution.ArgumentValueCache;
+import com.newrelic.graphql.execution.OperationPlanCache;
+import com.newrelic.graphql.execution.PrecompiledExecutionStrategy;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.DataFetcherExceptionHandler;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.execution.FieldCollectorParameters;
+import graphql.execution.FieldValueInfo;
+import graphql.execution.FieldValueInfo.CompleteValueType;
+import graphql.execution.MergedField;
+import graphql.execution.MergedSelectionSet;
+import graphql.introspection.Introspection;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Query execution strategy completing list fields that return a {@link ColumnarList} in a single
+ * step, rather than resolving and completing every field of every row.
+ *
+ * <p>The list's item type must be an object type, and each selected field must either match a
+ * column by name or be {@code __typename}. Column values are used as-is, without scalar coercion or
+ * non-null checks, and the per-row field instrumentation callbacks don't fire. Every other value is
+ * completed as usual, including the plan and argument caching of {@link
+ * PrecompiledExecutionStrategy}.
+ */
+public class ColumnarExecutionStrategy extends PrecompiledExecutionStrategy {
+
+  /** @param exceptionHandler Handler for exceptions thrown by data fetchers */
+  public ColumnarExecutionStrategy(DataFetcherExceptionHandler exceptionHandler) {
+    this(exceptionHandler, null, null);
+  }
+
+  /**
+   * @param exceptionHandler Handler for exceptions thrown by data fetchers
+   * @param plans Cache of collected fields to share across executions, or null to collect fields on
+   *     each execution
+   * @param arguments Cache of coerced literal arguments to share across executions, or null to
+   *     coerce arguments on each execution
+   */
+  public ColumnarExecutionStrategy(
+      DataFetcherExceptionHandler exceptionHandler,
+      OperationPlanCache plans,
+      ArgumentValueCache arguments) {
+    super(exceptionHandler, plans, arguments);
+  }
+
+  @Override
+  protected FieldValueInfo completeValueForList(
+      ExecutionContext executionContext, ExecutionStrategyParameters parameters, Object result) {
+    if (!(result instanceof ColumnarList)) {
+      return super.completeValueForList(executionContext, parameters, result);
+    }
+
+    ColumnarList list = (ColumnarList) result;
+    GraphQLList listType =
+        (GraphQLList) parameters.getExecutionStepInfo().getUnwrappedNonNullType();
+    GraphQLType itemType = GraphQLTypeUtil.unwrapNonNull(listType.getWrappedType());
+    if (!(itemType instanceof GraphQLObjectType)) {
+      return failed(
+          executionContext,
+          parameters,
+          "Columnar lists require an object item type but "
+              + parameters.getField().getName()
+              + " has "
+              + GraphQLTypeUtil.simplePrint(itemType));
+    }
+
+    GraphQLObjectType rowType = (GraphQLObjectType) itemType;
+    FieldCollectorParameters collectorParameters =
+        FieldCollectorParameters.newParameters()
+            .schema(executionContext.getGraphQLSchema())
+            .objectType(rowType)
+            .fragments(executionContext.getFragmentsByName())
+            .variables(executionContext.getCoercedVariables().toMap())
+            .build();
+    MergedSelectionSet selected =
+        fieldCollector.collectFields(collectorParameters, parameters.getField());
+
+    List<String> keys = new ArrayList<>(selected.size());
+    List<Column> columns = new ArrayList<>(selected.size());
+    for (Map.Entry<String, MergedField> entry : selected.getSubFields().entrySet()) {
+      String name = entry.getValue().getName();
+      Column column =
+          Introspection.TypeNameMetaFieldDef.getName().equals(name)
+              ? new ConstantColumn(rowType.getName())
+              : list.getColumn(name);
+      if (column == null) {
+        return failed(
+            executionContext,
+            parameters,
+            "Columnar list has no column for " + rowType.getName() + "." + name);
+      }
+
+      keys.add(entry.getKey());
+      columns.add(column);
+    }
+
+    ExecutionResult completed =
+        new ExecutionResultImpl(new ColumnarResult(list.size(), keys, columns), List.of());
+    return FieldValueInfo.newFieldValueInfo(CompleteValueType.LIST)
+        .fieldValue(CompletableFuture.completedFuture(completed))
+        .fieldValueInfos(List.of())
+        .build();
+  }
+
+  private FieldValueInfo failed(
+      ExecutionContext executionContext, ExecutionStrategyParameters parameters, String message) {
+    executionContext.addError(
+        GraphqlErrorBuilder.newError().message("%s", message).path(parameters.getPath()).build());
+    return FieldValueInfo.newFieldValueInfo(CompleteValueType.NULL)
+        .fieldValue(completeValueForNull(executionContext, parameters))
+        .build();
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.columnar;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+/**
+ * Jackson module streaming {@link ColumnarResult} values to JSON column by column. Register it on
+ * the {@code ObjectMapper} that writes your GraphQL responses.
+ */
+public class ColumnarJsonModule extends SimpleModule {
+
+  /** Registers the streaming serializer for columnar results. */
+  public ColumnarJsonModule() {
+    super(ColumnarJsonModule.class.getSimpleName());
+    addSerializer(ColumnarResult.class, new ColumnarResultSerializer());
+  }
+
+  private static class ColumnarResultSerializer extends StdSerializer<ColumnarResult> {
+    ColumnarResultSerializer() {
+      super(ColumnarResult.class);
+    }
+
+    @Override
+    public void serialize(ColumnarResult value, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      value.writeTo(gen, provider);
+    }
+  }
+}
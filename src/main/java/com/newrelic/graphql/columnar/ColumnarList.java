@@ -0,0 +1,164 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.columnar;
+
+import com.newrelic.graphql.columnar.Column.DoubleColumn;
+import com.newrelic.graphql.columnar.Column.LongColumn;
+import com.newrelic.graphql.columnar.Column.ObjectColumn;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * List of objects stored as one array per field, for data fetchers returning large lists of simple
+ * rows like time series points.
+ *
+ * <p>With {@link ColumnarExecutionStrategy}, a list field returning this is completed in one step
+ * into a {@link ColumnarResult} instead of executing each row, and {@link ColumnarJsonModule}
+ * writes that straight to JSON. Selected fields are matched to columns by name and their values are
+ * written as-is, so they must already be in the scalar's output form (i.e. epoch milliseconds for
+ * an {@code EpochMilliseconds} field).
+ *
+ * <p>Under any other execution strategy this iterates as one map per row, so fields still resolve,
+ * just without the savings.
+ *
+ * <pre>
+ *   return ColumnarList.newColumnarList(timestamps.length)
+ *       .longColumn("timestamp", timestamps)
+ *       .doubleColumn("value", values)
+ *       .build();
+ * </pre>
+ */
+public final class ColumnarList implements Iterable<Map<String, Object>> {
+  private final int size;
+  private final Map<String, Column> columns;
+
+  private ColumnarList(int size, Map<String, Column> columns) {
+    this.size = size;
+    this.columns = columns;
+  }
+
+  /**
+   * @param size Number of rows in the list
+   * @return Builder for adding columns
+   */
+  public static Builder newColumnarList(int size) {
+    return new Builder(size);
+  }
+
+  /** @return Number of rows in the list */
+  public int size() {
+    return size;
+  }
+
+  /** @return Names of the columns, in the order they were added */
+  public Set<String> getColumnNames() {
+    return Collections.unmodifiableSet(columns.keySet());
+  }
+
+  /**
+   * @param row Row index
+   * @param column Column name
+   * @return Value of the column for the row, boxed if the column is primitive
+   * @throws IllegalArgumentException when there's no column with the name
+   */
+  public Object get(int row, String column) {
+    Column values = columns.get(column);
+    if (values == null) {
+      throw new IllegalArgumentException("No column named '" + column + "'");
+    }
+    return values.get(row);
+  }
+
+  Column getColumn(String name) {
+    return columns.get(name);
+  }
+
+  /** @return Iterator materializing a map of column values for each row */
+  @Override
+  public Iterator<Map<String, Object>> iterator() {
+    return new Iterator<Map<String, Object>>() {
+      private int row = 0;
+
+      @Override
+      public boolean hasNext() {
+        return row < size;
+      }
+
+      @Override
+      public Map<String, Object> next() {
+        if (row >= size) {
+          throw new NoSuchElementException();
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Column> column : columns.entrySet()) {
+          values.put(column.getKey(), column.getValue().get(row));
+        }
+        row++;
+        return values;
+      }
+    };
+  }
+
+  /** Builder for a {@link ColumnarList} with a fixed number of rows. */
+  public static class Builder {
+    private final int size;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+
+    private Builder(int size) {
+      if (size < 0) {
+        throw new IllegalArgumentException("Columnar list size can't be negative");
+      }
+      this.size = size;
+    }
+
+    /**
+     * @param name Column name, matching the GraphQL field it provides
+     * @param values Value for each row
+     * @return Fluent builder instance
+     */
+    public Builder longColumn(String name, long[] values) {
+      return add(name, new LongColumn(values));
+    }
+
+    /**
+     * @param name Column name, matching the GraphQL field it provides
+     * @param values Value for each row, which must be finite to be written to JSON
+     * @return Fluent builder instance
+     */
+    public Builder doubleColumn(String name, double[] values) {
+      return add(name, new DoubleColumn(values));
+    }
+
+    /**
+     * @param name Column name, matching the GraphQL field it provides
+     * @param values Value for each row, serialized with Jackson
+     * @return Fluent builder instance
+     */
+    public Builder column(String name, Object[] values) {
+      return add(name, new ObjectColumn(values));
+    }
+
+    private Builder add(String name, Column column) {
+      if (column.size() != size) {
+        throw new IllegalArgumentException(
+            "Column '" + name + "' has " + column.size() + " values, expected " + size);
+      }
+      if (columns.putIfAbsent(name, column) != null) {
+        throw new IllegalArgumentException("Column '" + name + "' was already added");
+      }
+      return this;
+    }
+
+    /** @return Columnar list with the columns added so far */
+    public ColumnarList build() {
+      return new ColumnarList(size, new LinkedHashMap<>(columns));
+    }
+  }
+}
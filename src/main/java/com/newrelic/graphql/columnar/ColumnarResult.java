@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.columnar;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Completed value of a list field that returned a {@link ColumnarList}, holding the selected
+ * columns under their response keys.
+ *
+ * <p>This stands in for the usual list of maps in the execution result. Reading it as a list builds
+ * each row's map on demand, while {@link ColumnarJsonModule} streams the columns to JSON without
+ * building rows at all.
+ */
+public final class ColumnarResult extends AbstractList<Map<String, Object>>
+    implements RandomAccess {
+  private final int size;
+  private final String[] keys;
+  private final Column[] columns;
+
+  ColumnarResult(int size, List<String> keys, List<Column> columns) {
+    this.size = size;
+    this.keys = keys.toArray(new String[0]);
+    this.columns = columns.toArray(new Column[0]);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param row Row index
+   * @return Map of response keys to values for the row, built on each call
+   */
+  @Override
+  public Map<String, Object> get(int row) {
+    if (row < 0 || row >= size) {
+      throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+    }
+
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (int i = 0; i < keys.length; i++) {
+      values.put(keys[i], columns[i].get(row));
+    }
+    return values;
+  }
+
+  /**
+   * Writes the result as a JSON array of objects, reading values straight from the columns.
+   *
+   * @param gen Generator to write to
+   * @param provider Serializer provider for non-primitive columns
+   * @throws IOException when writing fails
+   */
+  public void writeTo(JsonGenerator gen, SerializerProvider provider) throws IOException {
+    gen.writeStartArray(this, size);
+    for (int row = 0; row < size; row++) {
+      gen.writeStartObject();
+      for (int i = 0; i < keys.length; i++) {
+        gen.writeFieldName(keys[i]);
+        columns[i].write(gen, provider, row);
+      }
+      gen.writeEndObject();
+    }
+    gen.writeEndArray();
+  }
+}
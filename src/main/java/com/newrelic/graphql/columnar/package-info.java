@@ -0,0 +1,6 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+/** Columnar results for large list fields, executed and serialized without per-row objects */
+package com.newrelic.graphql.columnar;
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.constraints;
+
+import java.util.Collection;
+
+/** Check of a single argument or input field value, compiled from a constraint directive. */
+interface Constraint {
+  /**
+   * @param value Non-null value to check
+   * @return Description of how the value violates the constraint, or null if it doesn't
+   */
+  String check(Object value);
+
+  /** Inclusive bounds on a numeric value, from {@code @range}. */
+  final class Range implements Constraint {
+    private final double min;
+    private final double max;
+    private final String violation;
+
+    Range(double min, double max) {
+      this.min = min;
+      this.max = max;
+      this.violation =
+          "must be "
+              + describe(
+                  min > Double.NEGATIVE_INFINITY,
+                  max < Double.POSITIVE_INFINITY,
+                  format(min),
+                  format(max),
+                  "");
+    }
+
+    @Override
+    public String check(Object value) {
+      if (!(value instanceof Number)) {
+        return null;
+      }
+      double number = ((Number) value).doubleValue();
+      return number < min || number > max ? violation : null;
+    }
+
+    private static String format(double bound) {
+      return bound == Math.rint(bound) && !Double.isInfinite(bound)
+          ? Long.toString((long) bound)
+          : Double.toString(bound);
+    }
+  }
+
+  /** Inclusive bounds on the length of a string, from {@code @length}. */
+  final class Length implements Constraint {
+    private final int min;
+    private final int max;
+    private final String violation;
+
+    Length(int min, int max) {
+      this.min = min;
+      this.max = max;
+      this.violation =
+          "must be " + describe(min > 0, max < Integer.MAX_VALUE, min, max, " characters long");
+    }
+
+    @Override
+    public String check(Object value) {
+      if (!(value instanceof CharSequence)) {
+        return null;
+      }
+      int length = ((CharSequence) value).length();
+      return length < min || length > max ? violation : null;
+    }
+  }
+
+  /** Regular expression a string must match in full, from {@code @pattern}. */
+  final class Pattern implements Constraint {
+    private final java.util.regex.Pattern pattern;
+    private final String violation;
+
+    Pattern(java.util.regex.Pattern pattern) {
+      this.pattern = pattern;
+      this.violation = "must match '" + pattern.pattern() + "'";
+    }
+
+    @Override
+    public String check(Object value) {
+      if (!(value instanceof CharSequence)) {
+        return null;
+      }
+      return pattern.matcher((CharSequence) value).matches() ? null : violation;
+    }
+  }
+
+  /** Inclusive bounds on the number of items in a list, from {@code @size}. */
+  final class Size implements Constraint {
+    private final int min;
+    private final int max;
+    private final String violation;
+
+    Size(int min, int max) {
+      this.min = min;
+      this.max = max;
+      this.violation =
+          "must have " + describe(min > 0, max < Integer.MAX_VALUE, min, max, " items");
+    }
+
+    @Override
+    public String check(Object value) {
+      if (!(value instanceof Collection)) {
+        return null;
+      }
+      int size = ((Collection<?>) value).size();
+      return size < min || size > max ? violation : null;
+    }
+  }
+
+  private static String describe(
+      boolean hasMin, boolean hasMax, Object min, Object max, String unit) {
+    if (!hasMin) {
+      return "at most " + max + unit;
+    }
+    if (!hasMax) {
+      return "at least " + min + unit;
+    }
+    return "between " + min + " and " + max + unit;
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.constraints;
+
+import graphql.language.DirectiveDefinition;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Constraint directives on arguments and input fields, compiled into validators that run before
+ * each constrained field's data fetcher.
+ *
+ * <ul>
+ *   <li>{@code @range(min: Float, max: Float)} bounds numbers
+ *   <li>{@code @length(min: Int, max: Int)} bounds the length of strings
+ *   <li>{@code @pattern(regexp: String!)} requires strings to match a regular expression in full
+ *   <li>{@code @size(min: Int, max: Int)} bounds the number of items in a list
+ * </ul>
+ *
+ * <p>Bounds are inclusive and either may be left out. On a list, all but {@code @size} apply to
+ * each item. Constraints on input object fields apply wherever the input type is used, at any
+ * depth. Everything is checked against the coerced argument values, so a field fails before its
+ * fetcher or any input mapping runs.
+ *
+ * <pre>
+ *   type Query {
+ *     search(text: String! @length(min: 3, max: 200), limit: Int @range(min: 1, max: 100)): [Result]
+ *   }
+ * </pre>
+ */
+public final class ConstraintDirectives {
+  static final String RANGE = "range";
+  static final String LENGTH = "length";
+  static final String PATTERN = "pattern";
+  static final String SIZE = "size";
+
+  /** SDL declaring the constraint directives. */
+  public static final String DEFINITIONS =
+      "directive @range(min: Float, max: Float) on ARGUMENT_DEFINITION | INPUT_FIELD_DEFINITION\n"
+          + "directive @length(min: Int, max: Int) on ARGUMENT_DEFINITION | INPUT_FIELD_DEFINITION\n"
+          + "directive @pattern(regexp: String!) on ARGUMENT_DEFINITION | INPUT_FIELD_DEFINITION\n"
+          + "directive @size(min: Int, max: Int) on ARGUMENT_DEFINITION | INPUT_FIELD_DEFINITION\n";
+
+  private ConstraintDirectives() {}
+
+  /**
+   * Declares whichever constraint directives the registry doesn't declare already, so the SDL can
+   * use them without declaring them itself.
+   *
+   * @param registry Type registry parsed from the SDL
+   */
+  public static void addDefinitions(TypeDefinitionRegistry registry) {
+    for (DirectiveDefinition definition :
+        new SchemaParser().parse(DEFINITIONS).getDirectiveDefinitions().values()) {
+      if (registry.getDirectiveDefinition(definition.getName()).isEmpty()) {
+        registry.add(definition);
+      }
+    }
+  }
+
+  /**
+   * @param schema Executable schema using the constraint directives
+   * @return Schema with each constrained field's data fetcher wrapped in a {@link
+   *     ValidatingDataFetcher}, or the same schema if nothing is constrained
+   * @throws IllegalArgumentException when a directive has invalid bounds or pattern, or doesn't
+   *     apply to the type it's on
+   */
+  public static GraphQLSchema apply(GraphQLSchema schema) {
+    GraphQLCodeRegistry codeRegistry = schema.getCodeRegistry();
+    GraphQLCodeRegistry.Builder wrapped = GraphQLCodeRegistry.newCodeRegistry(codeRegistry);
+    Map<String, ValueValidator> objects = new HashMap<>();
+    boolean constrained = false;
+
+    for (GraphQLNamedType type : schema.getAllTypesAsList()) {
+      if (!(type instanceof GraphQLObjectType) || type.getName().startsWith("__")) {
+        continue;
+      }
+
+      GraphQLObjectType objectType = (GraphQLObjectType) type;
+      for (GraphQLFieldDefinition field : objectType.getFieldDefinitions()) {
+        Map<String, ValueValidator> arguments = new LinkedHashMap<>();
+        for (GraphQLArgument argument : field.getArguments()) {
+          String coordinate =
+              type.getName() + "." + field.getName() + "(" + argument.getName() + ")";
+          ValueValidator validator =
+              ValueValidator.compile(argument, argument.getType(), coordinate, objects);
+          if (validator != null) {
+            arguments.put(argument.getName(), validator);
+          }
+        }
+
+        if (!arguments.isEmpty()) {
+          FieldCoordinates coordinates = FieldCoordinates.coordinates(objectType, field);
+          wrapped.dataFetcher(
+              coordinates,
+              new ValidatingDataFetcher(
+                  codeRegistry.getDataFetcher(coordinates, field), arguments));
+          constrained = true;
+        }
+      }
+    }
+
+    if (!constrained) {
+      return schema;
+    }
+    return schema.transformWithoutTypes(builder -> builder.codeRegistry(wrapped.build()));
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.constraints;
+
+import graphql.ErrorType;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wraps a data fetcher to check its arguments against their constraint directives first. Fields
+ * with invalid arguments resolve to null with a validation error per violation, without calling the
+ * fetcher.
+ */
+public class ValidatingDataFetcher implements DataFetcher<Object> {
+  private final DataFetcher<?> delegate;
+  private final String[] names;
+  private final ValueValidator[] validators;
+
+  ValidatingDataFetcher(DataFetcher<?> delegate, Map<String, ValueValidator> arguments) {
+    this.delegate = delegate;
+    this.names = arguments.keySet().toArray(new String[0]);
+    this.validators = arguments.values().toArray(new ValueValidator[0]);
+  }
+
+  /** @return Data fetcher called once arguments are valid */
+  public DataFetcher<?> getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public Object get(DataFetchingEnvironment environment) throws Exception {
+    List<String> violations = new ArrayList<>(0);
+    for (int i = 0; i < names.length; i++) {
+      validators[i].validate(environment.getArgument(names[i]), names[i], violations);
+    }
+    if (violations.isEmpty()) {
+      return delegate.get(environment);
+    }
+
+    List<GraphQLError> errors = new ArrayList<>(violations.size());
+    for (String violation : violations) {
+      errors.add(
+          GraphqlErrorBuilder.newError(environment)
+              .errorType(ErrorType.ValidationError)
+              .message("Argument %s", violation)
+              .build());
+    }
+    return DataFetcherResult.newResult().errors(errors).build();
+  }
+}
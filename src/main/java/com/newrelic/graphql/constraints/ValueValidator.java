@@ -0,0 +1,251 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.constraints;
+
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLAppliedDirectiveArgument;
+import graphql.schema.GraphQLDirectiveContainer;
+import graphql.schema.GraphQLInputObjectField;
+import graphql.schema.GraphQLInputObjectType;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Constraints on an argument or input field value, with validators for its list items and input
+ * object fields. Compiled once per argument and shared between the arguments and fields using an
+ * input object type.
+ */
+final class ValueValidator {
+  private final List<Constraint> constraints = new ArrayList<>();
+  private final Map<String, ValueValidator> fields = new LinkedHashMap<>();
+  private ValueValidator items;
+
+  /**
+   * @param value Coerced value, or null
+   * @param path Argument name and path to the value, for messages
+   * @param violations Descriptions of the constraints the value violates, added to
+   */
+  void validate(Object value, String path, List<String> violations) {
+    if (value == null) {
+      return;
+    }
+
+    for (Constraint constraint : constraints) {
+      String violation = constraint.check(value);
+      if (violation != null) {
+        violations.add("'" + path + "' " + violation);
+      }
+    }
+
+    if (items != null && value instanceof Iterable) {
+      int index = 0;
+      for (Object item : (Iterable<?>) value) {
+        items.validate(item, path + "[" + index++ + "]", violations);
+      }
+    }
+
+    if (!fields.isEmpty() && value instanceof Map) {
+      Map<?, ?> values = (Map<?, ?>) value;
+      for (Map.Entry<String, ValueValidator> field : fields.entrySet()) {
+        field
+            .getValue()
+            .validate(values.get(field.getKey()), path + "." + field.getKey(), violations);
+      }
+    }
+  }
+
+  /**
+   * @param element Argument or input field carrying constraint directives
+   * @param type Type of the argument or input field
+   * @param coordinate Description of the element for build errors
+   * @param objects Validators compiled so far by input object type name, shared across calls
+   * @return Validator for the element's values, or null if nothing about them is constrained
+   * @throws IllegalArgumentException when a directive is invalid or doesn't apply to the type
+   */
+  static ValueValidator compile(
+      GraphQLDirectiveContainer element,
+      GraphQLType type,
+      String coordinate,
+      Map<String, ValueValidator> objects) {
+    ValueValidator validator = compileElement(element, type, coordinate, objects);
+    if (validator == null || !validator.hasConstraints()) {
+      return null;
+    }
+    validator.prune(Collections.newSetFromMap(new IdentityHashMap<>()));
+    return validator;
+  }
+
+  private static ValueValidator compileElement(
+      GraphQLDirectiveContainer element,
+      GraphQLType type,
+      String coordinate,
+      Map<String, ValueValidator> objects) {
+    List<Constraint> itemConstraints = new ArrayList<>();
+    Constraint size = null;
+
+    GraphQLAppliedDirective directive = element.getAppliedDirective(ConstraintDirectives.RANGE);
+    if (directive != null) {
+      double min = doubleArgument(directive, "min", Double.NEGATIVE_INFINITY);
+      double max = doubleArgument(directive, "max", Double.POSITIVE_INFINITY);
+      checkBounds(coordinate, directive, min, max);
+      itemConstraints.add(new Constraint.Range(min, max));
+    }
+
+    directive = element.getAppliedDirective(ConstraintDirectives.LENGTH);
+    if (directive != null) {
+      int min = intArgument(directive, "min", 0);
+      int max = intArgument(directive, "max", Integer.MAX_VALUE);
+      checkBounds(coordinate, directive, min, max);
+      itemConstraints.add(new Constraint.Length(min, max));
+    }
+
+    directive = element.getAppliedDirective(ConstraintDirectives.PATTERN);
+    if (directive != null) {
+      String regexp = directive.getArgument("regexp").getValue();
+      try {
+        itemConstraints.add(new Constraint.Pattern(java.util.regex.Pattern.compile(regexp)));
+      } catch (PatternSyntaxException e) {
+        throw new IllegalArgumentException(
+            "Invalid @" + ConstraintDirectives.PATTERN + " on " + coordinate, e);
+      }
+    }
+
+    directive = element.getAppliedDirective(ConstraintDirectives.SIZE);
+    if (directive != null) {
+      if (!(GraphQLTypeUtil.unwrapNonNull(type) instanceof GraphQLList)) {
+        throw new IllegalArgumentException(
+            "@" + ConstraintDirectives.SIZE + " on " + coordinate + " requires a list type");
+      }
+      int min = intArgument(directive, "min", 0);
+      int max = intArgument(directive, "max", Integer.MAX_VALUE);
+      checkBounds(coordinate, directive, min, max);
+      size = new Constraint.Size(min, max);
+    }
+
+    ValueValidator validator = forType(type, itemConstraints, coordinate, objects);
+    if (size != null) {
+      validator = validator == null ? new ValueValidator() : validator;
+      validator.constraints.add(size);
+    }
+    return validator;
+  }
+
+  private static ValueValidator forType(
+      GraphQLType type,
+      List<Constraint> itemConstraints,
+      String coordinate,
+      Map<String, ValueValidator> objects) {
+    type = GraphQLTypeUtil.unwrapNonNull(type);
+    if (type instanceof GraphQLList) {
+      ValueValidator items =
+          forType(((GraphQLList) type).getWrappedType(), itemConstraints, coordinate, objects);
+      if (items == null) {
+        return null;
+      }
+      ValueValidator validator = new ValueValidator();
+      validator.items = items;
+      return validator;
+    }
+
+    if (type instanceof GraphQLInputObjectType) {
+      if (!itemConstraints.isEmpty()) {
+        throw new IllegalArgumentException(
+            "Constraint on " + coordinate + " doesn't apply to an input object type");
+      }
+      return forObject((GraphQLInputObjectType) type, objects);
+    }
+
+    if (itemConstraints.isEmpty()) {
+      return null;
+    }
+    ValueValidator validator = new ValueValidator();
+    validator.constraints.addAll(itemConstraints);
+    return validator;
+  }
+
+  private static ValueValidator forObject(
+      GraphQLInputObjectType type, Map<String, ValueValidator> objects) {
+    if (objects.containsKey(type.getName())) {
+      return objects.get(type.getName());
+    }
+
+    // Registered before its fields so recursive input types refer back to it
+    ValueValidator validator = new ValueValidator();
+    objects.put(type.getName(), validator);
+    for (GraphQLInputObjectField field : type.getFieldDefinitions()) {
+      ValueValidator fieldValidator =
+          compileElement(field, field.getType(), type.getName() + "." + field.getName(), objects);
+      if (fieldValidator != null) {
+        validator.fields.put(field.getName(), fieldValidator);
+      }
+    }
+    return validator;
+  }
+
+  private boolean hasConstraints() {
+    return hasConstraints(Collections.newSetFromMap(new IdentityHashMap<>()));
+  }
+
+  // Drops items and fields with nothing constrained below them, so validation doesn't walk them
+  private void prune(Set<ValueValidator> visited) {
+    if (!visited.add(this)) {
+      return;
+    }
+    if (items != null) {
+      if (items.hasConstraints()) {
+        items.prune(visited);
+      } else {
+        items = null;
+      }
+    }
+    fields.values().removeIf(field -> !field.hasConstraints());
+    fields.values().forEach(field -> field.prune(visited));
+  }
+
+  private boolean hasConstraints(Set<ValueValidator> visited) {
+    if (!visited.add(this)) {
+      return false;
+    }
+    if (!constraints.isEmpty() || items != null && items.hasConstraints(visited)) {
+      return true;
+    }
+    for (ValueValidator field : fields.values()) {
+      if (field.hasConstraints(visited)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static double doubleArgument(
+      GraphQLAppliedDirective directive, String name, double defaultValue) {
+    GraphQLAppliedDirectiveArgument argument = directive.getArgument(name);
+    Number value = argument == null ? null : argument.getValue();
+    return value == null ? defaultValue : value.doubleValue();
+  }
+
+  private static int intArgument(GraphQLAppliedDirective directive, String name, int defaultValue) {
+    GraphQLAppliedDirectiveArgument argument = directive.getArgument(name);
+    Number value = argument == null ? null : argument.getValue();
+    return value == null ? defaultValue : value.intValue();
+  }
+
+  private static void checkBounds(
+      String coordinate, GraphQLAppliedDirective directive, double min, double max) {
+    if (min > max || min < 0 && !ConstraintDirectives.RANGE.equals(directive.getName())) {
+      throw new IllegalArgumentException(
+          "Invalid bounds for @" + directive.getName() + " on " + coordinate);
+    }
+  }
+}
@@ -0,0 +1,6 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+/** Argument validation compiled from constraint directives in the SDL */
+package com.newrelic.graphql.constraints;
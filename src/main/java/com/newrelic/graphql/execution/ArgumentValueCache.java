@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+import graphql.language.Argument;
+import graphql.language.ArrayValue;
+import graphql.language.Field;
+import graphql.language.ObjectField;
+import graphql.language.ObjectValue;
+import graphql.language.Value;
+import graphql.language.VariableReference;
+import graphql.schema.GraphQLFieldDefinition;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of coerced argument values used by {@link
+ * PrecompiledExecutionStrategy}.
+ *
+ * <p>Fields whose arguments are written entirely as literals coerce to the same values on every
+ * execution, so the coerced map is kept per field AST node and reused as long as the parsed
+ * document is, i.e. when documents come from a {@code PreparsedDocumentProvider}. Fields
+ * referencing any variable are coerced on each execution as usual. Once full, an arbitrary entry is
+ * evicted for each new one.
+ *
+ * <p>Cached values are shared between executions, so data fetchers must treat their arguments as
+ * read-only, and scalars used in literals must parse them without regard to the {@code
+ * GraphQLContext} or locale. The predefined scalars meet both.
+ */
+public class ArgumentValueCache {
+  private final int maxSize;
+  private final ConcurrentHashMap<ArgumentKey, Map<String, Object>> values;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /** @param maxSize Maximum number of fields to hold coerced arguments for */
+  public ArgumentValueCache(int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Argument value cache size must be positive");
+    }
+    this.maxSize = maxSize;
+    this.values = new ConcurrentHashMap<>();
+  }
+
+  /** @return Number of lookups that reused coerced arguments */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /** @return Number of lookups that had to coerce the literal arguments */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /** @return Number of fields currently holding coerced arguments */
+  public int size() {
+    return values.size();
+  }
+
+  /** @return Maximum number of fields cached */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /** Removes all cached arguments. Hit and miss counts are kept. */
+  public void clear() {
+    values.clear();
+  }
+
+  Map<String, Object> get(ArgumentKey key) {
+    Map<String, Object> value = values.get(key);
+    if (value != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return value;
+  }
+
+  void put(ArgumentKey key, Map<String, Object> value) {
+    if (values.size() >= maxSize) {
+      Iterator<ArgumentKey> keys = values.keySet().iterator();
+      if (keys.hasNext()) {
+        values.remove(keys.next());
+      }
+    }
+    values.put(key, value);
+  }
+
+  static boolean isLiteral(List<Argument> arguments) {
+    for (Argument argument : arguments) {
+      if (!isLiteral(argument.getValue())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isLiteral(Value<?> value) {
+    if (value instanceof VariableReference) {
+      return false;
+    } else if (value instanceof ArrayValue) {
+      for (Value<?> element : ((ArrayValue) value).getValues()) {
+        if (!isLiteral(element)) {
+          return false;
+        }
+      }
+    } else if (value instanceof ObjectValue) {
+      for (ObjectField field : ((ObjectValue) value).getObjectFields()) {
+        if (!isLiteral(field.getValue())) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /** Identifies a field's arguments by its AST node and the definition they're coerced against. */
+  static final class ArgumentKey {
+    private final Field field;
+    private final GraphQLFieldDefinition definition;
+
+    ArgumentKey(Field field, GraphQLFieldDefinition definition) {
+      this.field = field;
+      this.definition = definition;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ArgumentKey)) {
+        return false;
+      }
+
+      ArgumentKey other = (ArgumentKey) o;
+      return field == other.field && definition == other.definition;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(field) + System.identityHashCode(definition);
+    }
+  }
+}
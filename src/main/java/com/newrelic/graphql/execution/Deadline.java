@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+import graphql.GraphQLContext;
+import graphql.schema.DataFetchingEnvironment;
+import java.time.Duration;
+
+/**
+ * Point in time by which an operation must complete.
+ *
+ * <p>When timeouts are configured on {@code SimpleGraphQLBuilder}, the deadline for each operation
+ * is stored in the {@code GraphQLContext} so fetchers can pass it along to backend calls:
+ *
+ * <pre>
+ *   Deadline deadline = Deadline.from(environment);
+ *   if (deadline != null) {
+ *     client.withTimeout(deadline.remaining());
+ *   }
+ * </pre>
+ */
+public final class Deadline {
+  private final long deadlineNanos;
+
+  private Deadline(long deadlineNanos) {
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  /**
+   * @param timeout Time from now until the deadline
+   * @return Deadline instance
+   */
+  public static Deadline after(Duration timeout) {
+    return new Deadline(System.nanoTime() + timeout.toNanos());
+  }
+
+  /**
+   * @param context GraphQL context for the operation
+   * @return Deadline for the operation, or null if none is set
+   */
+  public static Deadline from(GraphQLContext context) {
+    return context == null ? null : context.get(Deadline.class);
+  }
+
+  /**
+   * @param environment Environment passed to a data fetcher
+   * @return Deadline for the operation being executed, or null if none is set
+   */
+  public static Deadline from(DataFetchingEnvironment environment) {
+    return from(environment.getGraphQlContext());
+  }
+
+  /**
+   * Stores the deadline in the context, unless the caller already supplied one.
+   *
+   * @param context GraphQL context for the operation
+   * @return The deadline in effect for the operation
+   */
+  public Deadline attachTo(GraphQLContext context) {
+    Deadline existing = context.get(Deadline.class);
+    if (existing != null) {
+      return existing;
+    }
+    context.put(Deadline.class, this);
+    return this;
+  }
+
+  /** @return Nanoseconds left before the deadline passes, negative once expired */
+  public long remainingNanos() {
+    return deadlineNanos - System.nanoTime();
+  }
+
+  /** @return Time left before the deadline passes, negative once expired */
+  public Duration remaining() {
+    return Duration.ofNanos(remainingNanos());
+  }
+
+  /** @return Boolean indicating whether the deadline has passed */
+  public boolean isExpired() {
+    return remainingNanos() <= 0;
+  }
+
+  @Override
+  public String toString() {
+    return "Deadline{remaining=" + remaining() + '}';
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import java.time.Duration;
+
+/**
+ * Starts the operation timeout clock when execution begins, storing the resulting {@link Deadline}
+ * in the {@code GraphQLContext}. A deadline already placed in the context by the caller is kept.
+ */
+public class DeadlineInstrumentation extends SimplePerformantInstrumentation {
+  private final FetcherTimeouts timeouts;
+
+  /** @param timeouts Timeout configuration to take operation timeouts from */
+  public DeadlineInstrumentation(FetcherTimeouts timeouts) {
+    this.timeouts = timeouts;
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecution(
+      InstrumentationExecutionParameters parameters, InstrumentationState state) {
+    Duration timeout = timeouts.operationTimeoutFor(parameters.getOperation());
+    if (timeout != null && parameters.getGraphQLContext() != null) {
+      Deadline.after(timeout).attachTo(parameters.getGraphQLContext());
+    }
+    return super.beginExecution(parameters, state);
+  }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+/**
+ * Raised when a data fetcher doesn't complete before its field timeout or the operation deadline.
+ * The field resolves to null and the error is reported alongside the rest of the partial result.
+ */
+public class FetcherTimeoutException extends RuntimeException {
+  private final String field;
+
+  /** @param field Field that timed out, in the format "Type.field" */
+  public FetcherTimeoutException(String field) {
+    super("Timed out fetching " + field);
+    this.field = field;
+  }
+
+  /** @return Field that timed out, in the format "Type.field" */
+  public String getField() {
+    return field;
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timeout configuration and timeout counts for the fetchers of a GraphQL execution instance.
+ *
+ * <p>Operation timeouts start when execution begins and become the {@link Deadline} in the
+ * operation's {@code GraphQLContext}. Field timeouts apply from the moment the field's fetcher is
+ * called. Whichever comes first wins. Fetchers returning a {@code CompletionStage} are cancelled
+ * when they run out of time, and the field resolves to null with a {@link FetcherTimeoutException}
+ * error so the rest of the result is still returned.
+ *
+ * <pre>
+ *   FetcherTimeouts timeouts = new FetcherTimeouts()
+ *       .operationTimeout(Duration.ofSeconds(10))
+ *       .fieldTimeout("Query", "slowField", Duration.ofSeconds(2));
+ *
+ *   GraphQL graphQL = new SimpleGraphQLBuilder(schemaReader)
+ *       .fetcher("Query", "slowField", new SlowFieldFetcher())
+ *       .timeouts(timeouts)
+ *       .build();
+ * </pre>
+ */
+public class FetcherTimeouts {
+  private Duration defaultOperationTimeout;
+  private final HashMap<String, Duration> operationTimeouts = new HashMap<>();
+  private final HashMap<String, Duration> fieldTimeouts = new HashMap<>();
+  private final ConcurrentHashMap<String, LongAdder> timeoutCounts = new ConcurrentHashMap<>();
+  private final LongAdder timeoutCount = new LongAdder();
+
+  /**
+   * @param timeout Timeout for operations without a more specific timeout by name
+   * @return Fluent instance
+   */
+  public FetcherTimeouts operationTimeout(Duration timeout) {
+    this.defaultOperationTimeout = timeout;
+    return this;
+  }
+
+  /**
+   * @param operationName Operation name as provided on the {@code ExecutionInput}
+   * @param timeout Timeout for the named operation
+   * @return Fluent instance
+   */
+  public FetcherTimeouts operationTimeout(String operationName, Duration timeout) {
+    this.operationTimeouts.put(operationName, timeout);
+    return this;
+  }
+
+  /**
+   * @param typeName GraphQL type name the field belongs to
+   * @param fieldName Name of the field
+   * @param timeout Timeout for the field's fetcher
+   * @return Fluent instance
+   */
+  public FetcherTimeouts fieldTimeout(String typeName, String fieldName, Duration timeout) {
+    this.fieldTimeouts.put(String.format("%s.%s", typeName, fieldName), timeout);
+    return this;
+  }
+
+  /**
+   * @param operationName Operation name from the {@code ExecutionInput}, may be null
+   * @return Timeout for the operation, or null if there is none
+   */
+  public Duration operationTimeoutFor(String operationName) {
+    if (operationName != null) {
+      Duration timeout = operationTimeouts.get(operationName);
+      if (timeout != null) {
+        return timeout;
+      }
+    }
+    return defaultOperationTimeout;
+  }
+
+  /**
+   * @param field Field in the format "Type.field"
+   * @return Timeout for the field, or null if there is none
+   */
+  public Duration fieldTimeoutFor(String field) {
+    return fieldTimeouts.get(field);
+  }
+
+  /** @return Total number of fetcher timeouts recorded */
+  public long getTimeoutCount() {
+    return timeoutCount.sum();
+  }
+
+  /** @return Snapshot of fetcher timeouts recorded, keyed by field in the format "Type.field" */
+  public Map<String, Long> getTimeoutCounts() {
+    Map<String, Long> counts = new HashMap<>();
+    timeoutCounts.forEach((field, count) -> counts.put(field, count.sum()));
+    return Collections.unmodifiableMap(counts);
+  }
+
+  void recordTimeout(String field) {
+    timeoutCount.increment();
+    timeoutCounts.computeIfAbsent(field, k -> new LongAdder()).increment();
+  }
+
+  static ScheduledExecutorService scheduler() {
+    return SchedulerHolder.scheduler;
+  }
+
+  // Lazily started so the thread only exists once timeouts are in use. Cancelled timers are removed
+  // right away since nearly every timer is cancelled when its fetcher completes in time.
+  private static final class SchedulerHolder {
+    private static final ScheduledThreadPoolExecutor scheduler = createScheduler();
+
+    private static ScheduledThreadPoolExecutor createScheduler() {
+      ScheduledThreadPoolExecutor executor =
+          new ScheduledThreadPoolExecutor(
+              1,
+              runnable -> {
+                Thread thread = new Thread(runnable, "graphql-fetcher-timeouts");
+                thread.setDaemon(true);
+                return thread;
+              });
+      executor.setRemoveOnCancelPolicy(true);
+      return executor;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, thread-safe pool of reusable objects.
+ *
+ * <p>Released objects are reset and kept for the next {@link #acquire()}, up to a maximum number of
+ * idle objects, past which they're left for garbage collection. The most recently released object
+ * is handed out first, as it's the most likely to still be in cache.
+ *
+ * @param <T> Type of pooled object
+ */
+public class ObjectPool<T> {
+  private final Supplier<? extends T> factory;
+  private final Consumer<? super T> reset;
+  private final int maxIdle;
+  private final ConcurrentLinkedDeque<T> idle = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger idleCount = new AtomicInteger();
+  private final LongAdder created = new LongAdder();
+  private final LongAdder reused = new LongAdder();
+  private final LongAdder discarded = new LongAdder();
+
+  /**
+   * @param factory Creates a new object when none are idle
+   * @param reset Clears an object's state when it's released
+   * @param maxIdle Maximum number of idle objects to hold on to
+   */
+  public ObjectPool(Supplier<? extends T> factory, Consumer<? super T> reset, int maxIdle) {
+    if (maxIdle <= 0) {
+      throw new IllegalArgumentException("Object pool size must be positive");
+    }
+    this.factory = factory;
+    this.reset = reset;
+    this.maxIdle = maxIdle;
+  }
+
+  /** @return An idle object if there is one, otherwise a new one */
+  public T acquire() {
+    T object = idle.pollFirst();
+    if (object != null) {
+      idleCount.decrementAndGet();
+      reused.increment();
+      return object;
+    }
+
+    created.increment();
+    return factory.get();
+  }
+
+  /**
+   * Resets an object and returns it to the pool. The caller must not use the object afterwards.
+   *
+   * @param object Object previously acquired from this pool
+   */
+  public void release(T object) {
+    reset.accept(object);
+    if (idleCount.incrementAndGet() > maxIdle) {
+      idleCount.decrementAndGet();
+      discarded.increment();
+      return;
+    }
+    idle.offerFirst(object);
+  }
+
+  /** @return Number of objects created because none were idle */
+  public long getCreatedCount() {
+    return created.sum();
+  }
+
+  /** @return Number of acquisitions that reused an idle object */
+  public long getReusedCount() {
+    return reused.sum();
+  }
+
+  /** @return Number of released objects dropped because the pool was full */
+  public long getDiscardedCount() {
+    return discarded.sum();
+  }
+
+  /** @return Number of objects currently waiting in the pool */
+  public int getIdleCount() {
+    return idleCount.get();
+  }
+
+  /** @return Maximum number of idle objects held */
+  public int getMaxIdle() {
+    return maxIdle;
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+import graphql.execution.MergedField;
+import graphql.execution.MergedSelectionSet;
+import graphql.language.Field;
+import graphql.schema.GraphQLObjectType;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of execution plans used by {@link PrecompiledExecutionStrategy}.
+ *
+ * <p>A plan is the merged selection set collected for a field's sub-selection against a concrete
+ * object type, with fragments expanded and type conditions applied. Plans are keyed by the identity
+ * of the field's AST nodes, so they're only reused when the same parsed document is executed again,
+ * i.e. when documents come from a {@code PreparsedDocumentProvider}. Once full, an arbitrary plan
+ * is evicted for each new one.
+ */
+public class OperationPlanCache {
+  // Marks selections whose collection depends on variables, i.e. @include(if: $flag)
+  static final MergedSelectionSet UNCACHEABLE = MergedSelectionSet.newMergedSelectionSet().build();
+
+  private final int maxSize;
+  private final ConcurrentHashMap<PlanKey, MergedSelectionSet> plans;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /** @param maxSize Maximum number of plans to hold on to */
+  public OperationPlanCache(int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Operation plan cache size must be positive");
+    }
+    this.maxSize = maxSize;
+    this.plans = new ConcurrentHashMap<>();
+  }
+
+  /** @return Number of lookups that reused a collected plan */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /** @return Number of lookups that had to collect fields from the document */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /** @return Number of plans currently cached, including selections marked uncacheable */
+  public int size() {
+    return plans.size();
+  }
+
+  /** @return Maximum number of plans cached */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /** Removes all cached plans. Hit and miss counts are kept. */
+  public void clear() {
+    plans.clear();
+  }
+
+  MergedSelectionSet get(PlanKey key) {
+    MergedSelectionSet plan = plans.get(key);
+    if (plan != null && plan != UNCACHEABLE) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return plan;
+  }
+
+  void put(PlanKey key, MergedSelectionSet plan) {
+    if (plans.size() >= maxSize) {
+      Iterator<PlanKey> keys = plans.keySet().iterator();
+      if (keys.hasNext()) {
+        plans.remove(keys.next());
+      }
+    }
+    plans.put(key, plan);
+  }
+
+  /** Identifies a sub-selection by its AST nodes and the object type it's collected against. */
+  static final class PlanKey {
+    private final List<Field> fields;
+    private final GraphQLObjectType objectType;
+    private final int hash;
+
+    PlanKey(MergedField field, GraphQLObjectType objectType) {
+      this.fields = field.getFields();
+      this.objectType = objectType;
+
+      int h = System.identityHashCode(objectType);
+      for (Field node : fields) {
+        h = 31 * h + System.identityHashCode(node);
+      }
+      this.hash = h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof PlanKey)) {
+        return false;
+      }
+
+      PlanKey other = (PlanKey) o;
+      if (objectType != other.objectType || fields.size() != other.fields.size()) {
+        return false;
+      }
+      for (int i = 0; i < fields.size(); i++) {
+        if (fields.get(i) != other.fields.get(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+import com.newrelic.graphql.execution.ArgumentValueCache.ArgumentKey;
+import com.newrelic.graphql.execution.OperationPlanCache.PlanKey;
+import graphql.ExecutionResult;
+import graphql.collect.ImmutableMapWithNullValues;
+import graphql.execution.AsyncExecutionStrategy;
+import graphql.execution.DataFetcherExceptionHandler;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.execution.FieldCollectorParameters;
+import graphql.execution.MergedField;
+import graphql.execution.MergedSelectionSet;
+import graphql.execution.NonNullableFieldValidator;
+import graphql.execution.ValuesResolver;
+import graphql.language.Argument;
+import graphql.language.Directive;
+import graphql.language.DirectivesContainer;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.VariableReference;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Query execution strategy that reuses the fields collected for each sub-selection across
+ * executions of the same document.
+ *
+ * <p>For every object value, graphql-java walks the selection set again to expand fragments, check
+ * type conditions and merge fields with the same response key. For hot operations that work is the
+ * same each time, so this strategy keeps the result in an {@link OperationPlanCache} keyed by the
+ * document's AST nodes and the concrete object type. Selections whose shape depends on variables
+ * through {@code @skip} or {@code @include} are always collected fresh.
+ *
+ * <p>Likewise, fields whose arguments are all literals can share their coerced values through an
+ * {@link ArgumentValueCache}, skipping {@code parseLiteral} when only variables change.
+ *
+ * <p>Plans and arguments are only reused when the parsed document is, so pair this with a {@code
+ * PreparsedDocumentProvider}.
+ */
+public class PrecompiledExecutionStrategy extends AsyncExecutionStrategy {
+  private final OperationPlanCache plans;
+  private final ArgumentValueCache arguments;
+
+  /**
+   * @param exceptionHandler Handler for exceptions thrown by data fetchers
+   * @param plans Cache of collected fields to share across executions
+   */
+  public PrecompiledExecutionStrategy(
+      DataFetcherExceptionHandler exceptionHandler, OperationPlanCache plans) {
+    this(exceptionHandler, plans, null);
+  }
+
+  /**
+   * @param exceptionHandler Handler for exceptions thrown by data fetchers
+   * @param plans Cache of collected fields to share across executions, or null to collect fields on
+   *     each execution
+   * @param arguments Cache of coerced literal arguments to share across executions, or null to
+   *     coerce arguments on each execution
+   */
+  public PrecompiledExecutionStrategy(
+      DataFetcherExceptionHandler exceptionHandler,
+      OperationPlanCache plans,
+      ArgumentValueCache arguments) {
+    super(exceptionHandler);
+    this.plans = plans;
+    this.arguments = arguments;
+  }
+
+  /** @return Cache of collected fields shared across executions, or null if not caching them */
+  public OperationPlanCache getPlans() {
+    return plans;
+  }
+
+  /** @return Cache of coerced literal arguments shared across executions, or null if not caching */
+  public ArgumentValueCache getArguments() {
+    return arguments;
+  }
+
+  @Override
+  protected ExecutionStepInfo createExecutionStepInfo(
+      ExecutionContext executionContext,
+      ExecutionStrategyParameters parameters,
+      GraphQLFieldDefinition fieldDefinition,
+      GraphQLObjectType fieldContainer) {
+    MergedField field = parameters.getField();
+    if (arguments == null
+        || fieldDefinition.getArguments().isEmpty()
+        || !ArgumentValueCache.isLiteral(field.getArguments())) {
+      return super.createExecutionStepInfo(
+          executionContext, parameters, fieldDefinition, fieldContainer);
+    }
+
+    ArgumentKey key = new ArgumentKey(field.getSingleField(), fieldDefinition);
+    Map<String, Object> cached = arguments.get(key);
+    Supplier<Map<String, Object>> values =
+        cached != null
+            ? () -> cached
+            : new CoercingSupplier(executionContext, fieldDefinition, field, key);
+
+    return ExecutionStepInfo.newExecutionStepInfo()
+        .type(fieldDefinition.getType())
+        .fieldDefinition(fieldDefinition)
+        .fieldContainer(fieldContainer)
+        .field(field)
+        .path(parameters.getPath())
+        .parentInfo(parameters.getExecutionStepInfo())
+        .arguments(values)
+        .build();
+  }
+
+  @Override
+  protected CompletableFuture<ExecutionResult> completeValueForObject(
+      ExecutionContext executionContext,
+      ExecutionStrategyParameters parameters,
+      GraphQLObjectType resolvedObjectType,
+      Object result) {
+    if (plans == null) {
+      return super.completeValueForObject(executionContext, parameters, resolvedObjectType, result);
+    }
+
+    MergedSelectionSet subFields = collectFields(executionContext, parameters, resolvedObjectType);
+
+    ExecutionStepInfo executionStepInfo =
+        parameters.getExecutionStepInfo().changeTypeWithPreservedNonNull(resolvedObjectType);
+    NonNullableFieldValidator nonNullableFieldValidator =
+        new NonNullableFieldValidator(executionContext, executionStepInfo);
+
+    ExecutionStrategyParameters newParameters =
+        parameters.transform(
+            builder ->
+                builder
+                    .executionStepInfo(executionStepInfo)
+                    .fields(subFields)
+                    .nonNullFieldValidator(nonNullableFieldValidator)
+                    .source(result));
+
+    // Like the default, go through the query strategy so mutations shift back to it
+    return executionContext.getQueryStrategy().execute(executionContext, newParameters);
+  }
+
+  private MergedSelectionSet collectFields(
+      ExecutionContext executionContext,
+      ExecutionStrategyParameters parameters,
+      GraphQLObjectType resolvedObjectType) {
+    PlanKey key = new PlanKey(parameters.getField(), resolvedObjectType);
+    MergedSelectionSet plan = plans.get(key);
+    if (plan != null && plan != OperationPlanCache.UNCACHEABLE) {
+      return plan;
+    }
+
+    FieldCollectorParameters collectorParameters =
+        FieldCollectorParameters.newParameters()
+            .schema(executionContext.getGraphQLSchema())
+            .objectType(resolvedObjectType)
+            .fragments(executionContext.getFragmentsByName())
+            .variables(executionContext.getCoercedVariables().toMap())
+            .build();
+    MergedSelectionSet subFields =
+        fieldCollector.collectFields(collectorParameters, parameters.getField());
+
+    if (plan == null) {
+      Map<String, FragmentDefinition> fragments = executionContext.getFragmentsByName();
+      boolean variable = dependsOnVariables(parameters.getField().getFields(), fragments);
+      plans.put(key, variable ? OperationPlanCache.UNCACHEABLE : subFields);
+    }
+    return subFields;
+  }
+
+  private static boolean dependsOnVariables(
+      Iterable<Field> fields, Map<String, FragmentDefinition> fragments) {
+    Set<String> visited = new HashSet<>();
+    for (Field field : fields) {
+      if (dependsOnVariables(field.getSelectionSet(), fragments, visited)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Only fragments are followed, as nested fields are collected (and cached) at their own level
+  private static boolean dependsOnVariables(
+      SelectionSet selectionSet, Map<String, FragmentDefinition> fragments, Set<String> visited) {
+    if (selectionSet == null) {
+      return false;
+    }
+
+    for (Selection<?> selection : selectionSet.getSelections()) {
+      if (selection instanceof DirectivesContainer
+          && hasVariableCondition((DirectivesContainer<?>) selection)) {
+        return true;
+      }
+
+      if (selection instanceof InlineFragment) {
+        if (dependsOnVariables(
+            ((InlineFragment) selection).getSelectionSet(), fragments, visited)) {
+          return true;
+        }
+      } else if (selection instanceof FragmentSpread) {
+        String name = ((FragmentSpread) selection).getName();
+        FragmentDefinition fragment = fragments.get(name);
+        if (fragment != null
+            && visited.add(name)
+            && dependsOnVariables(fragment.getSelectionSet(), fragments, visited)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasVariableCondition(DirectivesContainer<?> container) {
+    for (Directive directive : container.getDirectives()) {
+      if (directive.getName().equals("skip") || directive.getName().equals("include")) {
+        Argument condition = directive.getArgument("if");
+        if (condition == null || condition.getValue() instanceof VariableReference) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  // Coerces lazily like the default, so errors surface the same way, then shares the result
+  private class CoercingSupplier implements Supplier<Map<String, Object>> {
+    private final ExecutionContext executionContext;
+    private final GraphQLFieldDefinition fieldDefinition;
+    private final MergedField field;
+    private final ArgumentKey key;
+    private Map<String, Object> values;
+
+    CoercingSupplier(
+        ExecutionContext executionContext,
+        GraphQLFieldDefinition fieldDefinition,
+        MergedField field,
+        ArgumentKey key) {
+      this.executionContext = executionContext;
+      this.fieldDefinition = fieldDefinition;
+      this.field = field;
+      this.key = key;
+    }
+
+    @Override
+    public Map<String, Object> get() {
+      if (values == null) {
+        Map<String, Object> coerced =
+            ValuesResolver.getArgumentValues(
+                executionContext.getGraphQLSchema().getCodeRegistry(),
+                fieldDefinition.getArguments(),
+                field.getArguments(),
+                executionContext.getCoercedVariables(),
+                executionContext.getGraphQLContext(),
+                executionContext.getLocale());
+        values = ImmutableMapWithNullValues.copyOf(coerced);
+        arguments.put(key, values);
+      }
+      return values;
+    }
+  }
+}
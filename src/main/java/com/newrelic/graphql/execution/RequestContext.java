@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+import graphql.ExecutionInput;
+import graphql.GraphQLContext;
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.dataloader.DataLoaderRegistry;
+
+/**
+ * Per-request state borrowed from a {@link RequestContextPool}, returned to it by {@link #close()}.
+ *
+ * <p>The data loader registry and attribute map are reused across requests, so nothing here may be
+ * held on to once the request completes. Data loaders registered for a request are unregistered
+ * when it's released, since their caches are only valid for that request.
+ */
+public final class RequestContext implements AutoCloseable {
+  private final RequestContextPool pool;
+  private final DataLoaderRegistry dataLoaderRegistry = new DataLoaderRegistry();
+  private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+  private final AtomicBoolean open = new AtomicBoolean();
+  private Leak leak;
+
+  RequestContext(RequestContextPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * @param graphQLContext Context of an execution started from {@link #newExecutionInput(String)}
+   * @return Request context for the execution, or null if it wasn't started from one
+   */
+  public static RequestContext from(GraphQLContext graphQLContext) {
+    return graphQLContext.get(RequestContext.class);
+  }
+
+  /** @return Registry for this request's data loaders */
+  public DataLoaderRegistry getDataLoaderRegistry() {
+    return dataLoaderRegistry;
+  }
+
+  /**
+   * Fetchers for sibling fields may run on different threads, so the map is concurrent and doesn't
+   * accept null keys or values.
+   *
+   * @return Mutable map for request-scoped values, cleared when the context is released
+   */
+  public Map<String, Object> getAttributes() {
+    return attributes;
+  }
+
+  /**
+   * @param query GraphQL document to execute
+   * @return Execution input builder using this context's data loaders, with this context available
+   *     through {@link #from(GraphQLContext)}
+   */
+  public ExecutionInput.Builder newExecutionInput(String query) {
+    return ExecutionInput.newExecutionInput(query)
+        .dataLoaderRegistry(dataLoaderRegistry)
+        .graphQLContext(builder -> builder.put(RequestContext.class, this));
+  }
+
+  /** Returns this context to its pool. Closing more than once has no effect. */
+  @Override
+  public void close() {
+    if (!open.compareAndSet(true, false)) {
+      return;
+    }
+    if (leak != null) {
+      leak.release();
+      leak = null;
+    }
+    pool.release(this);
+  }
+
+  void open(Cleaner cleaner, Leak leak) {
+    open.set(true);
+    if (leak != null) {
+      this.leak = leak.register(cleaner, this);
+    }
+  }
+
+  void reset() {
+    for (String key : new ArrayList<>(dataLoaderRegistry.getKeys())) {
+      dataLoaderRegistry.unregister(key);
+    }
+    attributes.clear();
+  }
+
+  /**
+   * Reports a context that became unreachable without being closed. This must not reference the
+   * context itself, or it would never become unreachable.
+   */
+  static class Leak implements Runnable {
+    private final Throwable acquiredAt;
+    private final RequestContextPool pool;
+    private volatile boolean released;
+    private Cleaner.Cleanable cleanable;
+
+    Leak(RequestContextPool pool) {
+      this.acquiredAt = new Throwable("Request context acquired here was never closed");
+      this.pool = pool;
+    }
+
+    private Leak register(Cleaner cleaner, RequestContext context) {
+      cleanable = cleaner.register(context, this);
+      return this;
+    }
+
+    private void release() {
+      released = true;
+      cleanable.clean();
+    }
+
+    @Override
+    public void run() {
+      if (!released) {
+        pool.leaked(acquiredAt);
+      }
+    }
+  }
+}
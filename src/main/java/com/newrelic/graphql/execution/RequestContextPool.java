@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import java.lang.ref.Cleaner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Pool of {@link RequestContext} instances, so each request reuses a data loader registry and
+ * attribute map instead of allocating its own.
+ *
+ * <pre>
+ *   RequestContextPool contexts = new RequestContextPool(64);
+ *   ExecutionResult result =
+ *       contexts.execute(graphQL, context -&gt; context.newExecutionInput(query).build());
+ * </pre>
+ *
+ * <p>Contexts acquired directly must be closed. With {@link #detectLeaks(Consumer)}, which is meant
+ * for debugging as it captures a stack trace on every acquisition, contexts that are garbage
+ * collected without being closed are reported along with where they were acquired.
+ */
+public class RequestContextPool {
+  private static final Cleaner cleaner = Cleaner.create();
+
+  private final ObjectPool<RequestContext> pool;
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder allocatedBytes = new LongAdder();
+  private final LongAdder leaks = new LongAdder();
+  private volatile Consumer<Throwable> leakListener;
+
+  /** @param maxIdle Maximum number of idle contexts to hold on to */
+  public RequestContextPool(int maxIdle) {
+    this.pool = new ObjectPool<>(() -> new RequestContext(this), RequestContext::reset, maxIdle);
+  }
+
+  /**
+   * Enables leak detection for contexts acquired from now on.
+   *
+   * @param listener Receives a throwable whose stack trace shows where each leaked context was
+   *     acquired
+   * @return This pool
+   */
+  public RequestContextPool detectLeaks(Consumer<Throwable> listener) {
+    this.leakListener = listener;
+    return this;
+  }
+
+  /** @return A context that must be closed once the request completes */
+  public RequestContext acquire() {
+    RequestContext context = pool.acquire();
+    context.open(cleaner, leakListener == null ? null : new RequestContext.Leak(this));
+    return context;
+  }
+
+  /**
+   * Executes a request with a pooled context, releasing it when execution completes.
+   *
+   * @param graphQL GraphQL instance to execute with
+   * @param input Builds the execution input from the context
+   * @return Future execution result
+   */
+  public CompletableFuture<ExecutionResult> executeAsync(
+      GraphQL graphQL, Function<RequestContext, ExecutionInput> input) {
+    long startBytes = ThreadAllocations.current();
+    RequestContext context = acquire();
+    CompletableFuture<ExecutionResult> result;
+    try {
+      result = graphQL.executeAsync(input.apply(context));
+    } catch (RuntimeException | Error e) {
+      context.close();
+      throw e;
+    }
+
+    allocatedBytes.add(ThreadAllocations.current() - startBytes);
+    requests.increment();
+    return result.whenComplete((r, t) -> context.close());
+  }
+
+  /**
+   * Executes a request with a pooled context, releasing it when execution completes.
+   *
+   * @param graphQL GraphQL instance to execute with
+   * @param input Builds the execution input from the context
+   * @return Execution result
+   */
+  public ExecutionResult execute(GraphQL graphQL, Function<RequestContext, ExecutionInput> input) {
+    return executeAsync(graphQL, input).join();
+  }
+
+  /** @return Pool statistics for created, reused and idle contexts */
+  public ObjectPool<RequestContext> getPool() {
+    return pool;
+  }
+
+  /** @return Number of requests executed through this pool */
+  public long getRequestCount() {
+    return requests.sum();
+  }
+
+  /**
+   * Average bytes allocated per request by the calling thread while starting execution, which
+   * covers all of it when data fetchers complete synchronously.
+   *
+   * @return Average bytes allocated, or -1 if the JVM doesn't support allocation tracking
+   */
+  public long getAllocatedBytesPerRequest() {
+    if (!ThreadAllocations.isSupported()) {
+      return -1;
+    }
+    long count = requests.sum();
+    return count == 0 ? 0 : allocatedBytes.sum() / count;
+  }
+
+  /** @return Number of contexts found to be garbage collected without being closed */
+  public long getLeakCount() {
+    return leaks.sum();
+  }
+
+  void release(RequestContext context) {
+    pool.release(context);
+  }
+
+  void leaked(Throwable acquiredAt) {
+    leaks.increment();
+    Consumer<Throwable> listener = leakListener;
+    if (listener != null) {
+      listener.accept(acquiredAt);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Bytes allocated by the current thread, for allocation metrics. Tracking is a HotSpot extension of
+ * {@code ThreadMXBean}, so it's only available on JVMs that support and enable it.
+ */
+public final class ThreadAllocations {
+  private static final com.sun.management.ThreadMXBean bean = load();
+
+  private ThreadAllocations() {}
+
+  private static com.sun.management.ThreadMXBean load() {
+    try {
+      ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+      if (threads instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+        if (hotspot.isThreadAllocatedMemorySupported()
+            && hotspot.isThreadAllocatedMemoryEnabled()) {
+          return hotspot;
+        }
+      }
+    } catch (Throwable t) {
+      // Not available on this JVM
+    }
+    return null;
+  }
+
+  /** @return Whether allocation tracking is available on this JVM */
+  public static boolean isSupported() {
+    return bean != null;
+  }
+
+  /**
+   * @return Total bytes allocated by the current thread so far, or 0 if tracking isn't available
+   */
+  public static long current() {
+    return bean == null ? 0 : bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps a data fetcher to enforce its field timeout and the operation {@link Deadline}.
+ *
+ * <p>Fetchers that are already out of time aren't called at all. Asynchronous results are completed
+ * with a {@link FetcherTimeoutException} once time runs out, and the underlying future is
+ * cancelled. Synchronous fetchers can't be interrupted, so their results are returned as-is.
+ */
+public class TimeoutDataFetcher implements DataFetcher<Object> {
+  private final DataFetcher<?> delegate;
+  private final String field;
+  private final long fieldTimeoutNanos;
+  private final FetcherTimeouts timeouts;
+
+  /**
+   * @param delegate Data fetcher to apply timeouts to
+   * @param field Field the fetcher is registered for, in the format "Type.field"
+   * @param timeouts Timeout configuration and counters
+   */
+  public TimeoutDataFetcher(DataFetcher<?> delegate, String field, FetcherTimeouts timeouts) {
+    Duration fieldTimeout = timeouts.fieldTimeoutFor(field);
+
+    this.delegate = delegate;
+    this.field = field;
+    this.fieldTimeoutNanos = fieldTimeout == null ? Long.MAX_VALUE : fieldTimeout.toNanos();
+    this.timeouts = timeouts;
+  }
+
+  /** @return Data fetcher having timeouts applied */
+  public DataFetcher<?> getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public Object get(DataFetchingEnvironment environment) throws Exception {
+    long remainingNanos = fieldTimeoutNanos;
+    Deadline deadline = Deadline.from(environment);
+    if (deadline != null) {
+      remainingNanos = Math.min(remainingNanos, deadline.remainingNanos());
+    }
+
+    if (remainingNanos <= 0) {
+      timeouts.recordTimeout(field);
+      throw new FetcherTimeoutException(field);
+    }
+
+    Object result = delegate.get(environment);
+    if (remainingNanos == Long.MAX_VALUE || !(result instanceof CompletionStage)) {
+      return result;
+    }
+
+    CompletableFuture<?> future = ((CompletionStage<?>) result).toCompletableFuture();
+    if (future.isDone()) {
+      return future;
+    }
+    return withTimeout(future, remainingNanos);
+  }
+
+  private CompletableFuture<Object> withTimeout(CompletableFuture<?> future, long remainingNanos) {
+    CompletableFuture<Object> timed = new CompletableFuture<>();
+    AtomicBoolean timedOut = new AtomicBoolean(false);
+
+    // Cancel the fetcher's future before completing our own, so any work chained off of it is
+    // already stopped by the time the partial result goes back to the caller.
+    ScheduledFuture<?> timer =
+        FetcherTimeouts.scheduler()
+            .schedule(
+                () -> {
+                  timedOut.set(true);
+                  future.cancel(true);
+                },
+                remainingNanos,
+                TimeUnit.NANOSECONDS);
+
+    future.whenComplete(
+        (value, error) -> {
+          timer.cancel(false);
+          if (timedOut.get() && future.isCancelled()) {
+            timeouts.recordTimeout(field);
+            timed.completeExceptionally(new FetcherTimeoutException(field));
+          } else if (error != null) {
+            timed.completeExceptionally(error);
+          } else {
+            timed.complete(value);
+          }
+        });
+
+    return timed;
+  }
+}
@@ -0,0 +1,6 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+/** Execution support for GraphQL instances built via {@code SimpleGraphQLBuilder} */
+package com.newrelic.graphql.execution;
@@ -0,0 +1,455 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.instrumentation;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.FieldValueInfo;
+import graphql.execution.instrumentation.DocumentAndVariables;
+import graphql.execution.instrumentation.ExecutionStrategyInstrumentationContext;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionStrategyParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldCompleteParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
+import graphql.language.Document;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+import graphql.validation.ValidationError;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Chains instrumentations like {@code ChainedInstrumentation}, but only dispatches each callback to
+ * the members that override it.
+ *
+ * <p>Overrides are found once, when the chain is built. A callback counts as overridden if a
+ * member's class, or a superclass other than {@code SimplePerformantInstrumentation} or {@code
+ * SimpleInstrumentation}, declares either its current or deprecated signature. Callbacks with no
+ * interested members return shared no-op contexts, and callbacks with a single interested member
+ * return its context as-is, so operation-level instrumentations add nothing to each field fetch.
+ */
+public class SelectiveChainedInstrumentation implements Instrumentation {
+  @SuppressWarnings("deprecation")
+  private static final Set<Class<?>> noOpTypes =
+      Set.of(
+          Instrumentation.class,
+          SimplePerformantInstrumentation.class,
+          SimpleInstrumentation.class,
+          Object.class);
+
+  private final Instrumentation[] instrumentations;
+  private final EnumMap<Callback, int[]> dispatch = new EnumMap<>(Callback.class);
+  private final boolean stateful;
+
+  /** @param instrumentations Instrumentations to chain, called in list order */
+  public SelectiveChainedInstrumentation(List<Instrumentation> instrumentations) {
+    this.instrumentations = instrumentations.toArray(new Instrumentation[0]);
+    for (Callback callback : Callback.values()) {
+      int[] members = new int[this.instrumentations.length];
+      int count = 0;
+      for (int i = 0; i < this.instrumentations.length; i++) {
+        if (callback.isOverriddenBy(this.instrumentations[i].getClass())) {
+          members[count++] = i;
+        }
+      }
+      dispatch.put(callback, Arrays.copyOf(members, count));
+    }
+    this.stateful = dispatch.get(Callback.CREATE_STATE).length > 0;
+  }
+
+  /** @return Chained instrumentations, in the order they're called */
+  public List<Instrumentation> getInstrumentations() {
+    return List.of(instrumentations);
+  }
+
+  /**
+   * @param callback Name of an {@code Instrumentation} method, i.e. "beginFieldFetch"
+   * @return Chained instrumentations the callback is dispatched to
+   */
+  public List<Instrumentation> getInstrumentations(String callback) {
+    List<Instrumentation> members = new ArrayList<>();
+    for (int i : dispatch.get(Callback.named(callback))) {
+      members.add(instrumentations[i]);
+    }
+    return members;
+  }
+
+  @Override
+  public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+    if (!stateful) {
+      return null;
+    }
+    InstrumentationState[] states = new InstrumentationState[instrumentations.length];
+    for (int i : dispatch.get(Callback.CREATE_STATE)) {
+      states[i] = instrumentations[i].createState(parameters);
+    }
+    return new ChainState(states);
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecution(
+      InstrumentationExecutionParameters parameters, InstrumentationState state) {
+    return begin(Callback.BEGIN_EXECUTION, parameters, state, Instrumentation::beginExecution);
+  }
+
+  @Override
+  public InstrumentationContext<Document> beginParse(
+      InstrumentationExecutionParameters parameters, InstrumentationState state) {
+    return begin(Callback.BEGIN_PARSE, parameters, state, Instrumentation::beginParse);
+  }
+
+  @Override
+  public InstrumentationContext<List<ValidationError>> beginValidation(
+      InstrumentationValidationParameters parameters, InstrumentationState state) {
+    return begin(Callback.BEGIN_VALIDATION, parameters, state, Instrumentation::beginValidation);
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+      InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+    return begin(
+        Callback.BEGIN_EXECUTE_OPERATION,
+        parameters,
+        state,
+        Instrumentation::beginExecuteOperation);
+  }
+
+  @Override
+  public ExecutionStrategyInstrumentationContext beginExecutionStrategy(
+      InstrumentationExecutionStrategyParameters parameters, InstrumentationState state) {
+    int[] members = dispatch.get(Callback.BEGIN_EXECUTION_STRATEGY);
+    if (members.length == 0) {
+      return ExecutionStrategyInstrumentationContext.NOOP;
+    }
+    if (members.length == 1) {
+      int i = members[0];
+      return ExecutionStrategyInstrumentationContext.nonNullCtx(
+          instrumentations[i].beginExecutionStrategy(parameters, stateOf(state, i)));
+    }
+
+    List<ExecutionStrategyInstrumentationContext> contexts = new ArrayList<>(members.length);
+    for (int i : members) {
+      ExecutionStrategyInstrumentationContext context =
+          instrumentations[i].beginExecutionStrategy(parameters, stateOf(state, i));
+      if (context != null) {
+        contexts.add(context);
+      }
+    }
+    return new ChainedStrategyContext(contexts);
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginSubscribedFieldEvent(
+      InstrumentationFieldParameters parameters, InstrumentationState state) {
+    return begin(
+        Callback.BEGIN_SUBSCRIBED_FIELD_EVENT,
+        parameters,
+        state,
+        Instrumentation::beginSubscribedFieldEvent);
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginField(
+      InstrumentationFieldParameters parameters, InstrumentationState state) {
+    return begin(Callback.BEGIN_FIELD, parameters, state, Instrumentation::beginField);
+  }
+
+  @Override
+  public InstrumentationContext<Object> beginFieldFetch(
+      InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+    return begin(Callback.BEGIN_FIELD_FETCH, parameters, state, Instrumentation::beginFieldFetch);
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginFieldComplete(
+      InstrumentationFieldCompleteParameters parameters, InstrumentationState state) {
+    return begin(
+        Callback.BEGIN_FIELD_COMPLETE, parameters, state, Instrumentation::beginFieldComplete);
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginFieldListComplete(
+      InstrumentationFieldCompleteParameters parameters, InstrumentationState state) {
+    return begin(
+        Callback.BEGIN_FIELD_LIST_COMPLETE,
+        parameters,
+        state,
+        Instrumentation::beginFieldListComplete);
+  }
+
+  @Override
+  public ExecutionInput instrumentExecutionInput(
+      ExecutionInput executionInput,
+      InstrumentationExecutionParameters parameters,
+      InstrumentationState state) {
+    return transform(
+        Callback.INSTRUMENT_EXECUTION_INPUT,
+        executionInput,
+        parameters,
+        state,
+        Instrumentation::instrumentExecutionInput);
+  }
+
+  @Override
+  public DocumentAndVariables instrumentDocumentAndVariables(
+      DocumentAndVariables documentAndVariables,
+      InstrumentationExecutionParameters parameters,
+      InstrumentationState state) {
+    return transform(
+        Callback.INSTRUMENT_DOCUMENT_AND_VARIABLES,
+        documentAndVariables,
+        parameters,
+        state,
+        Instrumentation::instrumentDocumentAndVariables);
+  }
+
+  @Override
+  public GraphQLSchema instrumentSchema(
+      GraphQLSchema schema,
+      InstrumentationExecutionParameters parameters,
+      InstrumentationState state) {
+    return transform(
+        Callback.INSTRUMENT_SCHEMA, schema, parameters, state, Instrumentation::instrumentSchema);
+  }
+
+  @Override
+  public ExecutionContext instrumentExecutionContext(
+      ExecutionContext executionContext,
+      InstrumentationExecutionParameters parameters,
+      InstrumentationState state) {
+    return transform(
+        Callback.INSTRUMENT_EXECUTION_CONTEXT,
+        executionContext,
+        parameters,
+        state,
+        Instrumentation::instrumentExecutionContext);
+  }
+
+  @Override
+  public DataFetcher<?> instrumentDataFetcher(
+      DataFetcher<?> dataFetcher,
+      InstrumentationFieldFetchParameters parameters,
+      InstrumentationState state) {
+    for (int i : dispatch.get(Callback.INSTRUMENT_DATA_FETCHER)) {
+      dataFetcher =
+          instrumentations[i].instrumentDataFetcher(dataFetcher, parameters, stateOf(state, i));
+    }
+    return dataFetcher;
+  }
+
+  @Override
+  public CompletableFuture<ExecutionResult> instrumentExecutionResult(
+      ExecutionResult executionResult,
+      InstrumentationExecutionParameters parameters,
+      InstrumentationState state) {
+    CompletableFuture<ExecutionResult> result = CompletableFuture.completedFuture(executionResult);
+    for (int i : dispatch.get(Callback.INSTRUMENT_EXECUTION_RESULT)) {
+      Instrumentation member = instrumentations[i];
+      InstrumentationState memberState = stateOf(state, i);
+      result =
+          result.thenCompose(r -> member.instrumentExecutionResult(r, parameters, memberState));
+    }
+    return result;
+  }
+
+  private <P, T> InstrumentationContext<T> begin(
+      Callback callback, P parameters, InstrumentationState state, Begin<P, T> begin) {
+    int[] members = dispatch.get(callback);
+    if (members.length == 0) {
+      return SimpleInstrumentationContext.noOp();
+    }
+    if (members.length == 1) {
+      int i = members[0];
+      return SimpleInstrumentationContext.nonNullCtx(
+          begin.begin(instrumentations[i], parameters, stateOf(state, i)));
+    }
+
+    List<InstrumentationContext<T>> contexts = new ArrayList<>(members.length);
+    for (int i : members) {
+      InstrumentationContext<T> context =
+          begin.begin(instrumentations[i], parameters, stateOf(state, i));
+      if (context != null) {
+        contexts.add(context);
+      }
+    }
+    return new ChainedContext<>(contexts);
+  }
+
+  private <V, P> V transform(
+      Callback callback,
+      V value,
+      P parameters,
+      InstrumentationState state,
+      Transform<V, P> transform) {
+    for (int i : dispatch.get(callback)) {
+      value = transform.apply(instrumentations[i], value, parameters, stateOf(state, i));
+    }
+    return value;
+  }
+
+  private static InstrumentationState stateOf(InstrumentationState state, int member) {
+    return state instanceof ChainState ? ((ChainState) state).states[member] : null;
+  }
+
+  @FunctionalInterface
+  private interface Begin<P, T> {
+    InstrumentationContext<T> begin(
+        Instrumentation member, P parameters, InstrumentationState state);
+  }
+
+  @FunctionalInterface
+  private interface Transform<V, P> {
+    V apply(Instrumentation member, V value, P parameters, InstrumentationState state);
+  }
+
+  /** Instrumentation callbacks, with their current and deprecated parameter types. */
+  private enum Callback {
+    CREATE_STATE(
+        "createState",
+        new Class<?>[] {InstrumentationCreateStateParameters.class},
+        new Class<?>[0]),
+    BEGIN_EXECUTION("beginExecution", InstrumentationExecutionParameters.class),
+    BEGIN_PARSE("beginParse", InstrumentationExecutionParameters.class),
+    BEGIN_VALIDATION("beginValidation", InstrumentationValidationParameters.class),
+    BEGIN_EXECUTE_OPERATION(
+        "beginExecuteOperation", InstrumentationExecuteOperationParameters.class),
+    BEGIN_EXECUTION_STRATEGY(
+        "beginExecutionStrategy", InstrumentationExecutionStrategyParameters.class),
+    BEGIN_SUBSCRIBED_FIELD_EVENT("beginSubscribedFieldEvent", InstrumentationFieldParameters.class),
+    BEGIN_FIELD("beginField", InstrumentationFieldParameters.class),
+    BEGIN_FIELD_FETCH("beginFieldFetch", InstrumentationFieldFetchParameters.class),
+    BEGIN_FIELD_COMPLETE("beginFieldComplete", InstrumentationFieldCompleteParameters.class),
+    BEGIN_FIELD_LIST_COMPLETE(
+        "beginFieldListComplete", InstrumentationFieldCompleteParameters.class),
+    INSTRUMENT_EXECUTION_INPUT(
+        "instrumentExecutionInput", ExecutionInput.class, InstrumentationExecutionParameters.class),
+    INSTRUMENT_DOCUMENT_AND_VARIABLES(
+        "instrumentDocumentAndVariables",
+        DocumentAndVariables.class,
+        InstrumentationExecutionParameters.class),
+    INSTRUMENT_SCHEMA(
+        "instrumentSchema", GraphQLSchema.class, InstrumentationExecutionParameters.class),
+    INSTRUMENT_EXECUTION_CONTEXT(
+        "instrumentExecutionContext",
+        ExecutionContext.class,
+        InstrumentationExecutionParameters.class),
+    INSTRUMENT_DATA_FETCHER(
+        "instrumentDataFetcher", DataFetcher.class, InstrumentationFieldFetchParameters.class),
+    INSTRUMENT_EXECUTION_RESULT(
+        "instrumentExecutionResult",
+        ExecutionResult.class,
+        InstrumentationExecutionParameters.class);
+
+    private final String methodName;
+    private final Class<?>[] current;
+    private final Class<?>[] deprecated;
+
+    Callback(String methodName, Class<?>... deprecated) {
+      this(methodName, withState(deprecated), deprecated);
+    }
+
+    Callback(String methodName, Class<?>[] current, Class<?>[] deprecated) {
+      this.methodName = methodName;
+      this.current = current;
+      this.deprecated = deprecated;
+    }
+
+    private static Class<?>[] withState(Class<?>[] parameterTypes) {
+      Class<?>[] withState = Arrays.copyOf(parameterTypes, parameterTypes.length + 1);
+      withState[parameterTypes.length] = InstrumentationState.class;
+      return withState;
+    }
+
+    static Callback named(String methodName) {
+      for (Callback callback : values()) {
+        if (callback.methodName.equals(methodName)) {
+          return callback;
+        }
+      }
+      throw new IllegalArgumentException("No instrumentation callback named '" + methodName + "'");
+    }
+
+    boolean isOverriddenBy(Class<?> type) {
+      return declaredOutsideNoOps(type, current) || declaredOutsideNoOps(type, deprecated);
+    }
+
+    private boolean declaredOutsideNoOps(Class<?> type, Class<?>[] parameterTypes) {
+      try {
+        return !noOpTypes.contains(type.getMethod(methodName, parameterTypes).getDeclaringClass());
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+  }
+
+  private static class ChainState implements InstrumentationState {
+    private final InstrumentationState[] states;
+
+    private ChainState(InstrumentationState[] states) {
+      this.states = states;
+    }
+  }
+
+  private static class ChainedContext<T> implements InstrumentationContext<T> {
+    private final List<InstrumentationContext<T>> contexts;
+
+    private ChainedContext(List<InstrumentationContext<T>> contexts) {
+      this.contexts = contexts;
+    }
+
+    @Override
+    public void onDispatched(CompletableFuture<T> result) {
+      for (InstrumentationContext<T> context : contexts) {
+        context.onDispatched(result);
+      }
+    }
+
+    @Override
+    public void onCompleted(T result, Throwable t) {
+      for (InstrumentationContext<T> context : contexts) {
+        context.onCompleted(result, t);
+      }
+    }
+  }
+
+  private static class ChainedStrategyContext extends ChainedContext<ExecutionResult>
+      implements ExecutionStrategyInstrumentationContext {
+    private final List<ExecutionStrategyInstrumentationContext> strategyContexts;
+
+    private ChainedStrategyContext(List<ExecutionStrategyInstrumentationContext> contexts) {
+      super(new ArrayList<>(contexts));
+      this.strategyContexts = contexts;
+    }
+
+    @Override
+    public void onFieldValuesInfo(List<FieldValueInfo> fieldValueInfoList) {
+      for (ExecutionStrategyInstrumentationContext context : strategyContexts) {
+        context.onFieldValuesInfo(fieldValueInfoList);
+      }
+    }
+
+    @Override
+    public void onFieldValuesException() {
+      for (ExecutionStrategyInstrumentationContext context : strategyContexts) {
+        context.onFieldValuesException();
+      }
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.instrumentation;
+
+import java.util.List;
+import java.util.Map;
+
+/** Record of an operation that took longer than the {@link SlowOperationLog} threshold. */
+public final class SlowOperation {
+  private final long timestamp;
+  private final String operationName;
+  private final String signature;
+  private final String signatureHash;
+  private final Map<String, String> variables;
+  private final long durationNanos;
+  private final long parseNanos;
+  private final long validationNanos;
+  private final long executionNanos;
+  private final int errorCount;
+  private final List<SlowField> slowestFields;
+
+  SlowOperation(
+      long timestamp,
+      String operationName,
+      String signature,
+      String signatureHash,
+      Map<String, String> variables,
+      long durationNanos,
+      long parseNanos,
+      long validationNanos,
+      long executionNanos,
+      int errorCount,
+      List<SlowField> slowestFields) {
+    this.timestamp = timestamp;
+    this.operationName = operationName;
+    this.signature = signature;
+    this.signatureHash = signatureHash;
+    this.variables = variables;
+    this.durationNanos = durationNanos;
+    this.parseNanos = parseNanos;
+    this.validationNanos = validationNanos;
+    this.executionNanos = executionNanos;
+    this.errorCount = errorCount;
+    this.slowestFields = slowestFields;
+  }
+
+  /** @return Completion time in milliseconds since the epoch */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /** @return Operation name, or null for an anonymous operation */
+  public String getOperationName() {
+    return operationName;
+  }
+
+  /** @return Normalized operation text, without literal values, or null if it didn't parse */
+  public String getSignature() {
+    return signature;
+  }
+
+  /** @return 64-bit hash of the signature as hex, or null if it didn't parse */
+  public String getSignatureHash() {
+    return signatureHash;
+  }
+
+  /** @return Type of each variable's value, i.e. "String" or "List(3)", but never the value */
+  public Map<String, String> getVariables() {
+    return variables;
+  }
+
+  /** @return Total time taken in nanoseconds */
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  /** @return Time spent parsing in nanoseconds, 0 if the document was preparsed */
+  public long getParseNanos() {
+    return parseNanos;
+  }
+
+  /** @return Time spent validating in nanoseconds, 0 if the validation was cached */
+  public long getValidationNanos() {
+    return validationNanos;
+  }
+
+  /** @return Time spent executing in nanoseconds */
+  public long getExecutionNanos() {
+    return executionNanos;
+  }
+
+  /** @return Number of errors in the result */
+  public int getErrorCount() {
+    return errorCount;
+  }
+
+  /** @return Slowest field fetches, slowest first */
+  public List<SlowField> getSlowestFields() {
+    return slowestFields;
+  }
+
+  /** Time taken to fetch a field. */
+  public static final class SlowField {
+    private final String path;
+    private final long durationNanos;
+
+    SlowField(String path, long durationNanos) {
+      this.path = path;
+      this.durationNanos = durationNanos;
+    }
+
+    /** @return Path of the field in the result, i.e. "/user/friends[0]/name" */
+    public String getPath() {
+      return path;
+    }
+
+    /** @return Time taken to fetch the field in nanoseconds */
+    public long getDurationNanos() {
+      return durationNanos;
+    }
+  }
+}
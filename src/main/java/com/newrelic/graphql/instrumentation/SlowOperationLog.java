@@ -0,0 +1,499 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.instrumentation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newrelic.graphql.instrumentation.SlowOperation.SlowField;
+import com.newrelic.graphql.signature.OperationSignature;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
+import graphql.language.Document;
+import graphql.validation.ValidationError;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToLongFunction;
+
+/**
+ * Instrumentation keeping the slowest operations over a threshold in each time window, for finding
+ * out what was slow during a latency spike.
+ *
+ * <p>Time is split into consecutive windows, and each window keeps a fixed number of its slowest
+ * operations, so a burst of operations just over the threshold can't push out the real outliers.
+ * Each one records the operation's signature rather than its text, the types of its variables
+ * rather than their values, per-phase timings and its slowest field fetches. Both the slowest
+ * operations and each operation's slowest fetches are kept in arrays updated with compare-and-set,
+ * so recording never takes a lock. It costs a clock read per phase and per field fetch, plus a
+ * small allocation per fetch to track the slowest ones. A sample rate below 1 skips that work on
+ * most operations, at the cost of missing some slow ones.
+ *
+ * <pre>
+ *   SlowOperationLog slowLog = SlowOperationLog.newSlowOperationLog()
+ *       .threshold(Duration.ofSeconds(1))
+ *       .build();
+ *   // Later, i.e. from an admin endpoint
+ *   String json = slowLog.toJson();
+ * </pre>
+ */
+public class SlowOperationLog extends SimplePerformantInstrumentation {
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final long thresholdNanos;
+  private final long windowMillis;
+  private final int capacity;
+  private final int topFields;
+  private final double sampleRate;
+  // The current and previous window, indexed by window number modulo 2
+  private final AtomicReferenceArray<Window> windows = new AtomicReferenceArray<>(2);
+  private final AtomicLong recorded = new AtomicLong();
+
+  private SlowOperationLog(Builder builder) {
+    this.thresholdNanos = builder.threshold.toNanos();
+    this.windowMillis = builder.window.toMillis();
+    this.capacity = builder.capacity;
+    this.topFields = builder.topFields;
+    this.sampleRate = builder.sampleRate;
+  }
+
+  /**
+   * @return Builder keeping the 100 slowest operations over 1 second in each 5 minute window, with
+   *     their 5 slowest fields
+   */
+  public static Builder newSlowOperationLog() {
+    return new Builder();
+  }
+
+  /**
+   * @return Slowest operations kept by the current and previous window that completed within one
+   *     window length of now, slowest first and at most the log's capacity
+   */
+  public List<SlowOperation> getSlowOperations() {
+    long now = System.currentTimeMillis();
+    long since = now - windowMillis;
+    long current = now / windowMillis;
+    List<SlowOperation> operations = new ArrayList<>();
+    for (int i = 0; i < windows.length(); i++) {
+      Window window = windows.get(i);
+      if (window != null && window.index >= current - 1) {
+        for (SlowOperation operation : window.operations.toList()) {
+          if (operation.getTimestamp() >= since) {
+            operations.add(operation);
+          }
+        }
+      }
+    }
+    operations.sort(Comparator.comparingLong(SlowOperation::getDurationNanos).reversed());
+    return operations.size() > capacity ? operations.subList(0, capacity) : operations;
+  }
+
+  /** @return {@link #getSlowOperations()} as a JSON array */
+  public String toJson() {
+    try {
+      return mapper.writeValueAsString(getSlowOperations());
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize slow operations", e);
+    }
+  }
+
+  /**
+   * @param out Stream to write {@link #getSlowOperations()} to as a JSON array
+   * @throws IOException when writing fails
+   */
+  public void writeJson(OutputStream out) throws IOException {
+    mapper.writeValue(out, getSlowOperations());
+  }
+
+  /**
+   * @return Number of slow operations recorded since creation, including ones since displaced by
+   *     slower ones or expired with their window
+   */
+  public long getRecordedCount() {
+    return recorded.get();
+  }
+
+  /** Removes all recorded operations. */
+  public void clear() {
+    for (int i = 0; i < windows.length(); i++) {
+      windows.set(i, null);
+    }
+  }
+
+  @Override
+  public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+    if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      return null;
+    }
+    return new Timings(new Slowest<>(topFields, Fetch::nanos));
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecution(
+      InstrumentationExecutionParameters parameters, InstrumentationState state) {
+    if (state == null) {
+      return SimpleInstrumentationContext.noOp();
+    }
+
+    Timings timings = (Timings) state;
+    return SimpleInstrumentationContext.whenCompleted(
+        (result, t) -> {
+          long durationNanos = System.nanoTime() - timings.startNanos;
+          if (durationNanos >= thresholdNanos) {
+            record(timings, parameters.getExecutionInput(), result, durationNanos);
+          }
+        });
+  }
+
+  @Override
+  public InstrumentationContext<Document> beginParse(
+      InstrumentationExecutionParameters parameters, InstrumentationState state) {
+    if (state == null) {
+      return SimpleInstrumentationContext.noOp();
+    }
+
+    Timings timings = (Timings) state;
+    long startNanos = System.nanoTime();
+    return SimpleInstrumentationContext.whenCompleted(
+        (document, t) -> timings.parseNanos = System.nanoTime() - startNanos);
+  }
+
+  @Override
+  public InstrumentationContext<List<ValidationError>> beginValidation(
+      InstrumentationValidationParameters parameters, InstrumentationState state) {
+    if (state == null) {
+      return SimpleInstrumentationContext.noOp();
+    }
+
+    Timings timings = (Timings) state;
+    long startNanos = System.nanoTime();
+    return SimpleInstrumentationContext.whenCompleted(
+        (errors, t) -> timings.validationNanos = System.nanoTime() - startNanos);
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+      InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+    if (state == null) {
+      return SimpleInstrumentationContext.noOp();
+    }
+
+    Timings timings = (Timings) state;
+    timings.executionContext = parameters.getExecutionContext();
+    long startNanos = System.nanoTime();
+    return SimpleInstrumentationContext.whenCompleted(
+        (result, t) -> timings.executionNanos = System.nanoTime() - startNanos);
+  }
+
+  @Override
+  public InstrumentationContext<Object> beginFieldFetch(
+      InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+    if (state == null) {
+      return SimpleInstrumentationContext.noOp();
+    }
+
+    Timings timings = (Timings) state;
+    long startNanos = System.nanoTime();
+    return SimpleInstrumentationContext.whenCompleted(
+        (value, t) ->
+            timings.fieldFetched(
+                parameters.getExecutionStepInfo(), System.nanoTime() - startNanos));
+  }
+
+  private void record(
+      Timings timings, ExecutionInput input, ExecutionResult result, long durationNanos) {
+    String signature = null;
+    String signatureHash = null;
+    ExecutionContext context = timings.executionContext;
+    if (context != null) {
+      OperationSignature operationSignature = OperationSignature.from(context.getGraphQLContext());
+      if (operationSignature == null) {
+        operationSignature =
+            OperationSignature.of(context.getDocument(), context.getOperationDefinition());
+      }
+      signature = operationSignature.getSignature();
+      signatureHash = operationSignature.getHashHex();
+    }
+
+    SlowOperation operation =
+        new SlowOperation(
+            System.currentTimeMillis(),
+            input.getOperationName(),
+            signature,
+            signatureHash,
+            shapeOf(input.getVariables()),
+            durationNanos,
+            timings.parseNanos,
+            timings.validationNanos,
+            timings.executionNanos,
+            result == null ? 0 : result.getErrors().size(),
+            timings.slowestFields());
+    recorded.incrementAndGet();
+    Window window = window(operation.getTimestamp());
+    if (window != null) {
+      window.operations.offer(operation);
+    }
+  }
+
+  // Window for the timestamp, started if needed, or null if the window has already expired
+  private Window window(long timestamp) {
+    long index = timestamp / windowMillis;
+    int slot = (int) (index % windows.length());
+    while (true) {
+      Window window = windows.get(slot);
+      if (window != null && window.index >= index) {
+        // A slot only moves on to a newer window once this one is two windows old
+        return window.index == index ? window : null;
+      }
+      Window next = new Window(index, capacity);
+      if (windows.compareAndSet(slot, window, next)) {
+        return next;
+      }
+    }
+  }
+
+  static Map<String, String> shapeOf(Map<String, Object> variables) {
+    Map<String, String> shape = new TreeMap<>();
+    variables.forEach((name, value) -> shape.put(name, typeOf(value)));
+    return shape;
+  }
+
+  private static String typeOf(Object value) {
+    if (value == null) {
+      return "null";
+    }
+    if (value instanceof String) {
+      return "String";
+    }
+    if (value instanceof Number) {
+      return "Number";
+    }
+    if (value instanceof Boolean) {
+      return "Boolean";
+    }
+    if (value instanceof Collection) {
+      return "List(" + ((Collection<?>) value).size() + ")";
+    }
+    if (value instanceof Map) {
+      return "Object";
+    }
+    return value.getClass().getSimpleName();
+  }
+
+  /** Slowest operations of one window. */
+  private static final class Window {
+    private final long index;
+    private final Slowest<SlowOperation> operations;
+
+    private Window(long index, int capacity) {
+      this.index = index;
+      this.operations = new Slowest<>(capacity, SlowOperation::getDurationNanos);
+    }
+  }
+
+  /** Timings of a single operation, with the slowest field fetches kept in a small array. */
+  private static class Timings implements InstrumentationState {
+    private final long startNanos = System.nanoTime();
+    private final Slowest<Fetch> fetches;
+    private volatile long parseNanos;
+    private volatile long validationNanos;
+    private volatile long executionNanos;
+    private volatile ExecutionContext executionContext;
+
+    private Timings(Slowest<Fetch> fetches) {
+      this.fetches = fetches;
+    }
+
+    // Paths are only rendered for slow operations, so keep the step info until then
+    private void fieldFetched(ExecutionStepInfo stepInfo, long nanos) {
+      if (fetches.accepts(nanos)) {
+        fetches.offer(new Fetch(stepInfo, nanos));
+      }
+    }
+
+    private List<SlowField> slowestFields() {
+      List<SlowField> fields = new ArrayList<>();
+      for (Fetch fetch : fetches.toList()) {
+        fields.add(new SlowField(fetch.stepInfo.getPath().toString(), fetch.nanos));
+      }
+      fields.sort(Comparator.comparingLong(SlowField::getDurationNanos).reversed());
+      return fields;
+    }
+  }
+
+  private static final class Fetch {
+    private final ExecutionStepInfo stepInfo;
+    private final long nanos;
+
+    private Fetch(ExecutionStepInfo stepInfo, long nanos) {
+      this.stepInfo = stepInfo;
+      this.nanos = nanos;
+    }
+
+    private long nanos() {
+      return nanos;
+    }
+  }
+
+  /**
+   * Fixed number of the longest entries offered, replacing the shortest once full. Slots are
+   * claimed and replaced with compare-and-set, retrying when another thread changed the slot first.
+   */
+  private static final class Slowest<T> {
+    private final AtomicReferenceArray<T> entries;
+    private final ToLongFunction<T> durationOf;
+
+    private Slowest(int size, ToLongFunction<T> durationOf) {
+      this.entries = new AtomicReferenceArray<>(size);
+      this.durationOf = durationOf;
+    }
+
+    // Cheap check before allocating an entry, which may be stale by the time it's offered
+    private boolean accepts(long duration) {
+      for (int i = 0; i < entries.length(); i++) {
+        T entry = entries.get(i);
+        if (entry == null || durationOf.applyAsLong(entry) < duration) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void offer(T entry) {
+      long duration = durationOf.applyAsLong(entry);
+      while (true) {
+        int shortest = -1;
+        T shortestEntry = null;
+        for (int i = 0; i < entries.length(); i++) {
+          T current = entries.get(i);
+          if (current == null) {
+            if (entries.compareAndSet(i, null, entry)) {
+              return;
+            }
+            current = entries.get(i);
+            if (current == null) {
+              continue;
+            }
+          }
+          if (shortestEntry == null
+              || durationOf.applyAsLong(current) < durationOf.applyAsLong(shortestEntry)) {
+            shortest = i;
+            shortestEntry = current;
+          }
+        }
+        if (shortestEntry == null || duration <= durationOf.applyAsLong(shortestEntry)) {
+          return;
+        }
+        if (entries.compareAndSet(shortest, shortestEntry, entry)) {
+          return;
+        }
+      }
+    }
+
+    private List<T> toList() {
+      List<T> list = new ArrayList<>(entries.length());
+      for (int i = 0; i < entries.length(); i++) {
+        T entry = entries.get(i);
+        if (entry != null) {
+          list.add(entry);
+        }
+      }
+      return list;
+    }
+  }
+
+  /** Builder for a {@link SlowOperationLog}. */
+  public static class Builder {
+    private Duration threshold = Duration.ofSeconds(1);
+    private Duration window = Duration.ofMinutes(5);
+    private int capacity = 100;
+    private int topFields = 5;
+    private double sampleRate = 1;
+
+    private Builder() {}
+
+    /**
+     * @param threshold Operations taking at least this long are recorded
+     * @return Fluent builder instance
+     */
+    public Builder threshold(Duration threshold) {
+      this.threshold = threshold;
+      return this;
+    }
+
+    /**
+     * @param window Length of each window the slowest operations are kept for. Only operations
+     *     completed within this long are returned.
+     * @return Fluent builder instance
+     */
+    public Builder window(Duration window) {
+      if (window.toMillis() <= 0) {
+        throw new IllegalArgumentException("Slow operation window must be at least a millisecond");
+      }
+      this.window = window;
+      return this;
+    }
+
+    /**
+     * @param capacity Maximum number of slow operations kept per window, replacing the fastest once
+     *     full
+     * @return Fluent builder instance
+     */
+    public Builder capacity(int capacity) {
+      if (capacity <= 0) {
+        throw new IllegalArgumentException("Slow operation log capacity must be positive");
+      }
+      this.capacity = capacity;
+      return this;
+    }
+
+    /**
+     * @param topFields Number of slowest field fetches to keep per operation
+     * @return Fluent builder instance
+     */
+    public Builder topFields(int topFields) {
+      if (topFields < 0) {
+        throw new IllegalArgumentException("Number of slowest fields can't be negative");
+      }
+      this.topFields = topFields;
+      return this;
+    }
+
+    /**
+     * @param sampleRate Fraction of operations to time, between 0 and 1
+     * @return Fluent builder instance
+     */
+    public Builder sampleRate(double sampleRate) {
+      if (sampleRate < 0 || sampleRate > 1) {
+        throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+      }
+      this.sampleRate = sampleRate;
+      return this;
+    }
+
+    /** @return Slow operation log with the configured limits */
+    public SlowOperationLog build() {
+      return new SlowOperationLog(this);
+    }
+  }
+}
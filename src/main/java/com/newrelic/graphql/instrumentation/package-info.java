@@ -0,0 +1,6 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+/** Instrumentation for GraphQL execution, and efficient chaining of instrumentations */
+package com.newrelic.graphql.instrumentation;
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.introspection;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ErrorType;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQL;
+import graphql.GraphqlErrorBuilder;
+import graphql.introspection.Introspection;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution front-end serving introspection operations from a cache.
+ *
+ * <p>An operation is cached when it's a query without variables that only selects {@code __schema},
+ * {@code __type} or {@code __typename} at its root, as the standard introspection queries of
+ * GraphiQL and other tooling do. Its result is computed once per schema and held with its JSON form
+ * as a {@link PreSerializedResult}. Results are keyed by the schema's identity along with query
+ * text and operation name, so one cache can front several {@code GraphQL} instances, such as schema
+ * variants, without serving one schema's introspection for another. Entries of a schema that was
+ * replaced, e.g. after a reload, are evicted as new ones fill the cache. Every other operation is
+ * executed as usual, after a substring check that only parses queries mentioning {@code __schema}
+ * or {@code __type}, so clients adding {@code __typename} everywhere aren't affected.
+ *
+ * <p>Introspection can also be disabled or limited to a number of operations per second. Limits
+ * apply to every operation selecting {@code __schema} or {@code __type} anywhere, including through
+ * fragments, alongside other fields or with variables, and rejected operations complete with a
+ * single error. Only the query text is inspected, so operations executed from a persisted document
+ * id without their text aren't limited; hide introspection in the schema itself, e.g. with
+ * graphql-java's {@code NoIntrospectionGraphqlFieldVisibility}, where that matters.
+ */
+public class IntrospectionCache {
+  private static final Set<String> introspectionFields =
+      Set.of(
+          Introspection.SchemaMetaFieldDef.getName(),
+          Introspection.TypeMetaFieldDef.getName(),
+          Introspection.TypeNameMetaFieldDef.getName());
+  private static final Set<String> limitedFields =
+      Set.of(Introspection.SchemaMetaFieldDef.getName(), Introspection.TypeMetaFieldDef.getName());
+
+  // Marks queries that mention introspection fields without selecting them
+  private static final Object NOT_INTROSPECTION = new Object();
+  // Marks queries selecting introspection fields that are limited but not cached
+  private static final Object UNCACHEABLE = new Object();
+  private static final Object UNCACHED = new Object();
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final int maxSize;
+  private final boolean enabled;
+  private final int maxPerSecond;
+  private final ConcurrentHashMap<Key, Object> entries = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final AtomicLong window = new AtomicLong();
+
+  private IntrospectionCache(Builder builder) {
+    this.maxSize = builder.maxSize;
+    this.enabled = builder.enabled;
+    this.maxPerSecond = builder.maxPerSecond;
+  }
+
+  /** @return Builder caching up to 16 introspection queries, without a rate limit */
+  public static Builder newIntrospectionCache() {
+    return new Builder();
+  }
+
+  /**
+   * @param graphQL GraphQL instance to execute with
+   * @param input Operation to execute
+   * @return Execution result, which is a {@link PreSerializedResult} for cached introspection
+   */
+  public ExecutionResult execute(GraphQL graphQL, ExecutionInput input) {
+    return executeAsync(graphQL, input).join();
+  }
+
+  /**
+   * @param graphQL GraphQL instance to execute with
+   * @param input Operation to execute
+   * @return Future execution result, which is a {@link PreSerializedResult} for cached
+   *     introspection
+   */
+  public CompletableFuture<ExecutionResult> executeAsync(GraphQL graphQL, ExecutionInput input) {
+    String query = input.getQuery();
+    if (!mentionsIntrospection(query)) {
+      return graphQL.executeAsync(input);
+    }
+
+    Key key = new Key(graphQL.getGraphQLSchema(), input.getOperationName(), query);
+    Object entry = entries.get(key);
+    if (entry == null) {
+      entry = classify(query, input.getOperationName());
+      put(key, entry);
+    }
+    if (entry == NOT_INTROSPECTION) {
+      return graphQL.executeAsync(input);
+    }
+
+    if (!admit()) {
+      rejected.increment();
+      return CompletableFuture.completedFuture(
+          rejectedResult(
+              enabled ? "Introspection rate limit exceeded" : "Introspection is disabled"));
+    }
+    if (entry == UNCACHEABLE) {
+      return graphQL.executeAsync(input);
+    }
+    if (entry instanceof PreSerializedResult) {
+      hits.increment();
+      return CompletableFuture.completedFuture((PreSerializedResult) entry);
+    }
+
+    misses.increment();
+    return graphQL
+        .executeAsync(input)
+        .thenApply(
+            result -> {
+              if (!result.getErrors().isEmpty()) {
+                return result;
+              }
+              PreSerializedResult cached = new PreSerializedResult(result, serialize(result));
+              put(key, cached);
+              return cached;
+            });
+  }
+
+  /** @return Number of introspection operations served from the cache */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /** @return Number of introspection operations that had to be executed */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /** @return Number of introspection operations rejected as disabled or over the rate limit */
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  /** @return Number of queries currently cached, including ones found not to be introspection */
+  public int size() {
+    return entries.size();
+  }
+
+  /** @return Maximum number of queries cached */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /** Removes all cached results. Hit, miss and rejection counts are kept. */
+  public void clear() {
+    entries.clear();
+  }
+
+  static boolean mentionsIntrospection(String query) {
+    if (query.contains("__schema")) {
+      return true;
+    }
+    for (int i = query.indexOf("__type"); i >= 0; i = query.indexOf("__type", i + 1)) {
+      int end = i + "__type".length();
+      if (end == query.length() || !Character.isLetterOrDigit(query.charAt(end))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Object classify(String query, String operationName) {
+    Document document = parse(query);
+    if (document == null) {
+      // Left for execution to report
+      return NOT_INTROSPECTION;
+    }
+    if (isIntrospection(document, operationName)) {
+      return UNCACHED;
+    }
+    return selectsIntrospection(document, operationName) ? UNCACHEABLE : NOT_INTROSPECTION;
+  }
+
+  private static Document parse(String query) {
+    try {
+      return Parser.parse(query);
+    } catch (InvalidSyntaxException e) {
+      return null;
+    }
+  }
+
+  // Whether the operation only selects introspection fields, so its result can be cached
+  static boolean isIntrospection(String query, String operationName) {
+    Document document = parse(query);
+    return document != null && isIntrospection(document, operationName);
+  }
+
+  // Whether the operation selects __schema or __type anywhere, so it's subject to the limits. With
+  // no operation name every operation is checked, since execution fails unless there's only one.
+  static boolean selectsIntrospection(String query, String operationName) {
+    Document document = parse(query);
+    return document != null && selectsIntrospection(document, operationName);
+  }
+
+  private static boolean isIntrospection(Document document, String operationName) {
+    OperationDefinition operation = null;
+    for (OperationDefinition definition :
+        document.getDefinitionsOfType(OperationDefinition.class)) {
+      if (operationName == null || operationName.equals(definition.getName())) {
+        if (operation != null) {
+          return false;
+        }
+        operation = definition;
+      }
+    }
+    if (operation == null
+        || operation.getOperation() != OperationDefinition.Operation.QUERY
+        || !operation.getVariableDefinitions().isEmpty()) {
+      return false;
+    }
+
+    List<Selection> selections = operation.getSelectionSet().getSelections();
+    for (Selection<?> selection : selections) {
+      if (!(selection instanceof Field)
+          || !introspectionFields.contains(((Field) selection).getName())) {
+        return false;
+      }
+    }
+    return !selections.isEmpty();
+  }
+
+  private static boolean selectsIntrospection(Document document, String operationName) {
+    Map<String, FragmentDefinition> fragments = new HashMap<>();
+    for (FragmentDefinition fragment : document.getDefinitionsOfType(FragmentDefinition.class)) {
+      fragments.put(fragment.getName(), fragment);
+    }
+
+    Set<String> visited = new HashSet<>();
+    for (OperationDefinition operation : document.getDefinitionsOfType(OperationDefinition.class)) {
+      if ((operationName == null || operationName.equals(operation.getName()))
+          && selectsIntrospection(operation.getSelectionSet(), fragments, visited)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean selectsIntrospection(
+      SelectionSet selectionSet, Map<String, FragmentDefinition> fragments, Set<String> visited) {
+    if (selectionSet == null) {
+      return false;
+    }
+
+    for (Selection<?> selection : selectionSet.getSelections()) {
+      SelectionSet nested = null;
+      if (selection instanceof Field) {
+        Field field = (Field) selection;
+        if (limitedFields.contains(field.getName())) {
+          return true;
+        }
+        nested = field.getSelectionSet();
+      } else if (selection instanceof InlineFragment) {
+        nested = ((InlineFragment) selection).getSelectionSet();
+      } else if (selection instanceof FragmentSpread) {
+        String name = ((FragmentSpread) selection).getName();
+        FragmentDefinition fragment = fragments.get(name);
+        if (fragment != null && visited.add(name)) {
+          nested = fragment.getSelectionSet();
+        }
+      }
+      if (selectsIntrospection(nested, fragments, visited)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void put(Key key, Object entry) {
+    if (entries.size() >= maxSize && !entries.containsKey(key)) {
+      Iterator<Key> keys = entries.keySet().iterator();
+      if (keys.hasNext()) {
+        entries.remove(keys.next());
+      }
+    }
+    entries.put(key, entry);
+  }
+
+  private boolean admit() {
+    if (!enabled) {
+      return false;
+    }
+    if (maxPerSecond <= 0) {
+      return true;
+    }
+
+    // Unlike nanoTime, whose origin is arbitrary, the wall clock gives aligned one second windows
+    return admit(System.currentTimeMillis() / 1000L);
+  }
+
+  // The high bits hold the second and the low 32 bits the count within it
+  boolean admit(long second) {
+    while (true) {
+      long current = window.get();
+      long next = (current >> 32) == second ? current + 1 : (second << 32) | 1;
+      if ((next & 0xFFFFFFFFL) > maxPerSecond) {
+        return false;
+      }
+      if (window.compareAndSet(current, next)) {
+        return true;
+      }
+    }
+  }
+
+  private byte[] serialize(ExecutionResult result) {
+    try {
+      return mapper.writeValueAsBytes(result.toSpecification());
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize introspection result", e);
+    }
+  }
+
+  private static ExecutionResult rejectedResult(String message) {
+    return new ExecutionResultImpl(
+        GraphqlErrorBuilder.newError()
+            .message("%s", message)
+            .errorType(ErrorType.OperationNotSupported)
+            .build());
+  }
+
+  // Cached query of a schema, compared by the schema's identity
+  private static final class Key {
+    private final GraphQLSchema schema;
+    private final String operationName;
+    private final String query;
+
+    private Key(GraphQLSchema schema, String operationName, String query) {
+      this.schema = schema;
+      this.operationName = operationName;
+      this.query = query;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return schema == other.schema
+          && Objects.equals(operationName, other.operationName)
+          && query.equals(other.query);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * System.identityHashCode(schema) + Objects.hashCode(operationName))
+          + query.hashCode();
+    }
+  }
+
+  /** Builder for an {@link IntrospectionCache}. */
+  public static class Builder {
+    private int maxSize = 16;
+    private boolean enabled = true;
+    private int maxPerSecond;
+
+    private Builder() {}
+
+    /**
+     * @param maxSize Maximum number of distinct queries to cache, counting each schema separately
+     * @return Fluent builder instance
+     */
+    public Builder maxSize(int maxSize) {
+      if (maxSize <= 0) {
+        throw new IllegalArgumentException("Introspection cache size must be positive");
+      }
+      this.maxSize = maxSize;
+      return this;
+    }
+
+    /**
+     * @param enabled Whether to serve introspection at all, i.e. false in production
+     * @return Fluent builder instance
+     */
+    public Builder enabled(boolean enabled) {
+      this.enabled = enabled;
+      return this;
+    }
+
+    /**
+     * @param maxPerSecond Maximum number of introspection operations to serve each second, or zero
+     *     for no limit
+     * @return Fluent builder instance
+     */
+    public Builder maxPerSecond(int maxPerSecond) {
+      if (maxPerSecond < 0) {
+        throw new IllegalArgumentException("Introspection rate limit can't be negative");
+      }
+      this.maxPerSecond = maxPerSecond;
+      return this;
+    }
+
+    /** @return Introspection cache with the configured limits */
+    public IntrospectionCache build() {
+      return new IntrospectionCache(this);
+    }
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.introspection;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Execution result that also holds its specification form already serialized to JSON, so it can be
+ * written out repeatedly without walking the result again.
+ */
+public class PreSerializedResult extends ExecutionResultImpl {
+  private final byte[] json;
+
+  PreSerializedResult(ExecutionResult result, byte[] json) {
+    super(result.getData(), result.getErrors(), result.getExtensions());
+    this.json = json;
+  }
+
+  /**
+   * @param out Stream to write the JSON form of {@link #toSpecification()} to
+   * @throws IOException when writing fails
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    out.write(json);
+  }
+
+  /** @return Copy of the UTF-8 JSON form of {@link #toSpecification()} */
+  public byte[] toJsonBytes() {
+    return Arrays.copyOf(json, json.length);
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.mapper;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotation;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Constructor of an immutable input class, bound once to a method handle with its parameters keyed
+ * by GraphQL field name.
+ *
+ * <p>Records bind through their canonical constructor. Other classes bind when all their instance
+ * fields are final and they have a single public constructor whose parameters are named after those
+ * fields, which requires compiling with {@code -parameters}. Classes with a {@code JsonCreator} are
+ * left to Jackson. Records are detected reflectively so this still runs on Java 11.
+ */
+final class ConstructorBinding {
+  private static final Method isRecord = classMethod("isRecord");
+  private static final Method getRecordComponents = classMethod("getRecordComponents");
+
+  private final Class<?> type;
+  private final MethodHandle constructor;
+  private final BoundParameter[] parameters;
+
+  private ConstructorBinding(
+      Class<?> type, MethodHandle constructor, List<BoundParameter> parameters) {
+    this.type = type;
+    this.constructor = constructor;
+    this.parameters = parameters.toArray(new BoundParameter[0]);
+  }
+
+  /**
+   * @param type Class to bind
+   * @param typeFactory Factory for the parameters' Jackson types
+   * @return Binding for the class, or null if it isn't a record or immutable class
+   */
+  static ConstructorBinding of(Class<?> type, TypeFactory typeFactory) {
+    if (!Modifier.isPublic(type.getModifiers())
+        || Modifier.isAbstract(type.getModifiers())
+        || type.isEnum()
+        || hasJacksonAnnotations(type)) {
+      return null;
+    }
+
+    try {
+      List<String> names = isRecord(type) ? recordComponentNames(type) : null;
+      Constructor<?> constructor =
+          names != null ? canonicalConstructor(type) : immutableConstructor(type);
+      if (constructor == null) {
+        return null;
+      }
+
+      Parameter[] reflected = constructor.getParameters();
+      List<BoundParameter> parameters = new ArrayList<>(reflected.length);
+      for (int i = 0; i < reflected.length; i++) {
+        String name = names != null ? names.get(i) : reflected[i].getName();
+        parameters.add(new BoundParameter(name, reflected[i], typeFactory));
+      }
+
+      MethodHandle handle =
+          MethodHandles.publicLookup()
+              .unreflectConstructor(constructor)
+              .asSpreader(Object[].class, reflected.length)
+              .asType(MethodType.methodType(Object.class, Object[].class));
+      return new ConstructorBinding(type, handle, parameters);
+    } catch (ReflectiveOperationException | SecurityException e) {
+      return null;
+    }
+  }
+
+  BoundParameter[] getParameters() {
+    return parameters;
+  }
+
+  /**
+   * @param arguments Value for each parameter, in order
+   * @return New instance of the bound class
+   * @throws IllegalArgumentException when the constructor throws
+   */
+  Object construct(Object[] arguments) {
+    try {
+      return (Object) constructor.invokeExact(arguments);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalArgumentException("Failed to construct " + type.getName(), t);
+    }
+  }
+
+  private static boolean isRecord(Class<?> type) throws ReflectiveOperationException {
+    return isRecord != null && (Boolean) isRecord.invoke(type);
+  }
+
+  private static List<String> recordComponentNames(Class<?> type)
+      throws ReflectiveOperationException {
+    Object[] components = (Object[]) getRecordComponents.invoke(type);
+    List<String> names = new ArrayList<>(components.length);
+    for (Object component : components) {
+      names.add((String) component.getClass().getMethod("getName").invoke(component));
+    }
+    return names;
+  }
+
+  private static Constructor<?> canonicalConstructor(Class<?> type)
+      throws ReflectiveOperationException {
+    Object[] components = (Object[]) getRecordComponents.invoke(type);
+    Class<?>[] types = new Class<?>[components.length];
+    for (int i = 0; i < components.length; i++) {
+      types[i] = (Class<?>) components[i].getClass().getMethod("getType").invoke(components[i]);
+    }
+    return type.getConstructor(types);
+  }
+
+  private static Constructor<?> immutableConstructor(Class<?> type) {
+    Map<String, Class<?>> fields = new HashMap<>();
+    for (Field field : type.getDeclaredFields()) {
+      int modifiers = field.getModifiers();
+      if (Modifier.isStatic(modifiers)) {
+        continue;
+      }
+      if (!Modifier.isFinal(modifiers)) {
+        return null;
+      }
+      fields.put(field.getName(), field.getType());
+    }
+
+    Constructor<?>[] constructors = type.getConstructors();
+    if (fields.isEmpty() || constructors.length != 1) {
+      return null;
+    }
+
+    Constructor<?> constructor = constructors[0];
+    if (constructor.getParameterCount() != fields.size()) {
+      return null;
+    }
+    for (Parameter parameter : constructor.getParameters()) {
+      if (!parameter.isNamePresent() || fields.get(parameter.getName()) != parameter.getType()) {
+        return null;
+      }
+    }
+    return constructor;
+  }
+
+  // Whether Jackson could map the class differently from its plain names, e.g. through
+  // JsonProperty,
+  // JsonAlias, JsonCreator or JsonDeserialize. Annotations on record components are propagated to
+  // the fields, accessors and constructor parameters checked here.
+  private static boolean hasJacksonAnnotations(Class<?> type) {
+    if (isJacksonAnnotated(type)) {
+      return true;
+    }
+    for (Field field : type.getDeclaredFields()) {
+      if (isJacksonAnnotated(field)) {
+        return true;
+      }
+    }
+    for (Method method : type.getDeclaredMethods()) {
+      if (isJacksonAnnotated(method)) {
+        return true;
+      }
+    }
+    for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+      if (isJacksonAnnotated(constructor)) {
+        return true;
+      }
+      for (Parameter parameter : constructor.getParameters()) {
+        if (isJacksonAnnotated(parameter)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean isJacksonAnnotated(AnnotatedElement element) {
+    for (Annotation annotation : element.getDeclaredAnnotations()) {
+      if (annotation.annotationType().isAnnotationPresent(JacksonAnnotation.class)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Method classMethod(String name) {
+    try {
+      return Class.class.getMethod(name);
+    } catch (NoSuchMethodException e) {
+      // Records arrived in Java 16
+      return null;
+    }
+  }
+
+  /** Constructor parameter bound to the GraphQL input field of the same name. */
+  static final class BoundParameter {
+    private final String name;
+    private final Class<?> boxedType;
+    private final boolean exact;
+    private final JavaType javaType;
+    private final Object defaultValue;
+
+    private BoundParameter(String name, Parameter parameter, TypeFactory typeFactory) {
+      Class<?> type = parameter.getType();
+      Type genericType = parameter.getParameterizedType();
+      this.name = name;
+      this.boxedType = MethodType.methodType(type).wrap().returnType();
+      this.exact = genericType instanceof Class;
+      this.javaType = typeFactory.constructType(genericType);
+      this.defaultValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    JavaType getJavaType() {
+      return javaType;
+    }
+
+    Object getDefaultValue() {
+      return defaultValue;
+    }
+
+    /**
+     * @param value Non-null value for the parameter
+     * @return Whether the value can be passed as-is, without conversion
+     */
+    boolean accepts(Object value) {
+      return exact && boxedType.isInstance(value);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.mapper;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lookup from GraphQL enum values to the constants of a Java enum with the same names, built once
+ * per enum class. Enums customizing their Jackson names or creators are left to Jackson.
+ */
+final class EnumTable {
+  private final Class<?> type;
+  private final Map<Object, Object> constants;
+
+  private EnumTable(Class<?> type, Map<Object, Object> constants) {
+    this.type = type;
+    this.constants = constants;
+  }
+
+  /**
+   * @param type Class to build a table for
+   * @return Table for the enum, or null if it isn't an enum or customizes its Jackson mapping
+   */
+  static EnumTable of(Class<?> type) {
+    if (!type.isEnum()) {
+      return null;
+    }
+
+    for (Method method : type.getDeclaredMethods()) {
+      if (method.isAnnotationPresent(JsonValue.class)
+          || method.isAnnotationPresent(JsonCreator.class)) {
+        return null;
+      }
+    }
+
+    Map<Object, Object> constants = new HashMap<>();
+    for (Object constant : type.getEnumConstants()) {
+      String name = ((Enum<?>) constant).name();
+      try {
+        Field field = type.getField(name);
+        if (field.isAnnotationPresent(JsonProperty.class)
+            || field.isAnnotationPresent(JsonAlias.class)) {
+          return null;
+        }
+      } catch (NoSuchFieldException e) {
+        return null;
+      }
+      constants.put(name, constant);
+    }
+    return new EnumTable(type, constants);
+  }
+
+  /**
+   * @param value GraphQL enum value, either its name or the Java constant itself
+   * @return Matching constant, or null if there's none
+   */
+  Object get(Object value) {
+    if (type.isInstance(value)) {
+      return value;
+    }
+    return constants.get(value);
+  }
+}
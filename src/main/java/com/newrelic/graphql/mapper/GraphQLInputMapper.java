@@ -11,8 +11,20 @@ import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.newrelic.graphql.mapper.ConstructorBinding.BoundParameter;
 import graphql.schema.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Primary class for mapping from primitive GraphQL inputs to custom classes.
@@ -20,6 +32,15 @@ import java.util.List;
  * <p>This class uses Jackson, providing a structured way to convert incoming arguments in GraphQL
  * types to richer native classes.
  *
+ * <p>With the default ObjectMapper, records and immutable classes (all fields final, with a single
+ * public constructor taking them by name) skip Jackson and are constructed directly through a
+ * method handle bound once per class, so they need no Jackson annotations. Constructor parameter
+ * names of immutable classes are only available when compiled with {@code -parameters}; records
+ * don't need it. Enums are looked up by name in a table built once per enum class, and constants
+ * already produced by an enum wired with {@code SimpleGraphQLBuilder.enumType} pass straight
+ * through. Classes using Jackson annotations, and all classes when a custom ObjectMapper is given,
+ * still go through Jackson so its annotations and settings apply.
+ *
  * <pre>
  *   GraphQLInputMapper mapper = new GraphQLInputMapper("com.newrelic.my.model");
  *
@@ -30,34 +51,77 @@ import java.util.List;
  *     //...
  *   }
  * </pre>
+ *
+ * <p>To spread input classes across packages or name them differently from their GraphQL types, use
+ * {@link #newGraphQLInputMapper()}. Class lookups are indexed by GraphQL type name, so each name is
+ * only resolved once.
+ *
+ * <pre>
+ *   GraphQLInputMapper mapper = GraphQLInputMapper.newGraphQLInputMapper()
+ *       .packageName("com.newrelic.my.model")
+ *       .packageName("com.newrelic.shared.model")
+ *       .type("TimeWindowInput", TimeWindow.class)
+ *       .schema(graphQL.getGraphQLSchema())
+ *       .build();
+ * </pre>
  */
 public class GraphQLInputMapper {
-  private final String packageName;
+  private final InputClassIndex classes;
   private final ObjectMapper mapper;
+  private final boolean bypassJackson;
+  private final ConcurrentHashMap<Class<?>, Optional<ConstructorBinding>> bindings =
+      new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Class<?>, Optional<EnumTable>> enumTables =
+      new ConcurrentHashMap<>();
 
   /** @param packageName Package name to find the destination type in for conversion */
   public GraphQLInputMapper(String packageName) {
-    this(
-        packageName,
-        JsonMapper.builder()
-            // For working with newer versions of Jackson on Java 11+ we need this module to
-            // serialized times
-            .addModule(new JavaTimeModule())
-            // Our mapping of the partially converted GraphQL inputs to POJOs actually serializes
-            // things under
-            // the covers, so make sure those are in ISO string form with zones intact.
-            .configure(WRITE_DATES_AS_TIMESTAMPS, false)
-            .configure(WRITE_DATES_WITH_ZONE_ID, true)
-            .build());
+    this(packageIndex(packageName), defaultObjectMapper(), true);
   }
 
   /**
    * @param packageName Package name to find the destination type in for conversion
-   * @param mapper Custom Jackson ObjectMapper if additional configuration is required
+   * @param mapper Custom Jackson ObjectMapper if additional configuration is required. Register
+   *     {@code ScalarWrapperModule} on it to convert predefined scalars without bean mapping.
+   *     Inputs always convert through it, so its settings apply to records, immutable classes and
+   *     enums too.
    */
   public GraphQLInputMapper(String packageName, ObjectMapper mapper) {
-    this.packageName = packageName;
+    this(packageIndex(packageName), mapper, false);
+  }
+
+  private GraphQLInputMapper(InputClassIndex classes, ObjectMapper mapper, boolean bypassJackson) {
+    this.classes = classes;
     this.mapper = mapper;
+    this.bypassJackson = bypassJackson;
+  }
+
+  // A null package finds no classes, failing on conversion rather than construction
+  private static InputClassIndex packageIndex(String packageName) {
+    return new InputClassIndex(packageName == null ? List.of() : List.of(packageName), Map.of());
+  }
+
+  /**
+   * @return Builder for a mapper finding destination types across several packages, with explicit
+   *     overrides and optional validation against a schema
+   */
+  public static Builder newGraphQLInputMapper() {
+    return new Builder();
+  }
+
+  private static ObjectMapper defaultObjectMapper() {
+    return JsonMapper.builder()
+        // For working with newer versions of Jackson on Java 11+ we need this module to
+        // serialized times
+        .addModule(new JavaTimeModule())
+        // Pass our scalar wrappers straight through conversion instead of as bean maps
+        .addModule(new ScalarWrapperModule())
+        // Our mapping of the partially converted GraphQL inputs to POJOs actually serializes
+        // things under
+        // the covers, so make sure those are in ISO string form with zones intact.
+        .configure(WRITE_DATES_AS_TIMESTAMPS, false)
+        .configure(WRITE_DATES_WITH_ZONE_ID, true)
+        .build();
   }
 
   /**
@@ -68,6 +132,10 @@ public class GraphQLInputMapper {
    * @throws ClassNotFoundException If requested type isn't found
    */
   public <T> T convert(Object rawValue, GraphQLType graphQLType) throws ClassNotFoundException {
+    if (rawValue != null && isDirect(graphQLType)) {
+      return cast(convertDirect(rawValue, graphQLType));
+    }
+
     JavaType type = getType(graphQLType);
     if (type != null) {
       return mapper.convertValue(rawValue, type);
@@ -75,11 +143,236 @@ public class GraphQLInputMapper {
     return cast(rawValue);
   }
 
+  /**
+   * Converts the elements of a list input one at a time as the stream is consumed, rather than
+   * building the whole converted list up front. The stream may be made parallel for large lists.
+   *
+   * @param rawValue Incoming primitive list value
+   * @param graphQLType GraphQL list type definition for the field value
+   * @param <T> Desired type to convert each element to
+   * @return Stream of converted elements
+   * @throws ClassNotFoundException If requested element type isn't found
+   * @throws IllegalArgumentException If the GraphQL type isn't a list
+   */
+  public <T> Stream<T> convertStream(Object rawValue, GraphQLType graphQLType)
+      throws ClassNotFoundException {
+    Function<Object, T> converter = elementConverter(graphQLType);
+    if (rawValue == null) {
+      return Stream.empty();
+    }
+    return stream(rawValue).map(converter);
+  }
+
+  /**
+   * Converts the elements of a list input in fixed size chunks, handing each chunk to the consumer
+   * before converting the next. At most one chunk per worker thread is held in memory at a time.
+   *
+   * @param rawValue Incoming primitive list value
+   * @param graphQLType GraphQL list type definition for the field value
+   * @param chunkSize Maximum number of converted elements per chunk
+   * @param parallel Whether to convert chunks in parallel on the common fork-join pool. The
+   *     consumer must be thread-safe when enabled, and chunks may arrive out of order.
+   * @param consumer Callback receiving each chunk of converted elements
+   * @param <T> Desired type to convert each element to
+   * @throws ClassNotFoundException If requested element type isn't found
+   * @throws IllegalArgumentException If the GraphQL type isn't a list
+   */
+  public <T> void convertChunks(
+      Object rawValue,
+      GraphQLType graphQLType,
+      int chunkSize,
+      boolean parallel,
+      Consumer<List<T>> consumer)
+      throws ClassNotFoundException {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive");
+    }
+
+    Function<Object, T> converter = elementConverter(graphQLType);
+    if (rawValue == null) {
+      return;
+    }
+
+    if (rawValue instanceof List) {
+      List<?> list = (List<?>) rawValue;
+      int chunks = (list.size() + chunkSize - 1) / chunkSize;
+      IntStream indexes = IntStream.range(0, chunks);
+      if (parallel) {
+        indexes = indexes.parallel();
+      }
+      indexes.forEach(
+          i -> {
+            List<?> raw = list.subList(i * chunkSize, Math.min(list.size(), (i + 1) * chunkSize));
+            consumer.accept(convertChunk(raw, converter));
+          });
+    } else {
+      List<Object> raw = new ArrayList<>(chunkSize);
+      for (Object element : (Iterable<?>) rawValue) {
+        raw.add(element);
+        if (raw.size() == chunkSize) {
+          consumer.accept(convertChunk(raw, converter));
+          raw.clear();
+        }
+      }
+      if (!raw.isEmpty()) {
+        consumer.accept(convertChunk(raw, converter));
+      }
+    }
+  }
+
+  private static <T> List<T> convertChunk(List<?> raw, Function<Object, T> converter) {
+    List<T> converted = new ArrayList<>(raw.size());
+    for (Object element : raw) {
+      converted.add(converter.apply(element));
+    }
+    return converted;
+  }
+
+  private <T> Function<Object, T> elementConverter(GraphQLType graphQLType)
+      throws ClassNotFoundException {
+    GraphQLType listType = GraphQLTypeUtil.unwrapNonNull(graphQLType);
+    if (!(listType instanceof GraphQLList)) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Expected a list type but was '%s'", GraphQLTypeUtil.simplePrint(graphQLType)));
+    }
+
+    GraphQLType wrappedType = ((GraphQLList) listType).getWrappedType();
+    if (isDirect(wrappedType)) {
+      return element -> {
+        try {
+          return element == null ? null : cast(convertDirect(element, wrappedType));
+        } catch (ClassNotFoundException e) {
+          // Already resolved by isDirect
+          throw new IllegalStateException(e);
+        }
+      };
+    }
+
+    JavaType elementType = getType(wrappedType);
+    if (elementType == null) {
+      return this::cast;
+    }
+    return element -> mapper.convertValue(element, elementType);
+  }
+
+  private static Stream<?> stream(Object rawValue) {
+    if (rawValue instanceof Collection) {
+      return ((Collection<?>) rawValue).stream();
+    }
+    return StreamSupport.stream(((Iterable<?>) rawValue).spliterator(), false);
+  }
+
   @SuppressWarnings("unchecked")
   private <T> T cast(Object rawValue) {
     return (T) rawValue;
   }
 
+  // Whether the type is, or is a list of, an input object whose class binds through its constructor
+  // or an enum converted through its table, skipping Jackson. Types without a class aren't direct,
+  // leaving Jackson to convert them or report the missing class.
+  private boolean isDirect(GraphQLType type) {
+    GraphQLType unwrapped = GraphQLTypeUtil.unwrapAll(type);
+    if (unwrapped instanceof GraphQLInputObjectType) {
+      return binding((GraphQLNamedType) unwrapped) != null;
+    }
+    if (unwrapped instanceof GraphQLEnumType) {
+      return enumTable((GraphQLNamedType) unwrapped) != null;
+    }
+    return false;
+  }
+
+  private ConstructorBinding binding(GraphQLNamedType type) {
+    if (!bypassJackson) {
+      return null;
+    }
+    Class<?> javaClass = classes.find(type.getName());
+    if (javaClass == null) {
+      return null;
+    }
+    return bindings
+        .computeIfAbsent(
+            javaClass, c -> Optional.ofNullable(ConstructorBinding.of(c, mapper.getTypeFactory())))
+        .orElse(null);
+  }
+
+  private EnumTable enumTable(GraphQLNamedType type) {
+    if (!bypassJackson) {
+      return null;
+    }
+    Class<?> javaClass = classes.find(type.getName());
+    if (javaClass == null) {
+      return null;
+    }
+    return enumTables
+        .computeIfAbsent(javaClass, c -> Optional.ofNullable(EnumTable.of(c)))
+        .orElse(null);
+  }
+
+  private Object convertDirect(Object rawValue, GraphQLType type) throws ClassNotFoundException {
+    if (type instanceof GraphQLNonNull) {
+      return convertDirect(rawValue, ((GraphQLNonNull) type).getWrappedType());
+    }
+
+    if (type instanceof GraphQLList) {
+      GraphQLType wrappedType = ((GraphQLList) type).getWrappedType();
+      List<Object> converted = new ArrayList<>();
+      for (Object element : (Iterable<?>) rawValue) {
+        converted.add(element == null ? null : convertDirect(element, wrappedType));
+      }
+      return converted;
+    }
+
+    if (type instanceof GraphQLEnumType) {
+      Object constant = enumTable((GraphQLEnumType) type).get(rawValue);
+      if (constant == null) {
+        // Let Jackson report the unknown value
+        return mapper.convertValue(rawValue, classes.get(((GraphQLEnumType) type).getName()));
+      }
+      return constant;
+    }
+
+    GraphQLInputObjectType objectType = (GraphQLInputObjectType) type;
+    ConstructorBinding binding = binding(objectType);
+    Map<?, ?> fields = (Map<?, ?>) rawValue;
+    BoundParameter[] parameters = binding.getParameters();
+    Object[] arguments = new Object[parameters.length];
+    for (int i = 0; i < parameters.length; i++) {
+      BoundParameter parameter = parameters[i];
+      Object value = fields.get(parameter.getName());
+      if (value == null) {
+        arguments[i] = parameter.getDefaultValue();
+        continue;
+      }
+
+      GraphQLInputObjectField field = objectType.getField(parameter.getName());
+      if (field != null && targets(parameter, field.getType()) && isDirect(field.getType())) {
+        arguments[i] = convertDirect(value, field.getType());
+      } else if (parameter.accepts(value)) {
+        arguments[i] = value;
+      } else {
+        arguments[i] = mapper.convertValue(value, parameter.getJavaType());
+      }
+    }
+    return binding.construct(arguments);
+  }
+
+  // Whether the parameter has the class indexed for the GraphQL type, through a type accepting the
+  // ArrayList built by convertDirect at each list level. False when the type has no class.
+  private boolean targets(BoundParameter parameter, GraphQLType type) {
+    JavaType javaType = parameter.getJavaType();
+    GraphQLType unwrapped = GraphQLTypeUtil.unwrapNonNull(type);
+    while (unwrapped instanceof GraphQLList) {
+      if (!javaType.isCollectionLikeType()
+          || !javaType.getRawClass().isAssignableFrom(List.class)) {
+        return false;
+      }
+      javaType = javaType.getContentType();
+      unwrapped = GraphQLTypeUtil.unwrapNonNull(((GraphQLList) unwrapped).getWrappedType());
+    }
+    return javaType.getRawClass() == classes.find(((GraphQLNamedType) unwrapped).getName());
+  }
+
   private JavaType getType(GraphQLType type) throws ClassNotFoundException {
     if (type instanceof GraphQLList) {
       JavaType innerType = getType(((GraphQLList) type).getWrappedType());
@@ -89,11 +382,11 @@ public class GraphQLInputMapper {
     } else if (type instanceof GraphQLInputObjectType) {
       return mapper
           .getTypeFactory()
-          .constructType(classInPackage(packageName, (GraphQLNamedType) type));
+          .constructType(classes.get(((GraphQLNamedType) type).getName()));
     } else if (type instanceof GraphQLEnumType) {
       return mapper
           .getTypeFactory()
-          .constructType(classInPackage(packageName, (GraphQLNamedType) type));
+          .constructType(classes.get(((GraphQLNamedType) type).getName()));
     } else if (type instanceof GraphQLNonNull) {
       return getType(((GraphQLNonNull) type).getWrappedType());
     }
@@ -101,9 +394,90 @@ public class GraphQLInputMapper {
     return null;
   }
 
-  private Class<?> classInPackage(String packageName, GraphQLNamedType type)
-      throws ClassNotFoundException {
-    String className = String.format("%s.%s", packageName, type.getName());
-    return Class.forName(className);
+  /** Builder for a {@link GraphQLInputMapper}. */
+  public static class Builder {
+    private final List<String> packageNames = new ArrayList<>();
+    private final Map<String, Class<?>> overrides = new HashMap<>();
+    private ObjectMapper mapper;
+    private GraphQLSchema schema;
+
+    private Builder() {}
+
+    /**
+     * @param packageName Package to find destination types in, searched after any added before it
+     * @return Fluent builder instance
+     */
+    public Builder packageName(String packageName) {
+      this.packageNames.add(packageName);
+      return this;
+    }
+
+    /**
+     * @param typeName GraphQL input object or enum type name
+     * @param type Class to convert the type to, regardless of packages
+     * @return Fluent builder instance
+     */
+    public Builder type(String typeName, Class<?> type) {
+      this.overrides.put(typeName, type);
+      return this;
+    }
+
+    /**
+     * @param mapper Custom Jackson ObjectMapper if additional configuration is required. Register
+     *     {@code ScalarWrapperModule} on it to convert predefined scalars without bean mapping.
+     *     Inputs always convert through it, so its settings apply to records, immutable classes and
+     *     enums too.
+     * @return Fluent builder instance
+     */
+    public Builder objectMapper(ObjectMapper mapper) {
+      this.mapper = mapper;
+      return this;
+    }
+
+    /**
+     * @param schema Schema whose input object types must all have a class, resolved while building
+     *     rather than on first conversion. Enum types are resolved too, but may be missing since
+     *     they can be output-only.
+     * @return Fluent builder instance
+     */
+    public Builder schema(GraphQLSchema schema) {
+      this.schema = schema;
+      return this;
+    }
+
+    /**
+     * @return Mapper whose class index resolves each type name on first use, or up front for the
+     *     schema's types when one was given
+     * @throws IllegalArgumentException when no package or override was given, or an input object
+     *     type in the schema has no class
+     */
+    public GraphQLInputMapper build() {
+      if (packageNames.isEmpty() && overrides.isEmpty()) {
+        throw new IllegalArgumentException("Input mapper needs a package name or type override");
+      }
+
+      InputClassIndex classes = new InputClassIndex(packageNames, overrides);
+      if (schema != null) {
+        List<String> missing = new ArrayList<>();
+        for (GraphQLNamedType type : schema.getAllTypesAsList()) {
+          if (type.getName().startsWith("__")) {
+            continue;
+          }
+          if (type instanceof GraphQLInputObjectType && !classes.contains(type.getName())) {
+            missing.add(type.getName());
+          } else if (type instanceof GraphQLEnumType) {
+            classes.contains(type.getName());
+          }
+        }
+        if (!missing.isEmpty()) {
+          throw new IllegalArgumentException(
+              "No class for input types " + missing + " in " + packageNames);
+        }
+      }
+
+      return mapper != null
+          ? new GraphQLInputMapper(classes, mapper, false)
+          : new GraphQLInputMapper(classes, defaultObjectMapper(), true);
+    }
   }
 }
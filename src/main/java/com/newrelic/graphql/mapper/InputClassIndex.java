@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.mapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index from GraphQL type names to the classes inputs convert to. Each name is resolved once, from
+ * the explicit overrides or else the first package containing a class of the same name, and
+ * remembered whether found or not.
+ */
+final class InputClassIndex {
+  private final List<String> packageNames;
+  private final Map<String, Class<?>> overrides;
+  private final ConcurrentHashMap<String, Optional<Class<?>>> classes = new ConcurrentHashMap<>();
+
+  InputClassIndex(List<String> packageNames, Map<String, Class<?>> overrides) {
+    this.packageNames = List.copyOf(packageNames);
+    this.overrides = Map.copyOf(overrides);
+  }
+
+  /**
+   * @param typeName GraphQL type name
+   * @return Class for the type
+   * @throws ClassNotFoundException when no override or package provides the type
+   */
+  Class<?> get(String typeName) throws ClassNotFoundException {
+    Optional<Class<?>> found = classes.get(typeName);
+    if (found == null) {
+      found = classes.computeIfAbsent(typeName, this::resolve);
+    }
+    if (found.isEmpty()) {
+      throw new ClassNotFoundException(
+          "No class for GraphQL type '" + typeName + "' in " + packageNames);
+    }
+    return found.get();
+  }
+
+  /**
+   * @param typeName GraphQL type name
+   * @return Class for the type, or null when no override or package provides it
+   */
+  Class<?> find(String typeName) {
+    return classes.computeIfAbsent(typeName, this::resolve).orElse(null);
+  }
+
+  /**
+   * @param typeName GraphQL type name
+   * @return Whether a class was found for the type
+   */
+  boolean contains(String typeName) {
+    return classes.computeIfAbsent(typeName, this::resolve).isPresent();
+  }
+
+  /** @return Number of type names resolved so far, found or not */
+  int size() {
+    return classes.size();
+  }
+
+  private Optional<Class<?>> resolve(String typeName) {
+    Class<?> override = overrides.get(typeName);
+    if (override != null) {
+      return Optional.of(override);
+    }
+
+    for (String packageName : packageNames) {
+      try {
+        return Optional.of(Class.forName(packageName + "." + typeName));
+      } catch (ClassNotFoundException e) {
+        // Try the next package
+      }
+    }
+    return Optional.empty();
+  }
+}
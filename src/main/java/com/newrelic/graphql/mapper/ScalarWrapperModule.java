@@ -0,0 +1,219 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.newrelic.graphql.schema.scalars.DateTime;
+import com.newrelic.graphql.schema.scalars.EpochMilliseconds;
+import com.newrelic.graphql.schema.scalars.EpochSeconds;
+import com.newrelic.graphql.schema.scalars.Int64;
+import com.newrelic.graphql.schema.scalars.Int64ID;
+import com.newrelic.graphql.schema.scalars.Milliseconds;
+import com.newrelic.graphql.schema.scalars.Minutes;
+import com.newrelic.graphql.schema.scalars.NumberCoercing.NumberWrapper;
+import com.newrelic.graphql.schema.scalars.Seconds;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Jackson module for the predefined scalar wrappers. Registered by default in {@code
+ * GraphQLInputMapper}; register it yourself when providing a custom {@code ObjectMapper}.
+ *
+ * <p>{@code GraphQLInputMapper} converts inputs by writing them into a token buffer and reading the
+ * destination type back out. Without this module each wrapper would be written as a bean map and
+ * rebuilt from it. Here wrappers are embedded in the buffer as-is and handed straight back on the
+ * way out. Anywhere else, wrappers are written as their raw number (or ISO-8601 string for {@code
+ * DateTime}) and read back from the same.
+ *
+ * <p>Only the predefined wrapper classes themselves are handled. Subclasses and wrappers of your
+ * own keep Jackson's default bean handling, i.e. through a {@code JsonCreator} taking the bean's
+ * properties, since there's no deserializer here to take them back out of the buffer.
+ */
+public class ScalarWrapperModule extends SimpleModule {
+  private final Set<Class<?>> numberWrappers = new HashSet<>();
+
+  /** Registers serializers and deserializers for each of the predefined scalar wrappers. */
+  public ScalarWrapperModule() {
+    super(ScalarWrapperModule.class.getSimpleName());
+
+    JsonSerializer<?> numberWrapperSerializer = new NumberWrapperSerializer();
+    JsonSerializer<?> dateTimeSerializer = new DateTimeSerializer();
+    // Matched by exact class, where serializers added to the module would also match subclasses
+    setSerializerModifier(
+        new BeanSerializerModifier() {
+          @Override
+          public JsonSerializer<?> modifySerializer(
+              SerializationConfig config,
+              BeanDescription description,
+              JsonSerializer<?> serializer) {
+            Class<?> type = description.getBeanClass();
+            if (numberWrappers.contains(type)) {
+              return numberWrapperSerializer;
+            } else if (type == DateTime.class) {
+              return dateTimeSerializer;
+            }
+            return serializer;
+          }
+        });
+
+    addNumberWrapper(EpochMilliseconds.class, EpochMilliseconds::new);
+    addNumberWrapper(EpochSeconds.class, EpochSeconds::new);
+    addNumberWrapper(Milliseconds.class, Milliseconds::new);
+    addNumberWrapper(Seconds.class, Seconds::new);
+    addNumberWrapper(Minutes.class, Minutes::new);
+    addNumberWrapper(Int64.class, Int64::new);
+    addNumberWrapper(Int64ID.class, Int64ID::new);
+    addDeserializer(DateTime.class, new DateTimeDeserializer());
+  }
+
+  private <T extends NumberWrapper> void addNumberWrapper(
+      Class<T> type, Function<Number, T> factory) {
+    numberWrappers.add(type);
+    addDeserializer(type, new NumberWrapperDeserializer<>(type, factory));
+  }
+
+  private static class NumberWrapperSerializer extends StdSerializer<NumberWrapper> {
+    NumberWrapperSerializer() {
+      super(NumberWrapper.class);
+    }
+
+    @Override
+    public void serialize(NumberWrapper value, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      if (gen instanceof TokenBuffer) {
+        gen.writeEmbeddedObject(value);
+        return;
+      }
+
+      Number number = value.getRawValue();
+      if (number instanceof Long || number instanceof Integer) {
+        gen.writeNumber(number.longValue());
+      } else if (number instanceof BigDecimal) {
+        gen.writeNumber((BigDecimal) number);
+      } else if (number instanceof BigInteger) {
+        gen.writeNumber((BigInteger) number);
+      } else {
+        gen.writeNumber(number.doubleValue());
+      }
+    }
+  }
+
+  private static class DateTimeSerializer extends StdSerializer<DateTime> {
+    DateTimeSerializer() {
+      super(DateTime.class);
+    }
+
+    @Override
+    public void serialize(DateTime value, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      if (gen instanceof TokenBuffer) {
+        gen.writeEmbeddedObject(value);
+      } else {
+        gen.writeString(value.toString());
+      }
+    }
+  }
+
+  private static class NumberWrapperDeserializer<T extends NumberWrapper>
+      extends StdDeserializer<T> {
+    private final Class<T> type;
+    private final Function<Number, T> factory;
+
+    NumberWrapperDeserializer(Class<T> type, Function<Number, T> factory) {
+      super(type);
+      this.type = type;
+      this.factory = factory;
+    }
+
+    @Override
+    public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      JsonToken token = p.currentToken();
+      if (token == JsonToken.VALUE_EMBEDDED_OBJECT) {
+        Object embedded = p.getEmbeddedObject();
+        if (type.isInstance(embedded)) {
+          return type.cast(embedded);
+        } else if (embedded instanceof NumberWrapper) {
+          return factory.apply(((NumberWrapper) embedded).getRawValue());
+        } else if (embedded instanceof Number) {
+          return factory.apply(normalize((Number) embedded));
+        }
+      } else if (token == JsonToken.VALUE_NUMBER_INT) {
+        return factory.apply(
+            p.getNumberType() == JsonParser.NumberType.BIG_INTEGER
+                ? p.getBigIntegerValue()
+                : p.getLongValue());
+      } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+        return factory.apply(p.getDoubleValue());
+      } else if (token == JsonToken.START_OBJECT) {
+        // Bean form written before this module existed, i.e. {"rawValue": 1000}
+        Object rawValue = ctxt.readValue(p, Map.class).get("rawValue");
+        if (rawValue instanceof Number) {
+          return factory.apply(normalize((Number) rawValue));
+        }
+        return ctxt.reportInputMismatch(this, "Missing numeric 'rawValue' for %s", type);
+      }
+
+      return type.cast(ctxt.handleUnexpectedToken(type, p));
+    }
+  }
+
+  // Match the long/double values our coercings produce so wrappers compare equal
+  private static Number normalize(Number number) {
+    if (number instanceof Integer || number instanceof Short || number instanceof Byte) {
+      return number.longValue();
+    } else if (number instanceof Float) {
+      return number.doubleValue();
+    }
+    return number;
+  }
+
+  private static class DateTimeDeserializer extends StdDeserializer<DateTime> {
+    DateTimeDeserializer() {
+      super(DateTime.class);
+    }
+
+    @Override
+    public DateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      JsonToken token = p.currentToken();
+      if (token == JsonToken.VALUE_EMBEDDED_OBJECT) {
+        Object embedded = p.getEmbeddedObject();
+        if (embedded instanceof DateTime) {
+          return (DateTime) embedded;
+        } else if (embedded instanceof ZonedDateTime) {
+          return new DateTime((ZonedDateTime) embedded);
+        }
+      } else if (token == JsonToken.VALUE_STRING) {
+        return new DateTime(ZonedDateTime.parse(p.getText()));
+      } else if (token == JsonToken.START_OBJECT) {
+        // Bean form written before this module existed, i.e. {"dateTime": "..."}
+        Object dateTime = ctxt.readValue(p, Map.class).get("dateTime");
+        if (dateTime instanceof String) {
+          return new DateTime(ZonedDateTime.parse((String) dateTime));
+        }
+        return ctxt.reportInputMismatch(this, "Missing 'dateTime' for %s", DateTime.class);
+      }
+
+      return (DateTime) ctxt.handleUnexpectedToken(DateTime.class, p);
+    }
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema;
+
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLAppliedDirectiveArgument;
+import graphql.schema.GraphQLDirectiveContainer;
+import graphql.schema.GraphQLNamedSchemaElement;
+import graphql.schema.transform.VisibleFieldPredicate;
+import graphql.schema.transform.VisibleFieldPredicateEnvironment;
+import java.util.Collection;
+
+/** Shows fields without the directive, and fields whose directive lists the role. */
+class DirectiveVisibility implements VisibleFieldPredicate {
+  private final String directive;
+  private final String argument;
+  private final String role;
+
+  DirectiveVisibility(String directive, String argument, String role) {
+    this.directive = directive;
+    this.argument = argument;
+    this.role = role;
+  }
+
+  @Override
+  public boolean isVisible(VisibleFieldPredicateEnvironment environment) {
+    GraphQLNamedSchemaElement element = environment.getSchemaElement();
+    if (!(element instanceof GraphQLDirectiveContainer)) {
+      return true;
+    }
+
+    GraphQLAppliedDirective applied =
+        ((GraphQLDirectiveContainer) element).getAppliedDirective(directive);
+    if (applied == null) {
+      return true;
+    }
+
+    GraphQLAppliedDirectiveArgument roles = applied.getArgument(argument);
+    Object value = roles == null ? null : roles.getValue();
+    if (value instanceof Collection) {
+      return ((Collection<?>) value).contains(role);
+    }
+    return role.equals(value);
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema;
+
+import com.newrelic.graphql.execution.ThreadAllocations;
+import com.newrelic.graphql.schema.fetchers.PropertyAccessorReport;
+import java.time.Duration;
+import java.util.EnumMap;
+
+/**
+ * Timings and counts from building a GraphQL execution instance with {@code SimpleGraphQLBuilder}.
+ *
+ * <p>Each phase records its wall time and, when the JVM supports per-thread allocation tracking,
+ * the bytes allocated by the building thread. Phases that didn't run report zero.
+ */
+public class SchemaBuildReport {
+  /** Steps taken while building, in the order they run. */
+  public enum Phase {
+    PARSE,
+    DATA_FETCHERS,
+    SCALARS,
+    TYPE_RESOLVERS,
+    PROPERTY_FETCHERS,
+    CONFIGURATOR,
+    SCHEMA_GENERATION
+  }
+
+  private final EnumMap<Phase, Long> durations = new EnumMap<>(Phase.class);
+  private final EnumMap<Phase, Long> allocations = new EnumMap<>(Phase.class);
+  private int typeCount;
+  private int fieldCount;
+  private int fetcherCount;
+  private int scalarCount;
+  private int typeResolverCount;
+  private PropertyAccessorReport propertyAccessorReport;
+
+  /**
+   * @param phase Build phase
+   * @return Wall time spent in the phase
+   */
+  public Duration getDuration(Phase phase) {
+    return Duration.ofNanos(durations.getOrDefault(phase, 0L));
+  }
+
+  /** @return Wall time spent across all phases */
+  public Duration getTotalDuration() {
+    return Duration.ofNanos(durations.values().stream().mapToLong(Long::longValue).sum());
+  }
+
+  /**
+   * @param phase Build phase
+   * @return Bytes allocated by the building thread during the phase, or -1 if the JVM doesn't
+   *     support allocation tracking
+   */
+  public long getAllocatedBytes(Phase phase) {
+    if (!ThreadAllocations.isSupported()) {
+      return -1;
+    }
+    return allocations.getOrDefault(phase, 0L);
+  }
+
+  /** @return Number of types in the schema, excluding introspection types */
+  public int getTypeCount() {
+    return typeCount;
+  }
+
+  /** @return Number of fields on object, interface and input types in the schema */
+  public int getFieldCount() {
+    return fieldCount;
+  }
+
+  /** @return Number of data fetchers wired up, including generated property fetchers */
+  public int getFetcherCount() {
+    return fetcherCount;
+  }
+
+  /** @return Number of non built-in scalars wired up */
+  public int getScalarCount() {
+    return scalarCount;
+  }
+
+  /** @return Number of type resolvers wired up for interfaces and unions */
+  public int getTypeResolverCount() {
+    return typeResolverCount;
+  }
+
+  /** @return Property accessor validation, or null if generated property fetchers are disabled */
+  public PropertyAccessorReport getPropertyAccessorReport() {
+    return propertyAccessorReport;
+  }
+
+  Timer start(Phase phase) {
+    return new Timer(phase);
+  }
+
+  void setCounts(
+      int typeCount, int fieldCount, int fetcherCount, int scalarCount, int typeResolverCount) {
+    this.typeCount = typeCount;
+    this.fieldCount = fieldCount;
+    this.fetcherCount = fetcherCount;
+    this.scalarCount = scalarCount;
+    this.typeResolverCount = typeResolverCount;
+  }
+
+  void setPropertyAccessorReport(PropertyAccessorReport propertyAccessorReport) {
+    this.propertyAccessorReport = propertyAccessorReport;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder phases = new StringBuilder();
+    for (Phase phase : Phase.values()) {
+      if (phases.length() > 0) {
+        phases.append(", ");
+      }
+      phases.append(phase).append('=').append(getDuration(phase).toMillis()).append("ms");
+      if (ThreadAllocations.isSupported()) {
+        phases.append('/').append(getAllocatedBytes(phase)).append('B');
+      }
+    }
+
+    return "SchemaBuildReport{"
+        + "total="
+        + getTotalDuration().toMillis()
+        + "ms, phases=["
+        + phases
+        + "], typeCount="
+        + typeCount
+        + ", fieldCount="
+        + fieldCount
+        + ", fetcherCount="
+        + fetcherCount
+        + ", scalarCount="
+        + scalarCount
+        + ", typeResolverCount="
+        + typeResolverCount
+        + '}';
+  }
+
+  /** Measures a single phase on the building thread. */
+  class Timer {
+    private final Phase phase;
+    private final long startNanos;
+    private final long startBytes;
+
+    private Timer(Phase phase) {
+      this.phase = phase;
+      this.startBytes = ThreadAllocations.current();
+      this.startNanos = System.nanoTime();
+    }
+
+    void stop() {
+      long elapsed = System.nanoTime() - startNanos;
+      durations.merge(phase, elapsed, Long::sum);
+      allocations.merge(phase, ThreadAllocations.current() - startBytes, Long::sum);
+    }
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema;
+
+import graphql.GraphQL;
+
+/** In-flight GraphQL builder along with the report on how building the schema went. */
+public class SchemaBuildResult {
+  private final GraphQL.Builder builder;
+  private final SchemaBuildReport report;
+
+  /**
+   * @param builder Intermediate builder object to allow additional configuration
+   * @param report Timings and counts from building the schema
+   */
+  public SchemaBuildResult(GraphQL.Builder builder, SchemaBuildReport report) {
+    this.builder = builder;
+    this.report = report;
+  }
+
+  /** @return Intermediate builder object to allow additional configuration */
+  public GraphQL.Builder getBuilder() {
+    return builder;
+  }
+
+  /** @return Timings and counts from building the schema */
+  public SchemaBuildReport getReport() {
+    return report;
+  }
+}
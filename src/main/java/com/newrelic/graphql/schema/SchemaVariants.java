@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema;
+
+import graphql.GraphQL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * GraphQL execution instances for a full schema and its pruned variants, built once by {@code
+ * SimpleGraphQLBuilder.buildVariants} and selected per request by role.
+ *
+ * <pre>
+ *   SchemaVariants variants = new SimpleGraphQLBuilder(schemaReader)
+ *       .variantsByDirective("visibleTo", "roles", "free", "enterprise")
+ *       .buildVariants();
+ *   ExecutionResult result = variants.forRole(customer.getTier()).execute(input);
+ * </pre>
+ *
+ * <p>Each variant validates documents against its own pruned schema, so preparsed documents must
+ * not be shared across variants. Configure a provider per variant through {@code
+ * SimpleGraphQLBuilder.buildVariants(BiConsumer)} rather than transforming the built instances to
+ * share one.
+ */
+public final class SchemaVariants {
+  private final GraphQL full;
+  private final Map<String, GraphQL> variants;
+
+  SchemaVariants(GraphQL full, Map<String, GraphQL> variants) {
+    this.full = full;
+    this.variants = new HashMap<>(variants);
+  }
+
+  /**
+   * @param role Role the variant was declared for
+   * @return GraphQL execution instance seeing only the role's visible fields
+   * @throws IllegalArgumentException when no variant was declared for the role
+   */
+  public GraphQL forRole(String role) {
+    GraphQL graphQL = variants.get(role);
+    if (graphQL == null) {
+      throw new IllegalArgumentException("No schema variant for role '" + role + "'");
+    }
+    return graphQL;
+  }
+
+  /** @return GraphQL execution instance for the unpruned schema */
+  public GraphQL getFull() {
+    return full;
+  }
+
+  /** @return Roles with a declared variant */
+  public Set<String> getRoles() {
+    return Collections.unmodifiableSet(variants.keySet());
+  }
+}
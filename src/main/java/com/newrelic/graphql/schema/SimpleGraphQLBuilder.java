@@ -4,30 +4,59 @@
  */
 package com.newrelic.graphql.schema;
 
+import com.newrelic.graphql.columnar.ColumnarExecutionStrategy;
+import com.newrelic.graphql.constraints.ConstraintDirectives;
+import com.newrelic.graphql.execution.ArgumentValueCache;
+import com.newrelic.graphql.execution.DeadlineInstrumentation;
+import com.newrelic.graphql.execution.FetcherTimeouts;
+import com.newrelic.graphql.execution.OperationPlanCache;
+import com.newrelic.graphql.execution.PrecompiledExecutionStrategy;
+import com.newrelic.graphql.execution.TimeoutDataFetcher;
+import com.newrelic.graphql.instrumentation.SelectiveChainedInstrumentation;
+import com.newrelic.graphql.schema.SchemaBuildReport.Phase;
+import com.newrelic.graphql.schema.fetchers.PropertyAccessorFetcher;
+import com.newrelic.graphql.schema.fetchers.PropertyAccessorReport;
 import com.newrelic.graphql.schema.scalars.PredefinedScalars;
+import com.newrelic.graphql.signature.OperationSignatureCache;
+import com.newrelic.graphql.signature.OperationSignatureInstrumentation;
+import com.newrelic.graphql.tracing.TracingInstrumentation;
 import graphql.GraphQL;
 import graphql.Scalars;
 import graphql.execution.AsyncExecutionStrategy;
 import graphql.execution.AsyncSerialExecutionStrategy;
 import graphql.execution.DataFetcherExceptionHandler;
+import graphql.execution.ExecutionStrategy;
 import graphql.execution.SimpleDataFetcherExceptionHandler;
-import graphql.execution.instrumentation.ChainedInstrumentation;
 import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
+import graphql.language.FieldDefinition;
 import graphql.language.InterfaceTypeDefinition;
+import graphql.language.ObjectTypeDefinition;
 import graphql.language.TypeDefinition;
 import graphql.language.UnionTypeDefinition;
 import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLInputObjectType;
+import graphql.schema.GraphQLNamedType;
 import graphql.schema.GraphQLScalarType;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.TypeResolver;
+import graphql.schema.idl.EnumValuesProvider;
+import graphql.schema.idl.NaturalEnumValuesProvider;
 import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.SchemaGenerator;
 import graphql.schema.idl.SchemaParser;
 import graphql.schema.idl.TypeDefinitionRegistry;
+import graphql.schema.transform.FieldVisibilitySchemaTransformation;
+import graphql.schema.transform.VisibleFieldPredicate;
 import java.io.Reader;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * This builder provides a simple fluent interface for wiring up your schema for runtime execution.
@@ -62,9 +91,21 @@ public class SimpleGraphQLBuilder {
   private HashMap<String, DataFetcher> fetchers;
   private HashMap<String, GraphQLScalarType> scalars;
   private HashMap<String, TypeResolver> typeResolvers;
+  private HashMap<String, EnumValuesProvider> enumValues;
   private IConfigureSimpleGraphQLBuilder configurator;
   private List<Instrumentation> instrumentations;
   private boolean usePredefinedScalars;
+  private boolean useGeneratedPropertyFetchers;
+  private HashMap<String, Class<?>> resultClasses;
+  private Consumer<PropertyAccessorReport> propertyAccessorReportListener;
+  private FetcherTimeouts timeouts;
+  private OperationPlanCache operationPlans;
+  private ArgumentValueCache argumentValues;
+  private boolean useColumnarLists;
+  private boolean useConstraintDirectives;
+  private TracingInstrumentation tracing;
+  private OperationSignatureCache operationSignatures;
+  private LinkedHashMap<String, VisibleFieldPredicate> variants;
 
   /** @param schema Reader containing your GraphQL SDL definition */
   public SimpleGraphQLBuilder(Reader schema) {
@@ -74,7 +115,10 @@ public class SimpleGraphQLBuilder {
     this.fetchers = new HashMap<>();
     this.scalars = new HashMap<>();
     this.typeResolvers = new HashMap<>();
+    this.enumValues = new HashMap<>();
     this.usePredefinedScalars = true;
+    this.resultClasses = new HashMap<>();
+    this.variants = new LinkedHashMap<>();
   }
 
   /**
@@ -86,32 +130,168 @@ public class SimpleGraphQLBuilder {
 
   /** @return Returns intermediate builder object to allow additional configuration. */
   public GraphQL.Builder builder() {
+    return builderWithReport().getBuilder();
+  }
+
+  /**
+   * @return Returns intermediate builder object to allow additional configuration, along with the
+   *     time spent in each phase of building the schema and counts of what was wired up.
+   */
+  public SchemaBuildResult builderWithReport() {
+    SchemaBuildReport buildReport = new SchemaBuildReport();
+    GraphQLSchema schema = buildSchema(buildReport);
+    return new SchemaBuildResult(newGraphQL(schema, newInstrumentation()), buildReport);
+  }
+
+  private GraphQLSchema buildSchema(SchemaBuildReport buildReport) {
+    SchemaBuildReport.Timer timer = buildReport.start(Phase.PARSE);
     TypeDefinitionRegistry typeRegistry = schemaParser.parse(schemaReader);
+    if (useConstraintDirectives) {
+      ConstraintDirectives.addDefinitions(typeRegistry);
+    }
+    timer.stop();
 
     RuntimeWiring.Builder runtimeWiringBuilder = RuntimeWiring.newRuntimeWiring();
-    wireUpDataFetchers(runtimeWiringBuilder, fetchers);
+    timer = buildReport.start(Phase.DATA_FETCHERS);
+    wireUpDataFetchers(runtimeWiringBuilder, withTimeouts(fetchers, timeouts));
+    timer.stop();
+
+    timer = buildReport.start(Phase.SCALARS);
     wireUpScalars(runtimeWiringBuilder, scalars, typeRegistry);
+    // Enums are the other leaf types, so they're timed along with scalars
+    enumValues.forEach(
+        (name, values) -> runtimeWiringBuilder.type(name, t -> t.enumValues(values)));
+    timer.stop();
+
+    timer = buildReport.start(Phase.TYPE_RESOLVERS);
     wireUpTypeResolvers(runtimeWiringBuilder, typeResolvers, typeRegistry);
+    timer.stop();
+
+    if (useGeneratedPropertyFetchers) {
+      timer = buildReport.start(Phase.PROPERTY_FETCHERS);
+      PropertyAccessorReport report =
+          wireUpPropertyFetchers(runtimeWiringBuilder, fetchers, resultClasses, typeRegistry);
+      timer.stop();
+
+      buildReport.setPropertyAccessorReport(report);
+      if (propertyAccessorReportListener != null) {
+        propertyAccessorReportListener.accept(report);
+      }
+    }
 
     if (configurator != null) {
+      timer = buildReport.start(Phase.CONFIGURATOR);
       configurator.configure(typeRegistry, runtimeWiringBuilder);
+      timer.stop();
     }
 
+    timer = buildReport.start(Phase.SCHEMA_GENERATION);
+    RuntimeWiring runtimeWiring = runtimeWiringBuilder.build();
     SchemaGenerator schemaGenerator = new SchemaGenerator();
     SchemaGenerator.Options options = SchemaGenerator.Options.defaultOptions();
     GraphQLSchema schema =
-        schemaGenerator.makeExecutableSchema(options, typeRegistry, runtimeWiringBuilder.build());
+        schemaGenerator.makeExecutableSchema(options, typeRegistry, runtimeWiring);
+    if (useConstraintDirectives) {
+      schema = ConstraintDirectives.apply(schema);
+    }
+    timer.stop();
+
+    countWiring(buildReport, runtimeWiring, schema);
+    return schema;
+  }
 
+  /**
+   * Builds the schema once, then a pruned copy of it for each declared variant. Variants share the
+   * data fetchers, type resolvers, caches and instrumentations of the full schema, and keep the
+   * type objects of any type they don't prune.
+   *
+   * @return GraphQL execution instances for the full schema and each declared variant
+   * @throws IllegalArgumentException when no variants were declared
+   */
+  public SchemaVariants buildVariants() {
+    return buildVariants((role, builder) -> {});
+  }
+
+  /**
+   * Builds the schema and its variants like {@link #buildVariants()}, letting each variant's {@code
+   * GraphQL.Builder} be configured before it's built, i.e. to give it a {@code
+   * PreparsedDocumentProvider} so document-keyed caches like {@code operationPlans} can hit.
+   *
+   * <p>Preparsed documents must not be shared across variants. A document is only validated when
+   * it's first parsed, so a provider shared between variants would serve a document validated
+   * against one role's schema to another role, bypassing its pruning. Give each variant its own
+   * provider, or key a shared one by role as well as query.
+   *
+   * @param configure Called with each variant's role and builder, and with a null role for the full
+   *     schema's builder
+   * @return GraphQL execution instances for the full schema and each declared variant
+   * @throws IllegalArgumentException when no variants were declared
+   */
+  public SchemaVariants buildVariants(BiConsumer<String, GraphQL.Builder> configure) {
+    if (variants.isEmpty()) {
+      throw new IllegalArgumentException("No schema variants were declared");
+    }
+
+    GraphQLSchema schema = buildSchema(new SchemaBuildReport());
+    Instrumentation instrumentation = newInstrumentation();
+    Map<String, GraphQL> graphQLs = new HashMap<>();
+    variants.forEach(
+        (role, predicate) -> {
+          GraphQLSchema visible = new FieldVisibilitySchemaTransformation(predicate).apply(schema);
+          GraphQL.Builder builder = newGraphQL(visible, instrumentation);
+          configure.accept(role, builder);
+          graphQLs.put(role, builder.build());
+        });
+    GraphQL.Builder full = newGraphQL(schema, instrumentation);
+    configure.accept(null, full);
+    return new SchemaVariants(full.build(), graphQLs);
+  }
+
+  private GraphQL.Builder newGraphQL(GraphQLSchema schema, Instrumentation instrumentation) {
+    ExecutionStrategy queryStrategy;
+    if (useColumnarLists) {
+      queryStrategy =
+          new ColumnarExecutionStrategy(exceptionHandler, operationPlans, argumentValues);
+    } else if (operationPlans != null || argumentValues != null) {
+      queryStrategy =
+          new PrecompiledExecutionStrategy(exceptionHandler, operationPlans, argumentValues);
+    } else {
+      queryStrategy = new AsyncExecutionStrategy(exceptionHandler);
+    }
     GraphQL.Builder graphQL =
         GraphQL.newGraphQL(schema)
-            .queryExecutionStrategy(new AsyncExecutionStrategy(exceptionHandler))
+            .queryExecutionStrategy(queryStrategy)
             .mutationExecutionStrategy(new AsyncSerialExecutionStrategy(exceptionHandler));
+    if (instrumentation != null) {
+      graphQL.instrumentation(instrumentation).doNotAddDefaultInstrumentations();
+    }
+    return graphQL;
+  }
 
-    if (instrumentations != null && !instrumentations.isEmpty()) {
-      graphQL.instrumentation(new ChainedInstrumentation(instrumentations));
+  private Instrumentation newInstrumentation() {
+    List<Instrumentation> chain = new ArrayList<>();
+    if (operationSignatures != null) {
+      chain.add(new OperationSignatureInstrumentation(operationSignatures));
+    }
+    if (timeouts != null) {
+      chain.add(new DeadlineInstrumentation(timeouts));
+    }
+    if (tracing != null) {
+      chain.add(tracing);
+    }
+    if (instrumentations != null) {
+      chain.addAll(instrumentations);
     }
 
-    return graphQL;
+    if (chain.isEmpty()) {
+      return null;
+    }
+
+    // Added last, like graphql-java does for its own chains, unless one was supplied
+    if (chain.stream().noneMatch(DataLoaderDispatcherInstrumentation.class::isInstance)) {
+      chain.add(new DataLoaderDispatcherInstrumentation());
+    }
+    return new SelectiveChainedInstrumentation(chain);
   }
 
   /**
@@ -173,6 +353,21 @@ public class SimpleGraphQLBuilder {
     return this;
   }
 
+  /**
+   * Backs a GraphQL enum with the Java enum constants of the same names, so arguments reach data
+   * fetchers and {@code GraphQLInputMapper} as the constants rather than strings, and fetchers can
+   * return the constants directly.
+   *
+   * @param name Enum type name
+   * @param type Java enum with a constant for each of the GraphQL enum's values
+   * @param <E> Java enum type
+   * @return Fluent builder instance
+   */
+  public <E extends Enum<E>> SimpleGraphQLBuilder enumType(String name, Class<E> type) {
+    this.enumValues.put(name, new NaturalEnumValuesProvider<>(type));
+    return this;
+  }
+
   /**
    * @param exceptionHandler Exception handler to pass to the GraphQL execution strategy
    * @return Fluent builder instance
@@ -192,6 +387,161 @@ public class SimpleGraphQLBuilder {
     return this;
   }
 
+  /**
+   * Replaces {@code graphql-java}'s reflective {@code PropertyDataFetcher} with fetchers that bind
+   * getters once per result class. Every object type field without an explicit fetcher gets one.
+   *
+   * @param useGeneratedPropertyFetchers Controls whether generated property fetchers are installed
+   *     as the default for fields without an explicit fetcher.
+   * @return Fluent builder instance
+   */
+  public SimpleGraphQLBuilder useGeneratedPropertyFetchers(boolean useGeneratedPropertyFetchers) {
+    this.useGeneratedPropertyFetchers = useGeneratedPropertyFetchers;
+    return this;
+  }
+
+  /**
+   * Registers the Java class returned for a GraphQL object type. With generated property fetchers
+   * enabled, accessors for the class are resolved and validated against the schema at build time.
+   *
+   * @param typeName GraphQL object type name
+   * @param resultClass Java class that fetchers return for the type
+   * @return Fluent builder instance
+   */
+  public SimpleGraphQLBuilder resultClass(String typeName, Class<?> resultClass) {
+    this.resultClasses.put(typeName, resultClass);
+    return this;
+  }
+
+  /**
+   * @param incoming Map from GraphQL object type name to the Java class fetchers return for it
+   * @return Fluent builder instance
+   */
+  public SimpleGraphQLBuilder resultClasses(Map<String, Class<?>> incoming) {
+    this.resultClasses.putAll(incoming);
+    return this;
+  }
+
+  /**
+   * @param listener Callback receiving the schema-vs-class validation report for generated property
+   *     fetchers each time the GraphQL execution instance is built.
+   * @return Fluent builder instance
+   */
+  public SimpleGraphQLBuilder propertyAccessorReport(Consumer<PropertyAccessorReport> listener) {
+    this.propertyAccessorReportListener = listener;
+    return this;
+  }
+
+  /**
+   * @param timeouts Operation and field timeouts to enforce on the fetchers registered with this
+   *     builder. Timed out fields resolve to null with an error, leaving the rest of the result.
+   * @return Fluent builder instance
+   */
+  public SimpleGraphQLBuilder timeouts(FetcherTimeouts timeouts) {
+    this.timeouts = timeouts;
+    return this;
+  }
+
+  /**
+   * @param tracing Tracing to record and export spans of sampled operations with, installed ahead
+   *     of other instrumentations
+   * @return Fluent builder instance
+   */
+  public SimpleGraphQLBuilder tracing(TracingInstrumentation tracing) {
+    this.tracing = tracing;
+    return this;
+  }
+
+  /**
+   * @param operationSignatures Cache of normalized operation signatures. Each operation's signature
+   *     is attached to its {@code GraphQLContext} before execution, ahead of other
+   *     instrumentations. Signatures are only reused when documents are, i.e. via a {@code
+   *     PreparsedDocumentProvider} on the {@code GraphQL.Builder}.
+   * @return Fluent builder instance
+   */
+  public SimpleGraphQLBuilder operationSignatures(OperationSignatureCache operationSignatures) {
+    this.operationSignatures = operationSignatures;
+    return this;
+  }
+
+  /**
+   * @param operationPlans Cache for reusing the fields collected for each selection across
+   *     executions. Only effective when documents are reused, i.e. via a {@code
+   *     PreparsedDocumentProvider} on the {@code GraphQL.Builder}.
+   * @return Fluent builder instance
+   */
+  public SimpleGraphQLBuilder operationPlans(OperationPlanCache operationPlans) {
+    this.operationPlans = operationPlans;
+    return this;
+  }
+
+  /**
+   * @param argumentValues Cache for reusing coerced values of fields whose arguments are all
+   *     literals. Only effective when documents are reused, i.e. via a {@code
+   *     PreparsedDocumentProvider} on the {@code GraphQL.Builder}.
+   * @return Fluent builder instance
+   */
+  public SimpleGraphQLBuilder argumentValues(ArgumentValueCache argumentValues) {
+    this.argumentValues = argumentValues;
+    return this;
+  }
+
+  /**
+   * Declares a variant of the schema for {@code buildVariants}, without the fields and input fields
+   * the predicate hides. Types left unreachable once those are pruned are removed as well, so
+   * validation and introspection against the variant only see its visible surface.
+   *
+   * @param role Name to select the variant by
+   * @param visibility Predicate deciding whether each field and input field is visible in the
+   *     variant
+   * @return Fluent builder instance
+   */
+  public SimpleGraphQLBuilder variant(String role, VisibleFieldPredicate visibility) {
+    this.variants.put(role, visibility);
+    return this;
+  }
+
+  /**
+   * Declares a variant of the schema for each role, where fields and input fields carrying the
+   * directive are only visible to the roles listed in its argument. The directive must be declared
+   * in the SDL, i.e. {@code directive @visibleTo(roles: [String!]!) on FIELD_DEFINITION |
+   * INPUT_FIELD_DEFINITION}.
+   *
+   * @param directive Name of the directive restricting visibility
+   * @param argument Name of the directive's argument listing the roles that can see the field
+   * @param roles Roles to declare a variant for
+   * @return Fluent builder instance
+   */
+  public SimpleGraphQLBuilder variantsByDirective(
+      String directive, String argument, String... roles) {
+    for (String role : roles) {
+      variant(role, new DirectiveVisibility(directive, argument, role));
+    }
+    return this;
+  }
+
+  /**
+   * @param useColumnarLists Whether list fields returning a {@code ColumnarList} are completed in a
+   *     single step rather than row by row. Defaults to false.
+   * @return Fluent builder instance
+   */
+  public SimpleGraphQLBuilder useColumnarLists(boolean useColumnarLists) {
+    this.useColumnarLists = useColumnarLists;
+    return this;
+  }
+
+  /**
+   * @param useConstraintDirectives Whether {@code @range}, {@code @length}, {@code @pattern} and
+   *     {@code @size} on arguments and input fields are compiled into validators run before each
+   *     constrained field's fetcher. The directives are declared automatically unless the SDL
+   *     declares them. Defaults to false.
+   * @return Fluent builder instance
+   */
+  public SimpleGraphQLBuilder useConstraintDirectives(boolean useConstraintDirectives) {
+    this.useConstraintDirectives = useConstraintDirectives;
+    return this;
+  }
+
   /** Interface for providing a custom configuration callback to the SimpleGraphQLBuilder. */
   public interface IConfigureSimpleGraphQLBuilder {
     /**
@@ -231,10 +581,110 @@ public class SimpleGraphQLBuilder {
         });
   }
 
+  private static Map<String, DataFetcher> withTimeouts(
+      Map<String, DataFetcher> fetchers, FetcherTimeouts timeouts) {
+    if (timeouts == null) {
+      return fetchers;
+    }
+
+    Map<String, DataFetcher> wrapped = new HashMap<>();
+    fetchers.forEach(
+        (key, fetcher) -> wrapped.put(key, new TimeoutDataFetcher(fetcher, key, timeouts)));
+    return wrapped;
+  }
+
+  private static void countWiring(
+      SchemaBuildReport buildReport, RuntimeWiring runtimeWiring, GraphQLSchema schema) {
+    int fetcherCount = runtimeWiring.getDataFetchers().values().stream().mapToInt(Map::size).sum();
+    int scalarCount =
+        (int)
+            runtimeWiring.getScalars().keySet().stream()
+                .filter(name -> !PredefinedScalars.isBuiltin(name))
+                .count();
+
+    int typeCount = 0;
+    int fieldCount = 0;
+    for (GraphQLNamedType type : schema.getAllTypesAsList()) {
+      if (type.getName().startsWith("__")) {
+        continue;
+      }
+      typeCount++;
+      if (type instanceof GraphQLFieldsContainer) {
+        fieldCount += ((GraphQLFieldsContainer) type).getFieldDefinitions().size();
+      } else if (type instanceof GraphQLInputObjectType) {
+        fieldCount += ((GraphQLInputObjectType) type).getFieldDefinitions().size();
+      }
+    }
+
+    buildReport.setCounts(
+        typeCount, fieldCount, fetcherCount, scalarCount, runtimeWiring.getTypeResolvers().size());
+  }
+
+  private static PropertyAccessorReport wireUpPropertyFetchers(
+      RuntimeWiring.Builder builder,
+      Map<String, DataFetcher> fetchers,
+      Map<String, Class<?>> resultClasses,
+      TypeDefinitionRegistry typeRegistry) {
+    PropertyAccessorReport report = new PropertyAccessorReport();
+
+    Map<String, List<FieldDefinition>> fieldsByType = new HashMap<>();
+    typeRegistry
+        .getTypes(ObjectTypeDefinition.class)
+        .forEach(
+            type ->
+                fieldsByType
+                    .computeIfAbsent(type.getName(), k -> new ArrayList<>())
+                    .addAll(type.getFieldDefinitions()));
+    typeRegistry
+        .objectTypeExtensions()
+        .forEach(
+            (name, extensions) ->
+                extensions.forEach(
+                    extension ->
+                        fieldsByType
+                            .computeIfAbsent(name, k -> new ArrayList<>())
+                            .addAll(extension.getFieldDefinitions())));
+
+    fieldsByType.forEach(
+        (typeName, fields) -> {
+          Class<?> resultClass = resultClasses.get(typeName);
+          Map<String, DataFetcher> generated = new HashMap<>();
+
+          for (FieldDefinition field : fields) {
+            String fieldName = field.getName();
+            if (fetchers.containsKey(String.format("%s.%s", typeName, fieldName))) {
+              continue;
+            }
+
+            PropertyAccessorFetcher fetcher = new PropertyAccessorFetcher(fieldName);
+            if (resultClass != null && !fetcher.prepare(resultClass)) {
+              report.addMissingProperty(typeName, fieldName, resultClass);
+            }
+            report.addFetcher(resultClass != null);
+            generated.put(fieldName, fetcher);
+          }
+
+          if (!generated.isEmpty()) {
+            builder.type(typeName, t -> t.dataFetchers(generated));
+          }
+        });
+
+    resultClasses.keySet().stream()
+        .filter(typeName -> !fieldsByType.containsKey(typeName))
+        .sorted()
+        .forEach(report::addUnknownType);
+
+    return report;
+  }
+
   private void wireUpScalars(
       RuntimeWiring.Builder builder,
       Map<String, GraphQLScalarType> scalars,
       TypeDefinitionRegistry typeRegistry) {
+    // Read one snapshot so concurrent registrations can't change scalars partway through a build
+    Map<String, GraphQLScalarType> predefined =
+        usePredefinedScalars ? PredefinedScalars.snapshot() : Map.of();
+
     typeRegistry
         .scalars()
         .forEach(
@@ -244,8 +694,8 @@ public class SimpleGraphQLBuilder {
                 GraphQLScalarType scalarType = scalars.get(name);
 
                 // Predefined scalar from our library
-                if (scalarType == null && usePredefinedScalars) {
-                  scalarType = PredefinedScalars.get(name);
+                if (scalarType == null) {
+                  scalarType = predefined.get(name);
                 }
 
                 // Fall back to default scalar definition
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema.fetchers;
+
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.LightDataFetcher;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Replacement for {@code graphql-java}'s reflective {@code PropertyDataFetcher}.
+ *
+ * <p>Accessors are resolved once per result class and cached, so steady state fetching is a class
+ * lookup plus a direct getter call. Accessors for known result classes can be resolved up front via
+ * {@code prepare} so mismatches between schema and classes surface when the schema is built.
+ */
+public class PropertyAccessorFetcher implements LightDataFetcher<Object> {
+  private static final Function<Object, Object> missing = source -> null;
+
+  private final String propertyName;
+  private final ClassValue<Function<Object, Object>> accessors =
+      new ClassValue<Function<Object, Object>>() {
+        @Override
+        protected Function<Object, Object> computeValue(Class<?> type) {
+          Function<Object, Object> accessor = PropertyAccessors.forClass(type, propertyName);
+          return accessor == null ? missing : accessor;
+        }
+      };
+
+  /** @param propertyName Name of the property to read from the source object */
+  public PropertyAccessorFetcher(String propertyName) {
+    this.propertyName = propertyName;
+  }
+
+  /** @return Name of the property this fetcher reads */
+  public String getPropertyName() {
+    return propertyName;
+  }
+
+  /**
+   * Resolves and caches the accessor for a result class ahead of the first fetch.
+   *
+   * @param type Result class that values for this field will be read from
+   * @return Boolean indicating whether the class exposes the property
+   */
+  public boolean prepare(Class<?> type) {
+    return accessors.get(type) != missing;
+  }
+
+  @Override
+  public Object get(
+      GraphQLFieldDefinition fieldDefinition,
+      Object source,
+      Supplier<DataFetchingEnvironment> environmentSupplier) {
+    return fetch(source);
+  }
+
+  @Override
+  public Object get(DataFetchingEnvironment environment) {
+    return fetch(environment.getSource());
+  }
+
+  private Object fetch(Object source) {
+    if (source == null) {
+      return null;
+    }
+    return accessors.get(source.getClass()).apply(source);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema.fetchers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Results of validating registered result classes against the schema when generated property
+ * fetchers are enabled on {@code SimpleGraphQLBuilder}.
+ */
+public class PropertyAccessorReport {
+  private final List<String> missingProperties = new ArrayList<>();
+  private final List<String> unknownTypes = new ArrayList<>();
+  private int fetcherCount;
+  private int preparedCount;
+
+  /**
+   * @param typeName GraphQL type name
+   * @param fieldName GraphQL field name
+   * @param type Result class registered for the GraphQL type
+   */
+  public void addMissingProperty(String typeName, String fieldName, Class<?> type) {
+    missingProperties.add(
+        String.format("%s.%s (no accessor on %s)", typeName, fieldName, type.getName()));
+  }
+
+  /** @param typeName Name of a type with a registered result class but no schema definition */
+  public void addUnknownType(String typeName) {
+    unknownTypes.add(typeName);
+  }
+
+  /** @param prepared Whether the accessor was resolved against a registered result class */
+  public void addFetcher(boolean prepared) {
+    fetcherCount++;
+    if (prepared) {
+      preparedCount++;
+    }
+  }
+
+  /** @return Fields, in the format "Type.field", with no matching accessor on their class */
+  public List<String> getMissingProperties() {
+    return Collections.unmodifiableList(missingProperties);
+  }
+
+  /** @return Types that had a result class registered but don't exist in the schema */
+  public List<String> getUnknownTypes() {
+    return Collections.unmodifiableList(unknownTypes);
+  }
+
+  /** @return Number of generated property fetchers installed */
+  public int getFetcherCount() {
+    return fetcherCount;
+  }
+
+  /** @return Number of generated property fetchers with accessors resolved at build time */
+  public int getPreparedCount() {
+    return preparedCount;
+  }
+
+  /** @return Boolean indicating whether every registered result class matched the schema */
+  public boolean isValid() {
+    return missingProperties.isEmpty() && unknownTypes.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "PropertyAccessorReport{"
+        + "fetcherCount="
+        + fetcherCount
+        + ", preparedCount="
+        + preparedCount
+        + ", missingProperties="
+        + missingProperties
+        + ", unknownTypes="
+        + unknownTypes
+        + '}';
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema.fetchers;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds accessor functions for reading a named property off of a result object.
+ *
+ * <p>Lookup follows the same order as {@code graphql-java}'s {@code PropertyDataFetcher}: {@code
+ * Map} keys, then {@code getX()}/{@code isX()} getters, then record style {@code x()} accessors,
+ * then fields. Public getters are bound through {@code LambdaMetafactory} so the resulting function
+ * costs the same as a direct call; everything else falls back to a {@code MethodHandle}.
+ */
+public final class PropertyAccessors {
+  private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+  private static final MethodType accessorType = MethodType.methodType(Object.class, Object.class);
+
+  private PropertyAccessors() {}
+
+  /**
+   * @param type Class of the result object the property will be read from
+   * @param property Name of the property, usually the GraphQL field name
+   * @return Function reading the property from instances of {@code type}, or null if the class has
+   *     no matching key, getter or field
+   */
+  public static Function<Object, Object> forClass(Class<?> type, String property) {
+    if (Map.class.isAssignableFrom(type)) {
+      return source -> ((Map<?, ?>) source).get(property);
+    }
+
+    Method method = findGetter(type, property);
+    if (method != null) {
+      Function<Object, Object> accessor = fromMethod(method);
+      if (accessor != null) {
+        return accessor;
+      }
+    }
+
+    Field field = findField(type, property);
+    if (field != null) {
+      return fromField(field);
+    }
+
+    return null;
+  }
+
+  private static Method findGetter(Class<?> type, String property) {
+    String capitalized = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+
+    Method method = findMethod(type, "get" + capitalized);
+    if (method == null) {
+      method = findMethod(type, "is" + capitalized);
+      if (method != null
+          && method.getReturnType() != boolean.class
+          && method.getReturnType() != Boolean.class) {
+        method = null;
+      }
+    }
+    if (method == null) {
+      method = findMethod(type, property);
+    }
+    return method;
+  }
+
+  private static Method findMethod(Class<?> type, String name) {
+    // Public methods, including those inherited from interfaces
+    try {
+      Method method = type.getMethod(name);
+      if (isGetter(method)) {
+        return method;
+      }
+    } catch (NoSuchMethodException e) {
+      // Look for non-public declarations below
+    }
+
+    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+      for (Method method : c.getDeclaredMethods()) {
+        if (method.getName().equals(name) && isGetter(method)) {
+          return method;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static boolean isGetter(Method method) {
+    return method.getParameterCount() == 0
+        && !Modifier.isStatic(method.getModifiers())
+        && !method.isBridge()
+        && method.getReturnType() != void.class;
+  }
+
+  private static Field findField(Class<?> type, String property) {
+    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+      try {
+        Field field = c.getDeclaredField(property);
+        if (!Modifier.isStatic(field.getModifiers())) {
+          return field;
+        }
+      } catch (NoSuchFieldException e) {
+        // Keep walking up the hierarchy
+      }
+    }
+    return null;
+  }
+
+  private static Function<Object, Object> fromMethod(Method method) {
+    if (isPublic(method) && isVisible(method.getDeclaringClass())) {
+      try {
+        return lambdaFor(method);
+      } catch (Throwable t) {
+        // Fall back to a plain method handle below
+      }
+    }
+
+    try {
+      if (!isPublic(method)) {
+        method.setAccessible(true);
+      }
+      return fromHandle(lookup.unreflect(method));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static Function<Object, Object> fromField(Field field) {
+    try {
+      if (!Modifier.isPublic(field.getModifiers())
+          || !Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
+        field.setAccessible(true);
+      }
+      return fromHandle(lookup.unreflectGetter(field));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> lambdaFor(Method method) throws Throwable {
+    MethodHandle target = lookup.unreflect(method);
+    CallSite site =
+        LambdaMetafactory.metafactory(
+            lookup,
+            "apply",
+            MethodType.methodType(Function.class),
+            accessorType,
+            target,
+            target.type().wrap());
+    return (Function<Object, Object>) site.getTarget().invokeExact();
+  }
+
+  private static Function<Object, Object> fromHandle(MethodHandle handle) {
+    MethodHandle generic = handle.asType(accessorType);
+    return source -> {
+      try {
+        return (Object) generic.invokeExact(source);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new IllegalStateException(t.getMessage(), t);
+      }
+    };
+  }
+
+  private static boolean isPublic(Method method) {
+    return Modifier.isPublic(method.getModifiers())
+        && Modifier.isPublic(method.getDeclaringClass().getModifiers());
+  }
+
+  // Lambdas are defined alongside this class, so they can only link against classes that our own
+  // class loader can see. Anything loaded elsewhere (i.e. app server child loaders) uses a handle.
+  private static boolean isVisible(Class<?> type) {
+    try {
+      return Class.forName(type.getName(), false, PropertyAccessors.class.getClassLoader()) == type;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+}
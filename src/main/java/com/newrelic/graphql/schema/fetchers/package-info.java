@@ -0,0 +1,6 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+/** Data fetcher implementations wired up by {@code SimpleGraphQLBuilder} */
+package com.newrelic.graphql.schema.fetchers;
@@ -4,15 +4,23 @@
  */
 package com.newrelic.graphql.schema.scalars;
 
+import graphql.schema.CoercingSerializeException;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 
 /**
  * Coercion support for {@code DateTime} custom scalar class.
  *
- * <p>Serializes/deserializes as string representation of a {@code ZonedDateTime} instance.
+ * <p>Serializes/deserializes as string representation of a {@code ZonedDateTime} instance. Fetchers
+ * may also return a {@code ZonedDateTime} or {@code Instant} directly.
  */
 public class DateTimeCoercing extends StringCoercing<DateTime> {
 
+  /** Coerces ISO-8601 strings to and from {@code DateTime} instances. */
+  public DateTimeCoercing() {
+    super(DateTime.class);
+  }
+
   @Override
   protected DateTime parseFromString(String input) {
     return new DateTime(ZonedDateTime.parse(input));
@@ -20,6 +28,18 @@ public class DateTimeCoercing extends StringCoercing<DateTime> {
 
   @Override
   protected String serializeToString(DateTime input) {
-    return input.getDateTime().toString();
+    ZonedDateTime dateTime = input.getDateTime();
+    if (dateTime == null) {
+      throw new CoercingSerializeException("DateTime is missing its value");
+    }
+    return dateTime.toString();
+  }
+
+  @Override
+  protected String serializeRaw(Object input) {
+    if (input instanceof ZonedDateTime || input instanceof Instant) {
+      return input.toString();
+    }
+    return null;
   }
 }
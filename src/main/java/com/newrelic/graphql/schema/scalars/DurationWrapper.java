@@ -15,7 +15,7 @@ import java.util.Objects;
  * @param <T> More specific wrapper class type.
  */
 public class DurationWrapper<T extends DurationWrapper> extends NumberCoercing.NumberWrapper {
-  private Duration duration;
+  private final Duration duration;
 
   /**
    * @param value Incoming number value. Supports int, long and float
@@ -31,6 +31,24 @@ public class DurationWrapper<T extends DurationWrapper> extends NumberCoercing.N
     return duration;
   }
 
+  /**
+   * Serializes raw fetcher results for scalars wrapping a {@code Duration}, so results don't need a
+   * wrapper allocated for each value.
+   *
+   * @param input {@code Duration} or number already in the scalar's units
+   * @param nanosPerUnit Nanoseconds in the scalar's unit, i.e. 1,000,000 for milliseconds
+   * @return Number of units in the duration, or null if the input isn't supported
+   */
+  protected static Number serializeDuration(Object input, long nanosPerUnit) {
+    if (input instanceof Duration) {
+      Duration duration = (Duration) input;
+      return toUnits(duration.getSeconds(), duration.getNano(), nanosPerUnit);
+    } else if (input instanceof Number) {
+      return (Number) input;
+    }
+    return null;
+  }
+
   protected static Duration buildDuration(Number n, int factor) {
     BigDecimal dec = toBigDecimal(n);
     return Duration.ofSeconds(0, dec.scaleByPowerOfTen(factor).longValue());
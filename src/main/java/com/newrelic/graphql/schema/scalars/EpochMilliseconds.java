@@ -22,13 +22,22 @@ public class EpochMilliseconds extends InstantWrapper<EpochMilliseconds> {
     this(rawValueFromProps(props));
   }
 
-  /** @return Coercion instance for converting numbers to EpochMilliseconds */
+  /**
+   * @return Coercion instance for converting numbers to EpochMilliseconds. Fetchers may also return
+   *     {@code Instant}, {@code ZonedDateTime} or raw numbers, which are serialized without a
+   *     wrapper.
+   */
   public static Coercing<EpochMilliseconds, Number> getCoercing() {
     return new NumberCoercing<EpochMilliseconds>() {
       @Override
       protected EpochMilliseconds fromNumber(Number value) {
         return new EpochMilliseconds(value);
       }
+
+      @Override
+      protected Number serializeRaw(Object input) {
+        return serializeInstant(input, 1_000_000L);
+      }
     };
   }
 }
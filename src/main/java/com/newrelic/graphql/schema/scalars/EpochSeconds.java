@@ -22,13 +22,22 @@ public class EpochSeconds extends InstantWrapper<EpochSeconds> {
     this(rawValueFromProps(props));
   }
 
-  /** @return Coercion instance for converting numbers to EpochSeconds */
+  /**
+   * @return Coercion instance for converting numbers to EpochSeconds. Fetchers may also return
+   *     {@code Instant}, {@code ZonedDateTime} or raw numbers, which are serialized without a
+   *     wrapper.
+   */
   public static Coercing<EpochSeconds, Number> getCoercing() {
     return new NumberCoercing<EpochSeconds>() {
       @Override
       protected EpochSeconds fromNumber(Number value) {
         return new EpochSeconds(value);
       }
+
+      @Override
+      protected Number serializeRaw(Object input) {
+        return serializeInstant(input, NANOS_PER_SECOND);
+      }
     };
   }
 }
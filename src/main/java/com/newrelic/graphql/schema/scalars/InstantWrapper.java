@@ -6,6 +6,7 @@ package com.newrelic.graphql.schema.scalars;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.ZonedDateTime;
 import java.util.Objects;
 
 /**
@@ -15,7 +16,7 @@ import java.util.Objects;
  * @param <T> More specific wrapper class type.
  */
 public class InstantWrapper<T extends InstantWrapper> extends NumberCoercing.NumberWrapper {
-  private Instant instant;
+  private final Instant instant;
 
   /**
    * @param value Incoming number value. Supports int, long and float
@@ -31,6 +32,27 @@ public class InstantWrapper<T extends InstantWrapper> extends NumberCoercing.Num
     return Instant.ofEpochSecond(0, dec.scaleByPowerOfTen(factor).longValue());
   }
 
+  /**
+   * Serializes raw fetcher results for scalars wrapping an {@code Instant}, so results don't need a
+   * wrapper allocated for each value.
+   *
+   * @param input {@code Instant}, {@code ZonedDateTime} or number already in the scalar's units
+   * @param nanosPerUnit Nanoseconds in the scalar's unit, i.e. 1,000,000 for milliseconds
+   * @return Number of units since epoch, or null if the input isn't supported
+   */
+  protected static Number serializeInstant(Object input, long nanosPerUnit) {
+    if (input instanceof Instant) {
+      Instant instant = (Instant) input;
+      return toUnits(instant.getEpochSecond(), instant.getNano(), nanosPerUnit);
+    } else if (input instanceof ZonedDateTime) {
+      ZonedDateTime dateTime = (ZonedDateTime) input;
+      return toUnits(dateTime.toEpochSecond(), dateTime.getNano(), nanosPerUnit);
+    } else if (input instanceof Number) {
+      return (Number) input;
+    }
+    return null;
+  }
+
   /** @return Instant instance */
   public Instant getInstant() {
     return instant;
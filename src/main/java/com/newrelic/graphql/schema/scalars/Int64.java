@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema.scalars;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+
+/**
+ * Custom scalar representing a 64-bit integer, responded with as a JSON number. Accepts numbers and
+ * numeric strings as input, since not every client can write integers past 2^53 as numbers.
+ */
+public class Int64 extends NumberCoercing.NumberWrapper {
+
+  /** @param value Integral value */
+  public Int64(long value) {
+    super(value);
+  }
+
+  /** @param value Integral value, checked to fit in a long */
+  public Int64(Number value) {
+    this(toLong(value));
+  }
+
+  // Support for serialization from instances of our own type
+  @JsonCreator
+  private Int64(Map<String, Object> props) {
+    this(rawValueFromProps(props));
+  }
+
+  /** @return Wrapped value */
+  public long longValue() {
+    return getRawValue().longValue();
+  }
+
+  @Override
+  public String toString() {
+    return getRawValue().toString();
+  }
+
+  /**
+   * @return Coercion instance for converting numbers and numeric strings to Int64. Fetchers may
+   *     also return raw integral numbers, which are serialized without a wrapper.
+   */
+  public static Coercing<Int64, Number> getCoercing() {
+    return new NumberCoercing<Int64>() {
+      @Override
+      protected Int64 fromNumber(Number value) {
+        return new Int64(value);
+      }
+
+      @Override
+      protected Number serializeRaw(Object input) {
+        if (input instanceof Long) {
+          return (Long) input;
+        } else if (input instanceof Integer || input instanceof Short || input instanceof Byte) {
+          return ((Number) input).longValue();
+        } else if (input instanceof String) {
+          return parseLong((String) input);
+        }
+        return null;
+      }
+
+      @Override
+      public Int64 parseValue(Object input) {
+        try {
+          return new Int64(toLong(input));
+        } catch (RuntimeException e) {
+          throw new CoercingParseValueException("'" + input + "' is not a 64-bit integer", e);
+        }
+      }
+
+      @Override
+      protected Int64 parseLiteralValue(Object input) {
+        try {
+          if (input instanceof IntValue) {
+            return new Int64(((IntValue) input).getValue().longValueExact());
+          } else if (input instanceof StringValue) {
+            return new Int64(Long.parseLong(((StringValue) input).getValue()));
+          }
+        } catch (RuntimeException e) {
+          throw new CoercingParseLiteralException("'" + input + "' is not a 64-bit integer", e);
+        }
+        throw new CoercingParseLiteralException("'" + input + "' is not a 64-bit integer");
+      }
+    };
+  }
+
+  /**
+   * @param input Integral number or numeric string
+   * @return Value as a long
+   * @throws NumberFormatException when a string isn't an integer
+   * @throws ArithmeticException when the value isn't integral or doesn't fit in a long
+   * @throws IllegalArgumentException when the input is neither a number nor a string
+   */
+  static long toLong(Object input) {
+    if (input instanceof Long
+        || input instanceof Integer
+        || input instanceof Short
+        || input instanceof Byte) {
+      return ((Number) input).longValue();
+    } else if (input instanceof String) {
+      return Long.parseLong((String) input);
+    } else if (input instanceof BigInteger) {
+      return ((BigInteger) input).longValueExact();
+    } else if (input instanceof BigDecimal) {
+      return ((BigDecimal) input).longValueExact();
+    } else if (input instanceof Double || input instanceof Float) {
+      double value = ((Number) input).doubleValue();
+      // Doubles past 2^63 don't convert exactly, and the cast would clamp them
+      if (value != Math.rint(value) || value < -0x1p63 || value >= 0x1p63) {
+        throw new ArithmeticException(value + " is not a 64-bit integer");
+      }
+      return (long) value;
+    } else if (input instanceof NumberCoercing.NumberWrapper) {
+      return toLong(((NumberCoercing.NumberWrapper) input).getRawValue());
+    }
+    throw new IllegalArgumentException(
+        "Expected a number or numeric string but was " + NumberCoercing.typeName(input));
+  }
+
+  private static Long parseLong(String input) {
+    try {
+      return Long.parseLong(input);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
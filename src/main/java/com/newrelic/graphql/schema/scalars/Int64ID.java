@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema.scalars;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import graphql.language.IntValue;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import java.util.Map;
+
+/**
+ * Custom scalar representing a 64-bit integer identifier, responded with as a JSON string so
+ * clients don't lose precision past 2^53. Accepts numeric strings and numbers as input, and
+ * fetchers get the parsed {@code long} rather than a string to parse again.
+ */
+public class Int64ID extends NumberCoercing.NumberWrapper {
+
+  /** @param value Identifier */
+  public Int64ID(long value) {
+    super(value);
+  }
+
+  /** @param value Identifier, checked to be integral and fit in a long */
+  public Int64ID(Number value) {
+    this(Int64.toLong(value));
+  }
+
+  // Support for serialization from instances of our own type
+  @JsonCreator
+  private Int64ID(Map<String, Object> props) {
+    this(rawValueFromProps(props));
+  }
+
+  /** @return Identifier */
+  public long longValue() {
+    return getRawValue().longValue();
+  }
+
+  @Override
+  public String toString() {
+    return getRawValue().toString();
+  }
+
+  /**
+   * @return Coercion instance for converting numeric strings and numbers to Int64ID. Fetchers may
+   *     also return raw integral numbers or numeric strings, which are serialized without a
+   *     wrapper.
+   */
+  public static Coercing<Int64ID, String> getCoercing() {
+    return new StringCoercing<Int64ID>(Int64ID.class) {
+      @Override
+      protected Int64ID parseFromString(String input) {
+        return new Int64ID(Long.parseLong(input));
+      }
+
+      @Override
+      protected String serializeToString(Int64ID input) {
+        return Long.toString(input.longValue());
+      }
+
+      @Override
+      protected String serializeRaw(Object input) {
+        if (input instanceof Long
+            || input instanceof Integer
+            || input instanceof Short
+            || input instanceof Byte) {
+          return Long.toString(((Number) input).longValue());
+        } else if (input instanceof String) {
+          try {
+            Long.parseLong((String) input);
+            return (String) input;
+          } catch (NumberFormatException e) {
+            return null;
+          }
+        }
+        return null;
+      }
+
+      @Override
+      public Int64ID parseValue(Object input) {
+        try {
+          return new Int64ID(Int64.toLong(input));
+        } catch (RuntimeException e) {
+          throw new CoercingParseValueException("'" + input + "' is not a 64-bit integer ID", e);
+        }
+      }
+
+      @Override
+      public Int64ID parseLiteral(Object input) {
+        if (input instanceof IntValue) {
+          try {
+            return new Int64ID(((IntValue) input).getValue().longValueExact());
+          } catch (ArithmeticException e) {
+            throw new CoercingParseLiteralException(
+                "'" + input + "' is not a 64-bit integer ID", e);
+          }
+        }
+        return super.parseLiteral(input);
+      }
+    };
+  }
+}
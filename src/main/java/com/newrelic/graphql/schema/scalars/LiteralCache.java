@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema.scalars;
+
+import graphql.language.FloatValue;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of literal values to the scalar wrappers they coerce to.
+ *
+ * <p>Our scalar wrappers are immutable, so repeated literals (i.e. the same timestamp embedded in
+ * many dashboard queries) can share a single instance rather than being coerced over and over. Once
+ * full, an arbitrary entry is evicted for each new literal.
+ *
+ * @param <T> Scalar wrapper type produced by the coercing
+ */
+public final class LiteralCache<T> {
+  private final int maxSize;
+  private final ConcurrentHashMap<Object, T> values;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /** @param maxSize Maximum number of literals to hold on to */
+  public LiteralCache(int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Literal cache size must be positive");
+    }
+    this.maxSize = maxSize;
+    this.values = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @param key Key for the literal, from {@code keyOf}
+   * @return Cached wrapper or null if not present
+   */
+  public T get(Object key) {
+    T value = values.get(key);
+    if (value != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return value;
+  }
+
+  /**
+   * @param key Key for the literal, from {@code keyOf}
+   * @param value Wrapper the literal coerced to
+   */
+  public void put(Object key, T value) {
+    if (values.size() >= maxSize) {
+      Iterator<Object> keys = values.keySet().iterator();
+      if (keys.hasNext()) {
+        values.remove(keys.next());
+      }
+    }
+    values.put(key, value);
+  }
+
+  /** @return Number of lookups that found a cached wrapper */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /** @return Number of lookups that had to coerce the literal */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /** @return Fraction of lookups that found a cached wrapper, or 0 if there were no lookups */
+  public double getHitRate() {
+    long hitCount = hits.sum();
+    long total = hitCount + misses.sum();
+    return total == 0 ? 0.0 : (double) hitCount / total;
+  }
+
+  /** @return Number of literals currently cached */
+  public int size() {
+    return values.size();
+  }
+
+  /** @return Maximum number of literals cached */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /** Removes all cached literals. Hit and miss counts are kept. */
+  public void clear() {
+    values.clear();
+  }
+
+  // The AST nodes already hold their parsed values, so those make allocation free keys. Each kind
+  // of value has a distinct key class, so e.g. "1" and 1 don't collide.
+  static Object keyOf(Object input) {
+    if (input instanceof StringValue) {
+      return ((StringValue) input).getValue();
+    } else if (input instanceof IntValue) {
+      return ((IntValue) input).getValue();
+    } else if (input instanceof FloatValue) {
+      return ((FloatValue) input).getValue();
+    }
+    return null;
+  }
+}
@@ -22,13 +22,21 @@ public class Milliseconds extends DurationWrapper<Milliseconds> {
     super(rawValueFromProps(props), (n) -> buildDuration(rawValueFromProps(props), 6));
   }
 
-  /** @return Coercion instance for converting numbers to Milliseconds */
+  /**
+   * @return Coercion instance for converting numbers to Milliseconds. Fetchers may also return
+   *     {@code Duration} or raw numbers, which are serialized without a wrapper.
+   */
   public static Coercing<Milliseconds, Number> getCoercing() {
     return new NumberCoercing<Milliseconds>() {
       @Override
       protected Milliseconds fromNumber(Number value) {
         return new Milliseconds(value);
       }
+
+      @Override
+      protected Number serializeRaw(Object input) {
+        return serializeDuration(input, 1_000_000L);
+      }
     };
   }
 }
@@ -23,13 +23,21 @@ public class Minutes extends DurationWrapper<Minutes> {
     this(rawValueFromProps(props));
   }
 
-  /** @return Coercion instance for converting numbers to Minutes */
+  /**
+   * @return Coercion instance for converting numbers to Minutes. Fetchers may also return {@code
+   *     Duration} or raw numbers, which are serialized without a wrapper.
+   */
   public static Coercing<Minutes, Number> getCoercing() {
     return new NumberCoercing<Minutes>() {
       @Override
       protected Minutes fromNumber(Number value) {
         return new Minutes(value);
       }
+
+      @Override
+      protected Number serializeRaw(Object input) {
+        return serializeDuration(input, 60 * NANOS_PER_SECOND);
+      }
     };
   }
 }
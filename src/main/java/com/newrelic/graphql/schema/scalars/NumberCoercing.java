@@ -25,20 +25,55 @@ import java.util.Objects;
 public abstract class NumberCoercing<T extends NumberCoercing.NumberWrapper>
     implements Coercing<T, Number> {
 
+  private LiteralCache<T> literalCache;
+
+  /**
+   * Enables caching of literal-to-wrapper conversions in {@code parseLiteral}. Wrappers are
+   * immutable, so repeated literals share a single instance.
+   *
+   * @param maxSize Maximum number of distinct literals to cache
+   * @return This coercing instance
+   */
+  public NumberCoercing<T> cacheLiterals(int maxSize) {
+    this.literalCache = new LiteralCache<>(maxSize);
+    return this;
+  }
+
+  /** @return Literal cache for this coercing, or null if caching isn't enabled */
+  public LiteralCache<T> getLiteralCache() {
+    return literalCache;
+  }
+
   /**
    * Called to convert a Java object result of a DataFetcher to a valid runtime value for the scalar
-   * type.
+   * type. Wrappers are unwrapped, and anything else is handed to {@code serializeRaw} so fetchers
+   * can return raw values without allocating a wrapper per result.
    *
-   * @param input Instance of type NumberWrapper
+   * @param input Instance of type NumberWrapper, or a raw value accepted by {@code serializeRaw}
    * @return Number conversion from wrapper type
    */
   @Override
   public Number serialize(Object input) {
-    try {
+    if (input instanceof NumberWrapper) {
       return ((NumberWrapper) input).value;
-    } catch (Exception e) {
-      throw new CoercingSerializeException(e.getMessage(), e);
     }
+
+    Number raw = serializeRaw(input);
+    if (raw == null) {
+      throw new CoercingSerializeException(
+          "Expected a NumberWrapper or Number but was " + typeName(input));
+    }
+    return raw;
+  }
+
+  /**
+   * Serializes fetcher results that aren't wrappers. By default numbers are passed through as-is.
+   *
+   * @param input Fetcher result that isn't a NumberWrapper, possibly null
+   * @return Number to respond with, or null if the input can't be serialized
+   */
+  protected Number serializeRaw(Object input) {
+    return input instanceof Number ? (Number) input : null;
   }
 
   /**
@@ -54,7 +89,7 @@ public abstract class NumberCoercing<T extends NumberCoercing.NumberWrapper>
       BigDecimal dec = NumberWrapper.toBigDecimal((Number) input);
       return fromBigDecimal(dec);
     }
-    throw new CoercingParseValueException(String.format("'%s' is not a number", input));
+    throw new CoercingParseValueException("'" + input + "' is not a number");
   }
 
   /**
@@ -66,6 +101,29 @@ public abstract class NumberCoercing<T extends NumberCoercing.NumberWrapper>
    */
   @Override
   public T parseLiteral(Object input) {
+    LiteralCache<T> cache = literalCache;
+    Object key = cache == null ? null : LiteralCache.keyOf(input);
+    if (key == null) {
+      return parseLiteralValue(input);
+    }
+
+    T value = cache.get(key);
+    if (value == null) {
+      value = parseLiteralValue(input);
+      if (value != null) {
+        cache.put(key, value);
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Converts a literal that isn't cached. By default string, int and float literals are accepted.
+   *
+   * @param input AST node from query input
+   * @return Number converted to wrapper type
+   */
+  protected T parseLiteralValue(Object input) {
     try {
       if (input instanceof StringValue) {
         String value = ((StringValue) input).getValue();
@@ -80,7 +138,7 @@ public abstract class NumberCoercing<T extends NumberCoercing.NumberWrapper>
     } catch (Exception ex) {
       throw new CoercingParseLiteralException(ex.getMessage());
     }
-    throw new CoercingParseLiteralException(String.format("'%s' is not a number", input));
+    throw new CoercingParseLiteralException("'" + input + "' is not a number");
   }
 
   protected T fromBigDecimal(BigDecimal dec) {
@@ -93,9 +151,15 @@ public abstract class NumberCoercing<T extends NumberCoercing.NumberWrapper>
 
   protected abstract T fromNumber(Number value);
 
+  static String typeName(Object input) {
+    return input == null ? "null" : "'" + input.getClass().getSimpleName() + "'";
+  }
+
   /** Base class for numeric wrapper types. */
   public abstract static class NumberWrapper {
-    private Number value;
+    static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Number value;
 
     /** @param value Incoming numeric value */
     public NumberWrapper(Number value) {
@@ -117,6 +181,35 @@ public abstract class NumberCoercing<T extends NumberCoercing.NumberWrapper>
       return dec;
     }
 
+    // Converts a point or length in time to a count of units, avoiding BigDecimal since this runs
+    // for every serialized result. Whole counts stay integral, partial ones become doubles. Counts
+    // that don't fit in a long fail like Instant.toEpochMilli rather than wrapping around.
+    static Number toUnits(long seconds, int nanos, long nanosPerUnit) {
+      if (nanosPerUnit <= NANOS_PER_SECOND) {
+        long whole;
+        try {
+          whole =
+              Math.addExact(
+                  Math.multiplyExact(seconds, NANOS_PER_SECOND / nanosPerUnit),
+                  nanos / nanosPerUnit);
+        } catch (ArithmeticException e) {
+          throw new CoercingSerializeException(
+              "Time of " + seconds + " seconds overflows a count of units", e);
+        }
+        long remainder = nanos % nanosPerUnit;
+        if (remainder == 0) {
+          return whole;
+        }
+        return whole + (double) remainder / nanosPerUnit;
+      }
+
+      long secondsPerUnit = nanosPerUnit / NANOS_PER_SECOND;
+      if (nanos == 0 && seconds % secondsPerUnit == 0) {
+        return seconds / secondsPerUnit;
+      }
+      return (seconds + (double) nanos / NANOS_PER_SECOND) / secondsPerUnit;
+    }
+
     // Support method for deserialization from instances of our own type
     protected static Number rawValueFromProps(Map<String, Object> props) {
       Number value = (Number) props.get("rawValue");
@@ -8,10 +8,12 @@ import graphql.language.ScalarTypeDefinition;
 import graphql.schema.Coercing;
 import graphql.schema.GraphQLScalarType;
 import graphql.schema.idl.SchemaParser;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * Registration for all of the predefined scalars that ship with this library.
@@ -19,32 +21,48 @@ import java.util.stream.Collectors;
  * <p>By default these are included in GraphQL execution instances built via {@code
  * SimpleGraphQLBuilder}.
  *
- * <p>Use the {@code addScalar} static function during class definition to include additional types.
+ * <p>Use the {@code register} static functions to include additional types. Registration is
+ * thread-safe, so modules can register their scalars during parallel startup. Lookups read an
+ * immutable snapshot of the registry and never block.
  */
 public final class PredefinedScalars {
-  private static final Map<String, GraphQLScalarType> predefinedScalars = new HashMap<>();
+  private static final AtomicReference<Registry> registry =
+      new AtomicReference<>(new Registry(new HashMap<>(), new HashMap<>()));
   private static final Map<String, ScalarTypeDefinition> builtInScalars =
       new SchemaParser().parse("type Query {}").scalars();
 
   public static final GraphQLScalarType EpochMilliseconds =
-      addScalar(
-          "EpochMilliseconds", com.newrelic.graphql.schema.scalars.EpochMilliseconds.getCoercing());
+      register(
+          "EpochMilliseconds", com.newrelic.graphql.schema.scalars.EpochMilliseconds::getCoercing);
   public static final GraphQLScalarType EpochSeconds =
-      addScalar("EpochSeconds", com.newrelic.graphql.schema.scalars.EpochSeconds.getCoercing());
+      register("EpochSeconds", com.newrelic.graphql.schema.scalars.EpochSeconds::getCoercing);
   public static final GraphQLScalarType Milliseconds =
-      addScalar("Milliseconds", com.newrelic.graphql.schema.scalars.Milliseconds.getCoercing());
+      register("Milliseconds", com.newrelic.graphql.schema.scalars.Milliseconds::getCoercing);
   public static final GraphQLScalarType Seconds =
-      addScalar("Seconds", com.newrelic.graphql.schema.scalars.Seconds.getCoercing());
+      register("Seconds", com.newrelic.graphql.schema.scalars.Seconds::getCoercing);
   public static final GraphQLScalarType Minutes =
-      addScalar("Minutes", com.newrelic.graphql.schema.scalars.EpochSeconds.getCoercing());
-  public static final GraphQLScalarType DateTime = addScalar("DateTime", new DateTimeCoercing());
+      register("Minutes", com.newrelic.graphql.schema.scalars.Minutes::getCoercing);
+  public static final GraphQLScalarType DateTime = register("DateTime", DateTimeCoercing::new);
+  public static final GraphQLScalarType Int64 =
+      register("Int64", com.newrelic.graphql.schema.scalars.Int64::getCoercing);
+  public static final GraphQLScalarType Int64ID =
+      register("Int64ID", com.newrelic.graphql.schema.scalars.Int64ID::getCoercing);
 
   /**
    * @return Retrieve list of registered predefined scalars. By default these will be wired up when
-   *     creating a GraphQL execution instance via {@code SimpleGraphQLBuilder}.
+   *     creating a GraphQL execution instance via {@code SimpleGraphQLBuilder}. The list is an
+   *     immutable snapshot and isn't affected by later registrations.
    */
   public static List<GraphQLScalarType> getPredefinedScalars() {
-    return predefinedScalars.values().stream().collect(Collectors.toList());
+    return registry.get().list;
+  }
+
+  /**
+   * @return Immutable snapshot of registered predefined scalars keyed by name. Later registrations
+   *     aren't reflected in the returned map.
+   */
+  public static Map<String, GraphQLScalarType> snapshot() {
+    return registry.get().types;
   }
 
   /**
@@ -52,7 +70,7 @@ public final class PredefinedScalars {
    * @return Scalar type definition instance or null if not found.
    */
   public static GraphQLScalarType get(String name) {
-    return predefinedScalars.getOrDefault(name, null);
+    return registry.get().types.get(name);
   }
 
   /**
@@ -60,7 +78,7 @@ public final class PredefinedScalars {
    * @return Boolean indicating whether the type is registered or not.
    */
   public static boolean isPredefined(String name) {
-    return predefinedScalars.containsKey(name);
+    return registry.get().types.containsKey(name);
   }
 
   /**
@@ -71,14 +89,111 @@ public final class PredefinedScalars {
     return builtInScalars.containsKey(name);
   }
 
+  /**
+   * Registers an additional scalar to be wired up by default. Scalars registered this way can't be
+   * used with {@code withLiteralCache}, since there's no way to build a fresh coercing for them.
+   *
+   * @param type Scalar type definition
+   * @return The registered scalar type definition
+   * @throws IllegalArgumentException if the name is built-in or already registered to another type
+   */
+  public static GraphQLScalarType register(GraphQLScalarType type) {
+    return register(type, null);
+  }
+
+  /**
+   * Registers an additional scalar to be wired up by default.
+   *
+   * @param name Scalar name
+   * @param factory Creates new instances of the scalar's coercing. Called once for the shared
+   *     registered instance, and again by {@code withLiteralCache}.
+   * @return The registered scalar type definition
+   * @throws IllegalArgumentException if the name is built-in or already registered
+   */
+  public static GraphQLScalarType register(String name, Supplier<Coercing> factory) {
+    return register(
+        GraphQLScalarType.newScalar().name(name).coercing(factory.get()).build(), factory);
+  }
+
+  /**
+   * Builds a separate instance of a predefined scalar whose coercing caches literal-to-wrapper
+   * conversions. Register the result with {@code SimpleGraphQLBuilder.scalar} to use it in place of
+   * the shared predefined instance.
+   *
+   * @param name Name of predefined scalar type definition
+   * @param maxSize Maximum number of distinct literals to cache
+   * @return Scalar type definition with literal caching enabled. The cache and its hit counts are
+   *     available from the coercing's {@code getLiteralCache}.
+   * @throws IllegalArgumentException if the name isn't a predefined scalar registered with a
+   *     coercing factory
+   */
+  public static GraphQLScalarType withLiteralCache(String name, int maxSize) {
+    Registry current = registry.get();
+    Supplier<Coercing> factory = current.factories.get(name);
+    if (factory == null) {
+      throw new IllegalArgumentException(
+          String.format("'%s' is not a predefined scalar with a coercing factory", name));
+    }
+
+    Coercing coercing = factory.get();
+    if (coercing instanceof NumberCoercing) {
+      ((NumberCoercing<?>) coercing).cacheLiterals(maxSize);
+    } else if (coercing instanceof StringCoercing) {
+      ((StringCoercing<?>) coercing).cacheLiterals(maxSize);
+    }
+
+    return GraphQLScalarType.newScalar(current.types.get(name)).coercing(coercing).build();
+  }
+
   private PredefinedScalars() {}
 
-  private static GraphQLScalarType addScalar(String name, Coercing coercing) {
-    return addScalar(GraphQLScalarType.newScalar().name(name).coercing(coercing).build());
+  private static GraphQLScalarType register(GraphQLScalarType type, Supplier<Coercing> factory) {
+    String name = type.getName();
+    if (isBuiltin(name)) {
+      throw new IllegalArgumentException(
+          String.format("'%s' is a built-in scalar and can't be registered", name));
+    }
+
+    while (true) {
+      Registry current = registry.get();
+      GraphQLScalarType existing = current.types.get(name);
+      if (existing == type) {
+        return existing;
+      } else if (existing != null) {
+        throw new IllegalArgumentException(
+            String.format("A scalar named '%s' is already registered", name));
+      }
+
+      if (registry.compareAndSet(current, current.with(type, factory))) {
+        return type;
+      }
+    }
   }
 
-  private static GraphQLScalarType addScalar(GraphQLScalarType type) {
-    predefinedScalars.put(type.getName(), type);
-    return type;
+  // Immutable state of the registry. Registration swaps in a modified copy, which is cheap given
+  // how few scalars there are and how rarely they're registered compared to how often they're read.
+  private static final class Registry {
+    private final Map<String, GraphQLScalarType> types;
+    private final Map<String, Supplier<Coercing>> factories;
+    private final List<GraphQLScalarType> list;
+
+    private Registry(
+        Map<String, GraphQLScalarType> types, Map<String, Supplier<Coercing>> factories) {
+      this.types = Collections.unmodifiableMap(types);
+      this.factories = Collections.unmodifiableMap(factories);
+      this.list = List.copyOf(types.values());
+    }
+
+    private Registry with(GraphQLScalarType type, Supplier<Coercing> factory) {
+      Map<String, GraphQLScalarType> newTypes = new HashMap<>(types);
+      newTypes.put(type.getName(), type);
+
+      Map<String, Supplier<Coercing>> newFactories = new HashMap<>(factories);
+      if (factory != null) {
+        newFactories.put(type.getName(), factory);
+      }
+
+      return new Registry(newTypes, newFactories);
+    }
   }
 }
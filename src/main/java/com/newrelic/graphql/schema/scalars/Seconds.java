@@ -22,13 +22,21 @@ public class Seconds extends DurationWrapper<Seconds> {
     this(rawValueFromProps(props));
   }
 
-  /** @return Coercion instance for converting numbers to Seconds */
+  /**
+   * @return Coercion instance for converting numbers to Seconds. Fetchers may also return {@code
+   *     Duration} or raw numbers, which are serialized without a wrapper.
+   */
   public static Coercing<Seconds, Number> getCoercing() {
     return new NumberCoercing<Seconds>() {
       @Override
       protected Seconds fromNumber(Number value) {
         return new Seconds(value);
       }
+
+      @Override
+      protected Number serializeRaw(Object input) {
+        return serializeDuration(input, NANOS_PER_SECOND);
+      }
     };
   }
 }
@@ -13,6 +13,39 @@ import graphql.schema.CoercingSerializeException;
 /** Base class for implementations of {@code Coercing} interface that expect String literals */
 public abstract class StringCoercing<T> implements Coercing<T, String> {
 
+  private final Class<T> type;
+  private LiteralCache<T> literalCache;
+
+  /** Serializes by casting fetcher results to the coerced type. */
+  protected StringCoercing() {
+    this(null);
+  }
+
+  /**
+   * @param type Coerced type, used to check fetcher results before serializing them rather than
+   *     casting and handling the failure
+   */
+  protected StringCoercing(Class<T> type) {
+    this.type = type;
+  }
+
+  /**
+   * Enables caching of literal-to-object conversions in {@code parseLiteral}. Only use this when
+   * the coerced type is immutable, since repeated literals share a single instance.
+   *
+   * @param maxSize Maximum number of distinct literals to cache
+   * @return This coercing instance
+   */
+  public StringCoercing<T> cacheLiterals(int maxSize) {
+    this.literalCache = new LiteralCache<>(maxSize);
+    return this;
+  }
+
+  /** @return Literal cache for this coercing, or null if caching isn't enabled */
+  public LiteralCache<T> getLiteralCache() {
+    return literalCache;
+  }
+
   /**
    * Called during query validation to convert an query input AST node into a Java object acceptable
    * for the scalar type. The input object will be an instance of {@link graphql.language.Value}.
@@ -29,12 +62,28 @@ public abstract class StringCoercing<T> implements Coercing<T, String> {
 
     if (!(input instanceof StringValue)) {
       throw new CoercingParseLiteralException(
-          String.format(
-              "Expected AST type 'StringValue' but was '%s'.", input.getClass().getSimpleName()));
+          "Expected AST type 'StringValue' but was '" + input.getClass().getSimpleName() + "'.");
+    }
+
+    String literal = ((StringValue) input).getValue();
+    LiteralCache<T> cache = literalCache;
+    if (cache == null) {
+      return parseLiteralString(literal);
+    }
+
+    T value = cache.get(literal);
+    if (value == null) {
+      value = parseLiteralString(literal);
+      if (value != null) {
+        cache.put(literal, value);
+      }
     }
+    return value;
+  }
 
+  private T parseLiteralString(String literal) {
     try {
-      return parseFromString(((StringValue) input).getValue());
+      return parseFromString(literal);
     } catch (Exception e) {
       throw new CoercingParseLiteralException(e.getMessage(), e);
     }
@@ -65,13 +114,29 @@ public abstract class StringCoercing<T> implements Coercing<T, String> {
   }
 
   /**
-   * Called to convert a Java object result of a DataFetcher to a String for responding.
+   * Called to convert a Java object result of a DataFetcher to a String for responding. Anything
+   * other than the coerced type is handed to {@code serializeRaw} first.
    *
-   * @param input Instance of wrapped type
+   * @param input Instance of wrapped type, or a raw value accepted by {@code serializeRaw}
    * @return String conversion from wrapper type
    */
   @Override
   public String serialize(Object input) throws CoercingSerializeException {
+    if (type != null && type.isInstance(input)) {
+      return serializeToString(type.cast(input));
+    }
+
+    String raw = serializeRaw(input);
+    if (raw != null) {
+      return raw;
+    }
+
+    if (type != null) {
+      throw new CoercingSerializeException(
+          "Expected a " + type.getSimpleName() + " but was " + NumberCoercing.typeName(input));
+    }
+
+    // Without the type we can only try the cast and see
     try {
       return serializeToString(cast(input));
     } catch (Exception e) {
@@ -79,6 +144,17 @@ public abstract class StringCoercing<T> implements Coercing<T, String> {
     }
   }
 
+  /**
+   * Serializes fetcher results that aren't of the coerced type. By default nothing else is
+   * accepted.
+   *
+   * @param input Fetcher result, possibly null
+   * @return String to respond with, or null if the input can't be serialized
+   */
+  protected String serializeRaw(Object input) {
+    return null;
+  }
+
   @SuppressWarnings("unchecked")
   private <T> T cast(Object rawValue) {
     return (T) rawValue;
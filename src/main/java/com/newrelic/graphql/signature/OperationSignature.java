@@ -0,0 +1,295 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.signature;
+
+import graphql.GraphQLContext;
+import graphql.language.Argument;
+import graphql.language.ArrayValue;
+import graphql.language.AstPrinter;
+import graphql.language.BooleanValue;
+import graphql.language.Directive;
+import graphql.language.Document;
+import graphql.language.EnumValue;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.NullValue;
+import graphql.language.ObjectValue;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.StringValue;
+import graphql.language.Value;
+import graphql.language.VariableDefinition;
+import graphql.language.VariableReference;
+import graphql.schema.DataFetchingEnvironment;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Normalized form of an operation, so requests differing only in formatting, aliases, literal
+ * values or selection order share a signature.
+ *
+ * <p>The signature is the operation and the fragments it uses, printed compactly with aliases
+ * removed, numbers replaced by 0, strings by "", lists by [] and objects by {}, and selections,
+ * arguments, directives and variables sorted. Booleans, enum values, nulls and variables are kept.
+ * The hash is MurmurHash3 of the signature, so it's stable across processes and versions of this
+ * library that produce the same signature.
+ */
+public final class OperationSignature {
+  private final String signature;
+  private final long hashHigh;
+  private final long hashLow;
+
+  private OperationSignature(String signature) {
+    this.signature = signature;
+    long[] hash = Murmur3.hash128(signature.getBytes(StandardCharsets.UTF_8));
+    this.hashHigh = hash[0];
+    this.hashLow = hash[1];
+  }
+
+  /**
+   * @param document Parsed GraphQL document
+   * @param operationName Name of the operation to sign, or null if the document only has one
+   * @return Signature of the operation
+   * @throws IllegalArgumentException when the document has no such operation
+   */
+  public static OperationSignature of(Document document, String operationName) {
+    OperationDefinition operation = null;
+    for (OperationDefinition definition :
+        document.getDefinitionsOfType(OperationDefinition.class)) {
+      if (operationName == null || operationName.equals(definition.getName())) {
+        operation = definition;
+        break;
+      }
+    }
+    if (operation == null) {
+      throw new IllegalArgumentException("No operation named '" + operationName + "'");
+    }
+    return of(document, operation);
+  }
+
+  /**
+   * @param document Parsed GraphQL document
+   * @param operation Operation within the document to sign
+   * @return Signature of the operation
+   */
+  public static OperationSignature of(Document document, OperationDefinition operation) {
+    Map<String, FragmentDefinition> fragments =
+        document.getDefinitionsOfType(FragmentDefinition.class).stream()
+            .collect(Collectors.toMap(FragmentDefinition::getName, f -> f, (a, b) -> a));
+    TreeSet<String> used = new TreeSet<>();
+
+    StringBuilder out = new StringBuilder();
+    out.append(operation.getOperation().name().toLowerCase());
+    if (operation.getName() != null) {
+      out.append(' ').append(operation.getName());
+    }
+    if (!operation.getVariableDefinitions().isEmpty()) {
+      List<VariableDefinition> variables = new ArrayList<>(operation.getVariableDefinitions());
+      variables.sort(Comparator.comparing(VariableDefinition::getName));
+      out.append('(');
+      for (int i = 0; i < variables.size(); i++) {
+        if (i > 0) {
+          out.append(',');
+        }
+        out.append('$')
+            .append(variables.get(i).getName())
+            .append(':')
+            .append(AstPrinter.printAstCompact(variables.get(i).getType()));
+      }
+      out.append(')');
+    }
+    printDirectives(out, operation.getDirectives());
+    printSelectionSet(out, operation.getSelectionSet(), fragments, used);
+
+    // Printing a fragment can add the fragments it uses, so print until none are left
+    TreeMap<String, String> printed = new TreeMap<>();
+    String next;
+    while ((next = firstUnprinted(used, printed)) != null) {
+      FragmentDefinition fragment = fragments.get(next);
+      StringBuilder definition = new StringBuilder();
+      if (fragment != null) {
+        definition
+            .append(" fragment ")
+            .append(fragment.getName())
+            .append(" on ")
+            .append(fragment.getTypeCondition().getName());
+        printDirectives(definition, fragment.getDirectives());
+        printSelectionSet(definition, fragment.getSelectionSet(), fragments, used);
+      }
+      printed.put(next, definition.toString());
+    }
+    printed.values().forEach(out::append);
+
+    return new OperationSignature(out.toString());
+  }
+
+  /**
+   * @param context GraphQL context for the operation
+   * @return Signature of the operation, or null if signatures aren't being computed
+   */
+  public static OperationSignature from(GraphQLContext context) {
+    return context == null ? null : context.get(OperationSignature.class);
+  }
+
+  /**
+   * @param environment Environment passed to a data fetcher
+   * @return Signature of the operation being executed, or null if signatures aren't being computed
+   */
+  public static OperationSignature from(DataFetchingEnvironment environment) {
+    return from(environment.getGraphQlContext());
+  }
+
+  /** @return Normalized operation text */
+  public String getSignature() {
+    return signature;
+  }
+
+  /** @return 64-bit hash of the signature */
+  public long getHash64() {
+    return hashHigh;
+  }
+
+  /** @return 128-bit hash of the signature as 32 hex characters */
+  public String getHash128() {
+    return hex(hashHigh) + hex(hashLow);
+  }
+
+  /** @return 64-bit hash of the signature as 16 hex characters */
+  public String getHashHex() {
+    return hex(hashHigh);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof OperationSignature)) {
+      return false;
+    }
+    return signature.equals(((OperationSignature) o).signature);
+  }
+
+  @Override
+  public int hashCode() {
+    return (int) hashHigh;
+  }
+
+  @Override
+  public String toString() {
+    return "OperationSignature{" + getHashHex() + ", " + signature + '}';
+  }
+
+  private static String firstUnprinted(TreeSet<String> used, Map<String, String> printed) {
+    for (String name : used) {
+      if (!printed.containsKey(name)) {
+        return name;
+      }
+    }
+    return null;
+  }
+
+  private static String hex(long value) {
+    String hex = Long.toHexString(value);
+    return "0000000000000000".substring(hex.length()) + hex;
+  }
+
+  private static void printSelectionSet(
+      StringBuilder out,
+      SelectionSet selectionSet,
+      Map<String, FragmentDefinition> fragments,
+      TreeSet<String> used) {
+    if (selectionSet == null || selectionSet.getSelections().isEmpty()) {
+      return;
+    }
+
+    List<String> selections = new ArrayList<>(selectionSet.getSelections().size());
+    for (Selection<?> selection : selectionSet.getSelections()) {
+      StringBuilder printed = new StringBuilder();
+      if (selection instanceof Field) {
+        Field field = (Field) selection;
+        printed.append(field.getName());
+        printArguments(printed, field.getArguments());
+        printDirectives(printed, field.getDirectives());
+        printSelectionSet(printed, field.getSelectionSet(), fragments, used);
+      } else if (selection instanceof FragmentSpread) {
+        FragmentSpread spread = (FragmentSpread) selection;
+        used.add(spread.getName());
+        printed.append("...").append(spread.getName());
+        printDirectives(printed, spread.getDirectives());
+      } else if (selection instanceof InlineFragment) {
+        InlineFragment fragment = (InlineFragment) selection;
+        printed.append("...");
+        if (fragment.getTypeCondition() != null) {
+          printed.append("on ").append(fragment.getTypeCondition().getName());
+        }
+        printDirectives(printed, fragment.getDirectives());
+        printSelectionSet(printed, fragment.getSelectionSet(), fragments, used);
+      }
+      selections.add(printed.toString());
+    }
+
+    selections.sort(null);
+    out.append('{').append(String.join(" ", selections)).append('}');
+  }
+
+  private static void printArguments(StringBuilder out, List<Argument> arguments) {
+    if (arguments.isEmpty()) {
+      return;
+    }
+    List<Argument> sorted = new ArrayList<>(arguments);
+    sorted.sort(Comparator.comparing(Argument::getName));
+    out.append('(');
+    for (int i = 0; i < sorted.size(); i++) {
+      if (i > 0) {
+        out.append(',');
+      }
+      out.append(sorted.get(i).getName()).append(':');
+      printValue(out, sorted.get(i).getValue());
+    }
+    out.append(')');
+  }
+
+  private static void printDirectives(StringBuilder out, List<Directive> directives) {
+    if (directives.isEmpty()) {
+      return;
+    }
+    List<Directive> sorted = new ArrayList<>(directives);
+    sorted.sort(Comparator.comparing(Directive::getName));
+    for (Directive directive : sorted) {
+      out.append('@').append(directive.getName());
+      printArguments(out, directive.getArguments());
+    }
+  }
+
+  private static void printValue(StringBuilder out, Value<?> value) {
+    if (value instanceof VariableReference) {
+      out.append('$').append(((VariableReference) value).getName());
+    } else if (value instanceof BooleanValue) {
+      out.append(((BooleanValue) value).isValue());
+    } else if (value instanceof EnumValue) {
+      out.append(((EnumValue) value).getName());
+    } else if (value instanceof NullValue) {
+      out.append("null");
+    } else if (value instanceof StringValue) {
+      out.append("\"\"");
+    } else if (value instanceof ArrayValue) {
+      out.append("[]");
+    } else if (value instanceof ObjectValue) {
+      out.append("{}");
+    } else {
+      out.append('0');
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.signature;
+
+import graphql.language.Document;
+import graphql.language.OperationDefinition;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of operation signatures keyed by the identity of the parsed document
+ * and operation, so each operation of a preparsed document is only normalized once. Signatures are
+ * only reused when the same document is executed again, i.e. when documents come from a {@code
+ * PreparsedDocumentProvider}; query text isn't used since persisted queries executed by id all
+ * carry the same placeholder text. Once full, an arbitrary signature is evicted for each new one.
+ */
+public class OperationSignatureCache {
+  private final int maxSize;
+  private final ConcurrentHashMap<Key, OperationSignature> signatures = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /** @param maxSize Maximum number of signatures to hold on to */
+  public OperationSignatureCache(int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Operation signature cache size must be positive");
+    }
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * @param document Parsed document
+   * @param operation Operation being executed
+   * @return Cached signature of the operation, computed if it isn't cached yet
+   */
+  public OperationSignature get(Document document, OperationDefinition operation) {
+    Key key = new Key(document, operation);
+    OperationSignature signature = signatures.get(key);
+    if (signature != null) {
+      hits.increment();
+      return signature;
+    }
+
+    misses.increment();
+    signature = OperationSignature.of(document, operation);
+    if (signatures.size() >= maxSize) {
+      Iterator<Key> keys = signatures.keySet().iterator();
+      if (keys.hasNext()) {
+        signatures.remove(keys.next());
+      }
+    }
+    signatures.put(key, signature);
+    return signature;
+  }
+
+  /** @return Number of lookups that reused a computed signature */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /** @return Number of lookups that had to normalize the operation */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /** @return Number of signatures currently cached */
+  public int size() {
+    return signatures.size();
+  }
+
+  /** @return Maximum number of signatures cached */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /** Removes all cached signatures. Hit and miss counts are kept. */
+  public void clear() {
+    signatures.clear();
+  }
+
+  private static class Key {
+    private final Document document;
+    private final OperationDefinition operation;
+
+    private Key(Document document, OperationDefinition operation) {
+      this.document = document;
+      this.operation = operation;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return document == key.document && operation == key.operation;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(document) + System.identityHashCode(operation);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.signature;
+
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+
+/**
+ * Instrumentation attaching each operation's {@link OperationSignature} to its {@code
+ * GraphQLContext} before execution starts, where data fetchers and later instrumentation callbacks
+ * can read it with {@link OperationSignature#from(graphql.GraphQLContext)}.
+ */
+public class OperationSignatureInstrumentation extends SimplePerformantInstrumentation {
+  private final OperationSignatureCache signatures;
+
+  /** @param signatures Cache of signatures to look up and populate */
+  public OperationSignatureInstrumentation(OperationSignatureCache signatures) {
+    this.signatures = signatures;
+  }
+
+  /** @return Cache of signatures shared across executions */
+  public OperationSignatureCache getSignatures() {
+    return signatures;
+  }
+
+  @Override
+  public ExecutionContext instrumentExecutionContext(
+      ExecutionContext executionContext,
+      InstrumentationExecutionParameters parameters,
+      InstrumentationState state) {
+    OperationSignature signature =
+        signatures.get(executionContext.getDocument(), executionContext.getOperationDefinition());
+    executionContext.getGraphQLContext().put(OperationSignature.class, signature);
+    return executionContext;
+  }
+}
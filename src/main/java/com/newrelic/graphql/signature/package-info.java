@@ -0,0 +1,6 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+/** Normalized operation signatures and hashes for metrics, caching and logging */
+package com.newrelic.graphql.signature;
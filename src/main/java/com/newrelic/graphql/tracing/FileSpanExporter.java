@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/** Exporter appending spans to a file as JSON, one span per line. */
+public class FileSpanExporter implements SpanExporter {
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final Path path;
+
+  /** @param path File to append to, created if it doesn't exist */
+  public FileSpanExporter(Path path) {
+    this.path = path;
+  }
+
+  @Override
+  public synchronized void export(List<Span> spans) {
+    try (Writer writer =
+        Files.newBufferedWriter(
+            path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+      for (Span span : spans) {
+        writer.write(mapper.writeValueAsString(span));
+        writer.write('\n');
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to export spans to " + path, e);
+    }
+  }
+}
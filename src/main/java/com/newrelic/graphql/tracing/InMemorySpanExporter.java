@@ -0,0 +1,29 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/** Exporter holding spans in memory, for tests and local debugging. */
+public class InMemorySpanExporter implements SpanExporter {
+  private final ConcurrentLinkedQueue<Span> spans = new ConcurrentLinkedQueue<>();
+
+  @Override
+  public void export(List<Span> spans) {
+    this.spans.addAll(spans);
+  }
+
+  /** @return Spans exported so far, in export order */
+  public List<Span> getSpans() {
+    return new ArrayList<>(spans);
+  }
+
+  /** Removes all exported spans. */
+  public void clear() {
+    spans.clear();
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.tracing;
+
+/** Timed unit of work within a traced GraphQL operation. */
+public final class Span {
+  private final String traceId;
+  private final String spanId;
+  private final String parentSpanId;
+  private final String name;
+  private final long startEpochNanos;
+  private final long durationNanos;
+  private final String error;
+
+  Span(
+      String traceId,
+      String spanId,
+      String parentSpanId,
+      String name,
+      long startEpochNanos,
+      long durationNanos,
+      String error) {
+    this.traceId = traceId;
+    this.spanId = spanId;
+    this.parentSpanId = parentSpanId;
+    this.name = name;
+    this.startEpochNanos = startEpochNanos;
+    this.durationNanos = durationNanos;
+    this.error = error;
+  }
+
+  /** @return 32 character hex ID shared by all spans of the operation */
+  public String getTraceId() {
+    return traceId;
+  }
+
+  /** @return 16 character hex ID of this span */
+  public String getSpanId() {
+    return spanId;
+  }
+
+  /** @return ID of the enclosing span, or null for a root span without a propagated parent */
+  public String getParentSpanId() {
+    return parentSpanId;
+  }
+
+  /**
+   * @return "operation", "parse", "validation" or "execution" for the operation's phases, or the
+   *     field's path, i.e. "/user/name", for a field fetch
+   */
+  public String getName() {
+    return name;
+  }
+
+  /** @return Start time in nanoseconds since the epoch */
+  public long getStartEpochNanos() {
+    return startEpochNanos;
+  }
+
+  /** @return Time taken in nanoseconds */
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  /** @return Message of the exception the work failed with, or null if it succeeded */
+  public String getError() {
+    return error;
+  }
+
+  @Override
+  public String toString() {
+    return "Span{" + name + ", " + durationNanos + "ns" + (error == null ? "" : ", " + error) + '}';
+  }
+}
@@ -0,0 +1,18 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.tracing;
+
+import java.util.List;
+
+/** Destination for the spans of sampled operations. Implementations must be thread-safe. */
+public interface SpanExporter {
+  /**
+   * Called once per sampled operation, after it completes. Exceptions are swallowed so a failing
+   * exporter can't fail the operation.
+   *
+   * @param spans Spans of the operation, root span first
+   */
+  void export(List<Span> spans);
+}
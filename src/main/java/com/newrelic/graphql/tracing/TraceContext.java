@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.tracing;
+
+import graphql.GraphQLContext;
+import graphql.schema.DataFetchingEnvironment;
+
+/**
+ * Trace identity propagated through the {@code GraphQLContext}.
+ *
+ * <p>Callers continuing a trace from an incoming request, i.e. a W3C {@code traceparent} header,
+ * attach a context before executing, and the operation's spans join that trace. While an operation
+ * is traced, data fetchers can read the operation's context to propagate it to downstream calls.
+ */
+public final class TraceContext {
+  private final String traceId;
+  private final String spanId;
+  private final boolean sampled;
+
+  /**
+   * @param traceId 32 character hex trace ID
+   * @param spanId 16 character hex ID of the parent span
+   * @param sampled Whether the caller sampled the trace, which overrides head sampling
+   */
+  public TraceContext(String traceId, String spanId, boolean sampled) {
+    this.traceId = traceId;
+    this.spanId = spanId;
+    this.sampled = sampled;
+  }
+
+  /**
+   * @param context GraphQL context for the operation
+   * @return Trace context for the operation, or null if none is set
+   */
+  public static TraceContext from(GraphQLContext context) {
+    return context == null ? null : context.get(TraceContext.class);
+  }
+
+  /**
+   * @param environment Environment passed to a data fetcher
+   * @return Trace context of the operation being executed, or null if it isn't traced
+   */
+  public static TraceContext from(DataFetchingEnvironment environment) {
+    return from(environment.getGraphQlContext());
+  }
+
+  /**
+   * Stores the trace context in the GraphQL context, replacing any existing one.
+   *
+   * @param context GraphQL context for the operation
+   * @return This trace context
+   */
+  public TraceContext attachTo(GraphQLContext context) {
+    context.put(TraceContext.class, this);
+    return this;
+  }
+
+  /** @return 32 character hex trace ID */
+  public String getTraceId() {
+    return traceId;
+  }
+
+  /** @return 16 character hex span ID */
+  public String getSpanId() {
+    return spanId;
+  }
+
+  /** @return Whether spans of the trace are being recorded and exported */
+  public boolean isSampled() {
+    return sampled;
+  }
+
+  @Override
+  public String toString() {
+    return "TraceContext{" + traceId + '/' + spanId + (sampled ? ", sampled" : "") + '}';
+  }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.tracing;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
+import graphql.language.Document;
+import graphql.validation.ValidationError;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentation recording spans for an operation's parse, validation and execution phases and for
+ * each field fetch, and exporting them for sampled operations.
+ *
+ * <p>Operations are sampled up front at the configured rate, unless a {@link TraceContext} in the
+ * {@code GraphQLContext} carries the caller's decision. With a slow threshold, operations that
+ * weren't sampled up front still record their phases and are exported if they turn out to be slow,
+ * optionally with their fields too. Operations that are neither sampled nor candidates for the slow
+ * threshold get no instrumentation state, so every callback returns immediately.
+ *
+ * <pre>
+ *   TracingInstrumentation tracing =
+ *       TracingInstrumentation.newTracingInstrumentation(exporter)
+ *           .sampleRate(0.001)
+ *           .slowThreshold(Duration.ofSeconds(2))
+ *           .build();
+ * </pre>
+ */
+public class TracingInstrumentation extends SimplePerformantInstrumentation {
+  static final String OPERATION = "operation";
+  static final String PARSE = "parse";
+  static final String VALIDATION = "validation";
+  static final String EXECUTION = "execution";
+
+  private final SpanExporter exporter;
+  private final double sampleRate;
+  private final long slowThresholdNanos;
+  private final boolean fieldsWhenSlow;
+  private final LongAdder exported = new LongAdder();
+  private final LongAdder failedExports = new LongAdder();
+
+  private TracingInstrumentation(Builder builder) {
+    this.exporter = builder.exporter;
+    this.sampleRate = builder.sampleRate;
+    this.slowThresholdNanos =
+        builder.slowThreshold == null ? Long.MAX_VALUE : builder.slowThreshold.toNanos();
+    this.fieldsWhenSlow = builder.fieldsWhenSlow;
+  }
+
+  /**
+   * @param exporter Destination for spans of sampled operations
+   * @return Builder sampling 1% of operations, with no slow threshold
+   */
+  public static Builder newTracingInstrumentation(SpanExporter exporter) {
+    return new Builder(exporter);
+  }
+
+  /** @return Number of operations whose spans were exported */
+  public long getExportedCount() {
+    return exported.sum();
+  }
+
+  /** @return Number of operations whose export threw an exception */
+  public long getFailedExportCount() {
+    return failedExports.sum();
+  }
+
+  @Override
+  public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+    ExecutionInput input = parameters.getExecutionInput();
+    TraceContext incoming = TraceContext.from(input.getGraphQLContext());
+    boolean sampled =
+        incoming != null
+            ? incoming.isSampled()
+            : sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    if (!sampled && slowThresholdNanos == Long.MAX_VALUE) {
+      return null;
+    }
+
+    Trace trace =
+        new Trace(
+            incoming == null ? newId() + newId() : incoming.getTraceId(),
+            incoming == null ? null : incoming.getSpanId(),
+            sampled,
+            sampled || fieldsWhenSlow);
+    new TraceContext(trace.traceId, trace.rootSpanId, sampled).attachTo(input.getGraphQLContext());
+    return trace;
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecution(
+      InstrumentationExecutionParameters parameters, InstrumentationState state) {
+    if (state == null) {
+      return SimpleInstrumentationContext.noOp();
+    }
+
+    Trace trace = (Trace) state;
+    return SimpleInstrumentationContext.whenCompleted(
+        (result, t) -> {
+          long durationNanos = System.nanoTime() - trace.startNanos;
+          Span root =
+              new Span(
+                  trace.traceId,
+                  trace.rootSpanId,
+                  trace.parentSpanId,
+                  OPERATION,
+                  trace.startEpochNanos,
+                  durationNanos,
+                  errorOf(t));
+          if (trace.sampled || durationNanos >= slowThresholdNanos) {
+            export(root, trace);
+          }
+        });
+  }
+
+  @Override
+  public InstrumentationContext<Document> beginParse(
+      InstrumentationExecutionParameters parameters, InstrumentationState state) {
+    return phase(state, PARSE);
+  }
+
+  @Override
+  public InstrumentationContext<List<ValidationError>> beginValidation(
+      InstrumentationValidationParameters parameters, InstrumentationState state) {
+    return phase(state, VALIDATION);
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+      InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+    return phase(state, EXECUTION);
+  }
+
+  @Override
+  public InstrumentationContext<Object> beginFieldFetch(
+      InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+    if (state == null || !((Trace) state).recordFields) {
+      return SimpleInstrumentationContext.noOp();
+    }
+
+    Trace trace = (Trace) state;
+    String path = parameters.getEnvironment().getExecutionStepInfo().getPath().toString();
+    long startNanos = System.nanoTime();
+    return SimpleInstrumentationContext.whenCompleted(
+        (result, t) -> trace.record(newId(), trace.executionSpanId, path, startNanos, t));
+  }
+
+  private <T> InstrumentationContext<T> phase(InstrumentationState state, String name) {
+    if (state == null) {
+      return SimpleInstrumentationContext.noOp();
+    }
+
+    Trace trace = (Trace) state;
+    String spanId = EXECUTION.equals(name) ? trace.executionSpanId : newId();
+    long startNanos = System.nanoTime();
+    return SimpleInstrumentationContext.whenCompleted(
+        (result, t) -> trace.record(spanId, trace.rootSpanId, name, startNanos, t));
+  }
+
+  private void export(Span root, Trace trace) {
+    List<Span> spans = new ArrayList<>(trace.spans.size() + 1);
+    spans.add(root);
+    spans.addAll(trace.spans);
+    try {
+      exporter.export(spans);
+      exported.increment();
+    } catch (RuntimeException e) {
+      failedExports.increment();
+    }
+  }
+
+  private static String errorOf(Throwable t) {
+    if (t == null) {
+      return null;
+    }
+    return t.getMessage() == null ? t.getClass().getName() : t.getMessage();
+  }
+
+  private static String newId() {
+    String hex = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    return "0000000000000000".substring(hex.length()) + hex;
+  }
+
+  private static class Trace implements InstrumentationState {
+    private final String traceId;
+    private final String parentSpanId;
+    private final String rootSpanId = newId();
+    private final String executionSpanId = newId();
+    private final boolean sampled;
+    private final boolean recordFields;
+    private final long startNanos = System.nanoTime();
+    private final long startEpochNanos = System.currentTimeMillis() * 1_000_000L;
+    private final ConcurrentLinkedQueue<Span> spans = new ConcurrentLinkedQueue<>();
+
+    private Trace(String traceId, String parentSpanId, boolean sampled, boolean recordFields) {
+      this.traceId = traceId;
+      this.parentSpanId = parentSpanId;
+      this.sampled = sampled;
+      this.recordFields = recordFields;
+    }
+
+    private void record(
+        String spanId, String parentId, String name, long spanStartNanos, Throwable t) {
+      spans.add(
+          new Span(
+              traceId,
+              spanId,
+              parentId,
+              name,
+              startEpochNanos + (spanStartNanos - startNanos),
+              System.nanoTime() - spanStartNanos,
+              errorOf(t)));
+    }
+  }
+
+  /** Builder for a {@link TracingInstrumentation}. */
+  public static class Builder {
+    private final SpanExporter exporter;
+    private double sampleRate = 0.01;
+    private Duration slowThreshold;
+    private boolean fieldsWhenSlow;
+
+    private Builder(SpanExporter exporter) {
+      this.exporter = exporter;
+    }
+
+    /**
+     * @param sampleRate Fraction of operations to trace in full, between 0 and 1
+     * @return Fluent builder instance
+     */
+    public Builder sampleRate(double sampleRate) {
+      if (sampleRate < 0 || sampleRate > 1) {
+        throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+      }
+      this.sampleRate = sampleRate;
+      return this;
+    }
+
+    /**
+     * @param slowThreshold Operations taking at least this long are exported even if they weren't
+     *     sampled, or null to only export sampled operations
+     * @return Fluent builder instance
+     */
+    public Builder slowThreshold(Duration slowThreshold) {
+      this.slowThreshold = slowThreshold;
+      return this;
+    }
+
+    /**
+     * @param fieldsWhenSlow Whether operations that weren't sampled also record field spans, so
+     *     slow ones are exported with them. This costs a span per field on every operation.
+     * @return Fluent builder instance
+     */
+    public Builder fieldsWhenSlow(boolean fieldsWhenSlow) {
+      this.fieldsWhenSlow = fieldsWhenSlow;
+      return this;
+    }
+
+    /** @return Tracing instrumentation exporting to the configured exporter */
+    public TracingInstrumentation build() {
+      return new TracingInstrumentation(this);
+    }
+  }
+}
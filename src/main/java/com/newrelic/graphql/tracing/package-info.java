@@ -0,0 +1,6 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+/** Sampled tracing of GraphQL operations and fields, with pluggable span export */
+package com.newrelic.graphql.tracing;
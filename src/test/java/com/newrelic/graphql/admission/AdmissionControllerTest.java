@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.admission;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import com.newrelic.graphql.schema.SimpleGraphQLBuilder;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class AdmissionControllerTest {
+  // Each fetch waits until the test releases it
+  private final ConcurrentLinkedQueue<CompletableFuture<Object>> fetches =
+      new ConcurrentLinkedQueue<>();
+  private final GraphQL graphQL =
+      new SimpleGraphQLBuilder(new StringReader("type Query { value: String }"))
+          .fetcher(
+              "Query",
+              "value",
+              env -> {
+                CompletableFuture<Object> fetch = new CompletableFuture<>();
+                fetches.add(fetch);
+                return fetch;
+              })
+          .build();
+
+  private static ExecutionInput operation(String name) {
+    return ExecutionInput.newExecutionInput("query " + name + " { value }")
+        .operationName(name)
+        .build();
+  }
+
+  private void releaseNext() {
+    fetches.poll().complete("done");
+  }
+
+  @Test
+  public void queuesOverLimitAndShedsWhenQueueIsFull() throws Exception {
+    AdmissionController admission =
+        AdmissionController.newAdmissionController(graphQL)
+            .limit(ConcurrencyLimit.fixed(1))
+            .maxQueueSize(1)
+            .build();
+
+    CompletableFuture<ExecutionResult> running = admission.executeAsync(operation("A"));
+    CompletableFuture<ExecutionResult> queued = admission.executeAsync(operation("B"));
+    CompletableFuture<ExecutionResult> shed = admission.executeAsync(operation("C"));
+
+    assertThat(admission.getInFlight(), is(1));
+    assertThat(admission.getQueueDepth(), is(1));
+    assertThat(AdmissionController.isShed(shed.getNow(null)), is(true));
+    assertThat(admission.getShedCount(), is(1L));
+    assertThat(fetches.size(), is(1));
+
+    releaseNext();
+    assertThat(running.get(1, TimeUnit.SECONDS).getData(), is((Object) Map.of("value", "done")));
+    assertThat(queued.isDone(), is(false));
+    assertThat(admission.getQueueDepth(), is(0));
+
+    releaseNext();
+    assertThat(AdmissionController.isShed(queued.get(1, TimeUnit.SECONDS)), is(false));
+    assertThat(admission.getInFlight(), is(0));
+    assertThat(admission.getAdmittedCount(), is(2L));
+  }
+
+  @Test
+  public void higherPriorityDisplacesQueuedOperation() throws Exception {
+    AdmissionController admission =
+        AdmissionController.newAdmissionController(graphQL)
+            .limit(ConcurrencyLimit.fixed(1))
+            .maxQueueSize(1)
+            .priority("Health", Priority.CRITICAL)
+            .defaultPriority(Priority.SHEDDABLE)
+            .build();
+
+    admission.executeAsync(operation("Export"));
+    CompletableFuture<ExecutionResult> displaced = admission.executeAsync(operation("Export"));
+    CompletableFuture<ExecutionResult> health = admission.executeAsync(operation("Health"));
+
+    assertThat(AdmissionController.isShed(displaced.getNow(null)), is(true));
+    assertThat(admission.getShedCount(Priority.SHEDDABLE), is(1L));
+    assertThat(admission.getQueueDepth(Priority.CRITICAL), is(1));
+
+    releaseNext();
+    releaseNext();
+    assertThat(AdmissionController.isShed(health.get(1, TimeUnit.SECONDS)), is(false));
+  }
+
+  @Test
+  public void startsHigherPrioritiesFirst() throws Exception {
+    AdmissionController admission =
+        AdmissionController.newAdmissionController(graphQL)
+            .limit(ConcurrencyLimit.fixed(1))
+            .priority("Health", Priority.CRITICAL)
+            .build();
+
+    admission.executeAsync(operation("List"));
+    CompletableFuture<ExecutionResult> normal = admission.executeAsync(operation("List"));
+    CompletableFuture<ExecutionResult> critical = admission.executeAsync(operation("Health"));
+
+    releaseNext();
+    assertThat(admission.getQueueDepth(Priority.CRITICAL), is(0));
+    assertThat(admission.getQueueDepth(Priority.NORMAL), is(1));
+    releaseNext();
+    assertThat(critical.isDone(), is(true));
+    assertThat(normal.isDone(), is(false));
+  }
+
+  @Test
+  public void aimdLimitBacksOffOnSlowOperations() {
+    AimdLimit limit =
+        AimdLimit.newAimdLimit()
+            .initialLimit(10)
+            .backoffRatio(0.5)
+            .latencyTarget(Duration.ofMillis(100))
+            .build();
+
+    limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), 10, false);
+    assertThat(limit.getLimit(), is(11));
+
+    // Lightly loaded operations don't grow the limit
+    limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), 1, false);
+    assertThat(limit.getLimit(), is(11));
+
+    limit.onSample(TimeUnit.MILLISECONDS.toNanos(500), 11, false);
+    assertThat(limit.getLimit(), is(5));
+
+    limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), 5, true);
+    assertThat(limit.getLimit(), is(2));
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.columnar;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newrelic.graphql.schema.SimpleGraphQLBuilder;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.CoercingSerializeException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class ColumnarExecutionStrategyTest {
+  private static final String schema =
+      "scalar EpochMilliseconds "
+          + "type Query { series: Series } "
+          + "type Series { name: String, points: [Point!]! } "
+          + "type Point { timestamp: EpochMilliseconds, value: Float, label: String }";
+
+  private final ColumnarList points =
+      ColumnarList.newColumnarList(2)
+          .longColumn("timestamp", new long[] {1000L, 2000L})
+          .doubleColumn("value", new double[] {1.5, 2.5})
+          .column("label", new Object[] {"a", null})
+          .build();
+
+  private GraphQL graphQL(boolean useColumnarLists) {
+    return new SimpleGraphQLBuilder(new StringReader(schema))
+        .fetcher("Query", "series", env -> Map.of("name", "cpu", "points", points))
+        .useColumnarLists(useColumnarLists)
+        .build();
+  }
+
+  @Test
+  public void completesColumnarListsInOneStep() {
+    ExecutionResult result =
+        graphQL(true)
+            .execute(
+                "query { series { name points { t: timestamp ...values __typename } } } "
+                    + "fragment values on Point { value }");
+
+    assertThat(result.getErrors(), is(List.of()));
+    Map<String, Object> series =
+        ((Map<String, Map<String, Object>>) result.getData()).get("series");
+    assertThat(series.get("points"), instanceOf(ColumnarResult.class));
+    assertThat(
+        series.get("points"),
+        is(
+            List.of(
+                Map.of("t", 1000L, "value", 1.5, "__typename", "Point"),
+                Map.of("t", 2000L, "value", 2.5, "__typename", "Point"))));
+  }
+
+  @Test
+  public void streamsColumnsToJson() throws Exception {
+    ExecutionResult result =
+        graphQL(true).execute("query { series { points { timestamp label } } }");
+
+    ObjectMapper mapper = new ObjectMapper().registerModule(new ColumnarJsonModule());
+    String json = mapper.writeValueAsString(result.getData());
+
+    assertThat(
+        json,
+        is(
+            "{\"series\":{\"points\":["
+                + "{\"timestamp\":1000,\"label\":\"a\"},"
+                + "{\"timestamp\":2000,\"label\":null}]}}"));
+  }
+
+  @Test
+  public void rejectsNonFiniteDoublesInJson() {
+    ColumnarList nan =
+        ColumnarList.newColumnarList(1).doubleColumn("value", new double[] {Double.NaN}).build();
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(new StringReader(schema))
+            .fetcher("Query", "series", env -> Map.of("name", "cpu", "points", nan))
+            .useColumnarLists(true)
+            .build();
+
+    ExecutionResult result = graphQL.execute("query { series { points { value } } }");
+
+    ObjectMapper mapper = new ObjectMapper().registerModule(new ColumnarJsonModule());
+    JsonMappingException e =
+        assertThrows(JsonMappingException.class, () -> mapper.writeValueAsString(result.getData()));
+    assertThat(e.getCause(), instanceOf(CoercingSerializeException.class));
+  }
+
+  @Test
+  public void missingColumnIsAnError() {
+    ColumnarList timestampsOnly =
+        ColumnarList.newColumnarList(1).longColumn("timestamp", new long[] {1L}).build();
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(new StringReader(schema))
+            .fetcher("Query", "series", env -> Map.of("name", "cpu", "points", timestampsOnly))
+            .useColumnarLists(true)
+            .build();
+
+    ExecutionResult result = graphQL.execute("query { series { name points { value } } }");
+
+    assertThat(result.getErrors().size(), is(1));
+    assertThat(result.getErrors().get(0).getMessage(), containsString("Point.value"));
+    // points is non-null, so the error nulls out the whole series
+    assertThat(((Map<String, Object>) result.getData()).get("series"), is(nullValue()));
+  }
+
+  @Test
+  public void iteratesAsRowsWithoutColumnarStrategy() {
+    ExecutionResult result = graphQL(false).execute("query { series { points { value label } } }");
+
+    Map<String, Object> first = new HashMap<>();
+    first.put("value", 1.5);
+    first.put("label", "a");
+    Map<String, Object> second = new HashMap<>();
+    second.put("value", 2.5);
+    second.put("label", null);
+
+    assertThat(result.getErrors(), is(List.of()));
+    assertThat(result.getData(), is(Map.of("series", Map.of("points", List.of(first, second)))));
+  }
+
+  @Test
+  public void rejectsMismatchedColumnLengths() {
+    ColumnarList.Builder builder = ColumnarList.newColumnarList(2);
+    assertThrows(
+        IllegalArgumentException.class, () -> builder.longColumn("timestamp", new long[] {1L}));
+  }
+
+  @Test
+  public void rejectsDuplicateColumns() {
+    ColumnarList.Builder builder =
+        ColumnarList.newColumnarList(1).longColumn("timestamp", new long[] {1L});
+    assertThrows(
+        IllegalArgumentException.class, () -> builder.doubleColumn("timestamp", new double[] {1}));
+  }
+}
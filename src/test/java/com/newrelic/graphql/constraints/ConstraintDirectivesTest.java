@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.constraints;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
+
+import com.newrelic.graphql.schema.SimpleGraphQLBuilder;
+import graphql.ErrorType;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLCodeRegistry;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class ConstraintDirectivesTest {
+  private static final String schema =
+      "type Query { "
+          + "  search(text: String! @length(min: 3, max: 10), limit: Int @range(min: 1, max: 100), "
+          + "    tags: [String!] @size(max: 2) @pattern(regexp: \"[a-z]+\"), filter: Filter): Int "
+          + "  other: Int "
+          + "} "
+          + "input Filter { name: String @length(max: 5), child: Filter, ids: [Int] @range(min: 0) }";
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  private GraphQL graphQL(String sdl) {
+    return new SimpleGraphQLBuilder(new StringReader(sdl))
+        .fetcher(
+            "Query",
+            "search",
+            env -> {
+              calls.incrementAndGet();
+              return 1;
+            })
+        .useConstraintDirectives(true)
+        .build();
+  }
+
+  private static List<String> messages(ExecutionResult result) {
+    return result.getErrors().stream().map(GraphQLError::getMessage).collect(Collectors.toList());
+  }
+
+  @Test
+  public void passesValidArguments() {
+    ExecutionResult result =
+        graphQL(schema)
+            .execute(
+                "{ search(text: \"abc\", limit: 100, tags: [\"a\", \"b\"], "
+                    + "filter: { name: \"x\", child: { name: \"y\" }, ids: [0, 1] }) }");
+
+    assertThat(result.getErrors(), is(List.of()));
+    assertThat(result.getData(), is((Object) Map.of("search", 1)));
+    assertThat(calls.get(), is(1));
+  }
+
+  @Test
+  public void rejectsInvalidArgumentsBeforeFetching() {
+    ExecutionResult result =
+        graphQL(schema)
+            .execute(
+                "{ search(text: \"ab\", limit: 0, tags: [\"a\", \"B\", \"c\"], "
+                    + "filter: { name: \"toolong\", child: { child: { name: \"waytoolong\" } }, "
+                    + "ids: [1, -1] }) }");
+
+    assertThat(
+        messages(result),
+        is(
+            List.of(
+                "Argument 'text' must be between 3 and 10 characters long",
+                "Argument 'limit' must be between 1 and 100",
+                "Argument 'tags' must have at most 2 items",
+                "Argument 'tags[1]' must match '[a-z]+'",
+                "Argument 'filter.name' must be at most 5 characters long",
+                "Argument 'filter.child.child.name' must be at most 5 characters long",
+                "Argument 'filter.ids[1]' must be at least 0")));
+    assertThat(result.getErrors().get(0).getErrorType(), is(ErrorType.ValidationError));
+    assertThat(result.getErrors().get(0).getPath(), is(List.of("search")));
+    assertThat(((Map<String, Object>) result.getData()).get("search"), is(nullValue()));
+    assertThat(calls.get(), is(0));
+  }
+
+  @Test
+  public void checksVariables() {
+    ExecutionResult result =
+        graphQL(schema)
+            .execute(
+                ExecutionInput.newExecutionInput()
+                    .query("query Search($text: String!) { search(text: $text) }")
+                    .variables(Map.of("text", "way too long"))
+                    .build());
+
+    assertThat(
+        messages(result), is(List.of("Argument 'text' must be between 3 and 10 characters long")));
+  }
+
+  @Test
+  public void wrapsOnlyConstrainedFields() {
+    GraphQL graphQL = graphQL(schema);
+    GraphQLCodeRegistry registry = graphQL.getGraphQLSchema().getCodeRegistry();
+
+    assertThat(
+        registry.getDataFetcher(
+            FieldCoordinates.coordinates("Query", "search"),
+            graphQL.getGraphQLSchema().getQueryType().getFieldDefinition("search")),
+        instanceOf(ValidatingDataFetcher.class));
+    assertThat(
+        registry.getDataFetcher(
+                FieldCoordinates.coordinates("Query", "other"),
+                graphQL.getGraphQLSchema().getQueryType().getFieldDefinition("other"))
+            instanceof ValidatingDataFetcher,
+        is(false));
+  }
+
+  @Test
+  public void rejectsInvalidDirectives() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> graphQL("type Query { search(text: String @pattern(regexp: \"[\")): Int }"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> graphQL("type Query { search(limit: Int @range(min: 5, max: 1)): Int }"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> graphQL("type Query { search(text: String @size(max: 1)): Int }"));
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertTrue;
+
+import com.newrelic.graphql.schema.SimpleGraphQLBuilder;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLContext;
+import graphql.execution.CoercedVariables;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.language.Value;
+import graphql.scalar.GraphqlStringCoercing;
+import graphql.schema.GraphQLScalarType;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class PrecompiledExecutionStrategyTest {
+  private static final String schema =
+      "type Query { items: [Item] } "
+          + "interface Named { name: String } "
+          + "type Item implements Named { id: ID, name: String, child: Item }";
+
+  private final Map<String, Object> child = Map.of("id", "2", "name", "child");
+  private final Map<String, Object> item = Map.of("id", "1", "name", "parent", "child", child);
+
+  private GraphQL graphQL(OperationPlanCache plans) {
+    Map<String, PreparsedDocumentEntry> documents = new ConcurrentHashMap<>();
+    return new SimpleGraphQLBuilder(new StringReader(schema))
+        .fetcher("Query", "items", env -> List.of(item, item))
+        .useGeneratedPropertyFetchers(true)
+        .operationPlans(plans)
+        .builder()
+        .preparsedDocumentProvider(
+            (input, parse) -> documents.computeIfAbsent(input.getQuery(), q -> parse.apply(input)))
+        .build();
+  }
+
+  @Test
+  public void reusesCollectedFieldsAcrossExecutions() {
+    OperationPlanCache plans = new OperationPlanCache(100);
+    GraphQL graphQL = graphQL(plans);
+    String query =
+        "query { items { id ...names child { id ... on Named { name } } } } "
+            + "fragment names on Item { name }";
+
+    ExecutionResult first = graphQL.execute(query);
+    long missesAfterFirst = plans.getMissCount();
+    ExecutionResult second = graphQL.execute(query);
+
+    Map<String, Object> expectedItem =
+        Map.of("id", "1", "name", "parent", "child", Map.of("id", "2", "name", "child"));
+    assertThat(first.getData(), is(Map.of("items", List.of(expectedItem, expectedItem))));
+    assertThat(second.getData(), is((Object) first.getData()));
+
+    // Each list element and child reuses the plan, so only the first of each shape misses
+    assertThat(missesAfterFirst, is(2L));
+    assertThat(plans.getMissCount(), is(2L));
+    assertThat(plans.getHitCount(), is(6L));
+    assertThat(plans.size(), is(2));
+  }
+
+  @Test
+  public void collectsVariableConditionsEachTime() {
+    OperationPlanCache plans = new OperationPlanCache(100);
+    GraphQL graphQL = graphQL(plans);
+    String query = "query($named: Boolean!) { items { id name @include(if: $named) } }";
+
+    ExecutionResult named =
+        graphQL.execute(
+            ExecutionInput.newExecutionInput(query).variables(Map.of("named", true)).build());
+    ExecutionResult unnamed =
+        graphQL.execute(
+            ExecutionInput.newExecutionInput(query).variables(Map.of("named", false)).build());
+
+    Map<String, Object> namedItem = Map.of("id", "1", "name", "parent");
+    Map<String, Object> unnamedItem = Map.of("id", "1");
+    assertThat(named.getData(), is(Map.of("items", List.of(namedItem, namedItem))));
+    assertThat(unnamed.getData(), is(Map.of("items", List.of(unnamedItem, unnamedItem))));
+    assertThat(plans.getHitCount(), is(0L));
+  }
+
+  @Test
+  public void evictsOnceFull() {
+    OperationPlanCache plans = new OperationPlanCache(1);
+    GraphQL graphQL = graphQL(plans);
+
+    graphQL.execute("query { items { id child { id } } }");
+
+    assertThat(plans.size(), is(1));
+    assertThat(plans.getMaxSize(), is(1));
+  }
+
+  private GraphQL countingGraphQL(ArgumentValueCache arguments, AtomicInteger parsed) {
+    GraphQLScalarType counted =
+        GraphQLScalarType.newScalar()
+            .name("Counted")
+            .coercing(
+                new GraphqlStringCoercing() {
+                  @Override
+                  public String parseLiteral(
+                      Value<?> input,
+                      CoercedVariables variables,
+                      GraphQLContext context,
+                      Locale locale) {
+                    parsed.incrementAndGet();
+                    return super.parseLiteral(input, variables, context, locale);
+                  }
+                })
+            .build();
+
+    Map<String, PreparsedDocumentEntry> documents = new ConcurrentHashMap<>();
+    return new SimpleGraphQLBuilder(
+            new StringReader(
+                "scalar Counted " + "type Query { echo(value: Counted, suffix: String): String }"))
+        .scalar("Counted", counted)
+        .fetcher(
+            "Query",
+            "echo",
+            env -> env.getArgument("value") + env.getArgumentOrDefault("suffix", ""))
+        .argumentValues(arguments)
+        .builder()
+        .preparsedDocumentProvider(
+            (input, parse) -> documents.computeIfAbsent(input.getQuery(), q -> parse.apply(input)))
+        .build();
+  }
+
+  @Test
+  public void reusesCoercedLiteralArguments() {
+    ArgumentValueCache arguments = new ArgumentValueCache(100);
+    AtomicInteger parsed = new AtomicInteger();
+    GraphQL graphQL = countingGraphQL(arguments, parsed);
+    String query = "query { a: echo(value: \"x\", suffix: \"!\") b: echo(value: \"y\") }";
+
+    ExecutionResult first = graphQL.execute(query);
+    int parsedByFirst = parsed.get();
+    ExecutionResult second = graphQL.execute(query);
+
+    assertThat(first.getData(), is(Map.of("a", "x!", "b", "y")));
+    assertThat(second.getData(), is((Object) first.getData()));
+    assertThat(parsed.get(), is(parsedByFirst));
+    assertTrue(arguments.getHitCount() > 0);
+    assertThat(arguments.size(), is(2));
+  }
+
+  @Test
+  public void coercesArgumentsWithVariablesEachTime() {
+    ArgumentValueCache arguments = new ArgumentValueCache(100);
+    AtomicInteger parsed = new AtomicInteger();
+    GraphQL graphQL = countingGraphQL(arguments, parsed);
+    String query = "query($suffix: String) { echo(value: \"x\", suffix: $suffix) }";
+
+    ExecutionResult first =
+        graphQL.execute(
+            ExecutionInput.newExecutionInput(query).variables(Map.of("suffix", "1")).build());
+    int parsedByFirst = parsed.get();
+    ExecutionResult second =
+        graphQL.execute(
+            ExecutionInput.newExecutionInput(query).variables(Map.of("suffix", "2")).build());
+
+    assertThat(first.getData(), is(Map.of("echo", "x1")));
+    assertThat(second.getData(), is(Map.of("echo", "x2")));
+    assertThat(parsed.get(), is(parsedByFirst + 1));
+    assertThat(arguments.getHitCount(), is(0L));
+    assertThat(arguments.size(), is(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsNonPositiveSize() {
+    new OperationPlanCache(0);
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
+
+import com.newrelic.graphql.schema.SimpleGraphQLBuilder;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.dataloader.DataLoaderFactory;
+import org.junit.Test;
+
+public class RequestContextPoolTest {
+  private final GraphQL graphQL =
+      new SimpleGraphQLBuilder(new StringReader("type Query { user: String }"))
+          .fetcher(
+              "Query",
+              "user",
+              env -> {
+                RequestContext context = RequestContext.from(env.getGraphQlContext());
+                context.getAttributes().merge("calls", 1, (a, b) -> (int) a + (int) b);
+                return context.getAttributes().get("user")
+                    + "/"
+                    + context.getAttributes().get("calls");
+              })
+          .build();
+
+  @Test
+  public void reusesContextsAcrossRequests() {
+    RequestContextPool contexts = new RequestContextPool(4);
+
+    for (int i = 0; i < 3; i++) {
+      ExecutionResult result =
+          contexts.execute(
+              graphQL,
+              context -> {
+                context.getAttributes().put("user", "alice");
+                return context.newExecutionInput("{ user }").build();
+              });
+      // Attributes from the previous request are cleared, so calls restarts at 1
+      assertThat(result.getData(), is((Object) Map.of("user", "alice/1")));
+    }
+
+    assertThat(contexts.getRequestCount(), is(3L));
+    assertThat(contexts.getPool().getCreatedCount(), is(1L));
+    assertThat(contexts.getPool().getReusedCount(), is(2L));
+    assertThat(contexts.getPool().getIdleCount(), is(1));
+  }
+
+  @Test
+  public void unregistersDataLoadersOnRelease() {
+    RequestContextPool contexts = new RequestContextPool(1);
+
+    RequestContext context = contexts.acquire();
+    context
+        .getDataLoaderRegistry()
+        .register(
+            "users",
+            DataLoaderFactory.newDataLoader(keys -> CompletableFuture.completedFuture(keys)));
+    context.close();
+    context.close();
+
+    assertThat(contexts.getPool().getIdleCount(), is(1));
+    RequestContext reused = contexts.acquire();
+    assertThat(reused, is(sameInstance(context)));
+    assertThat(reused.getDataLoaderRegistry().getKeys().isEmpty(), is(true));
+  }
+
+  @Test
+  public void discardsContextsBeyondMaxIdle() {
+    RequestContextPool contexts = new RequestContextPool(1);
+
+    RequestContext first = contexts.acquire();
+    RequestContext second = contexts.acquire();
+    first.close();
+    second.close();
+
+    assertThat(contexts.getPool().getCreatedCount(), is(2L));
+    assertThat(contexts.getPool().getDiscardedCount(), is(1L));
+    assertThat(contexts.getPool().getIdleCount(), is(1));
+  }
+
+  @Test
+  public void reportsAllocationsPerRequest() {
+    RequestContextPool contexts = new RequestContextPool(1);
+    contexts.execute(graphQL, context -> context.newExecutionInput("{ user }").build());
+
+    if (ThreadAllocations.isSupported()) {
+      assertThat(contexts.getAllocatedBytesPerRequest() > 0, is(true));
+    } else {
+      assertThat(contexts.getAllocatedBytesPerRequest(), is(-1L));
+    }
+  }
+
+  @Test
+  public void reportsLeakedContexts() throws Exception {
+    List<Throwable> leaks = new CopyOnWriteArrayList<>();
+    RequestContextPool contexts = new RequestContextPool(1).detectLeaks(leaks::add);
+
+    contexts.acquire().close();
+    leak(contexts);
+    for (int i = 0; i < 100 && leaks.isEmpty(); i++) {
+      System.gc();
+      Thread.sleep(20);
+    }
+
+    assertThat(leaks.size(), is(1));
+    assertThat(contexts.getLeakCount(), is(1L));
+    assertThat(leaks.get(0).getMessage(), containsString("never closed"));
+  }
+
+  private static void leak(RequestContextPool contexts) {
+    contexts.acquire().getAttributes().put("user", "bob");
+  }
+
+  @Test
+  public void attributesAcceptConcurrentUpdates() {
+    RequestContextPool contexts = new RequestContextPool(1);
+
+    try (RequestContext context = contexts.acquire()) {
+      CompletableFuture<?>[] updates = new CompletableFuture<?>[8];
+      for (int i = 0; i < updates.length; i++) {
+        updates[i] =
+            CompletableFuture.runAsync(
+                () -> {
+                  for (int j = 0; j < 1000; j++) {
+                    context.getAttributes().merge("calls", 1, (a, b) -> (int) a + (int) b);
+                  }
+                });
+      }
+      CompletableFuture.allOf(updates).join();
+
+      assertThat(context.getAttributes().get("calls"), is((Object) 8000));
+    }
+  }
+
+  @Test
+  public void rejectsNonPositiveSize() {
+    assertThrows(IllegalArgumentException.class, () -> new RequestContextPool(0));
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.execution;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.newrelic.graphql.schema.SimpleGraphQLBuilder;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class TimeoutDataFetcherTest {
+
+  private final StringReader schema = new StringReader("type Query { fast: String slow: String }");
+
+  @Test
+  public void fieldTimeoutReturnsPartialData() {
+    CompletableFuture<String> slow = new CompletableFuture<>();
+    FetcherTimeouts timeouts =
+        new FetcherTimeouts().fieldTimeout("Query", "slow", Duration.ofMillis(50));
+
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(schema)
+            .fetcher("Query", "fast", env -> "quick")
+            .fetcher("Query", "slow", env -> slow)
+            .timeouts(timeouts)
+            .build();
+
+    ExecutionResult response = graphQL.execute("query { fast slow }");
+
+    Map<String, String> expected = new HashMap<>();
+    expected.put("fast", "quick");
+    expected.put("slow", null);
+
+    assertThat(response.getData(), is(expected));
+    assertThat(response.getErrors().size(), is(1));
+    assertThat(response.getErrors().get(0).getMessage(), containsString("Query.slow"));
+    assertThat(slow.isCancelled(), is(true));
+    assertThat(timeouts.getTimeoutCount(), is(1L));
+    assertThat(timeouts.getTimeoutCounts().get("Query.slow"), is(1L));
+  }
+
+  @Test
+  public void operationTimeoutAppliesToAllFields() {
+    FetcherTimeouts timeouts = new FetcherTimeouts().operationTimeout(Duration.ofMillis(50));
+
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(schema)
+            .fetcher("Query", "fast", env -> new CompletableFuture<>())
+            .fetcher("Query", "slow", env -> new CompletableFuture<>())
+            .timeouts(timeouts)
+            .build();
+
+    ExecutionResult response = graphQL.execute("query { fast slow }");
+
+    assertThat(response.getErrors().size(), is(2));
+    assertThat(timeouts.getTimeoutCount(), is(2L));
+  }
+
+  @Test
+  public void namedOperationTimeoutOverridesDefault() {
+    FetcherTimeouts timeouts =
+        new FetcherTimeouts()
+            .operationTimeout(Duration.ofMillis(1))
+            .operationTimeout("Patient", Duration.ofMinutes(1));
+
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(schema)
+            .fetcher("Query", "slow", env -> CompletableFuture.supplyAsync(() -> sleepy()))
+            .timeouts(timeouts)
+            .build();
+
+    ExecutionResult response =
+        graphQL.execute(
+            ExecutionInput.newExecutionInput()
+                .query("query Patient { slow }")
+                .operationName("Patient")
+                .build());
+
+    assertThat(response.getErrors().size(), is(0));
+    assertThat(response.getData(), is(Map.of("slow", "done")));
+  }
+
+  @Test
+  public void deadlineIsAvailableToFetchers() {
+    AtomicReference<Deadline> seen = new AtomicReference<>();
+    FetcherTimeouts timeouts = new FetcherTimeouts().operationTimeout(Duration.ofMinutes(1));
+
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(schema)
+            .fetcher(
+                "Query",
+                "fast",
+                env -> {
+                  seen.set(Deadline.from(env));
+                  return "quick";
+                })
+            .timeouts(timeouts)
+            .build();
+
+    graphQL.execute("query { fast }");
+
+    assertNotNull(seen.get());
+    assertThat(seen.get().isExpired(), is(false));
+  }
+
+  @Test
+  public void noDeadlineWithoutOperationTimeout() {
+    AtomicReference<Deadline> seen = new AtomicReference<>();
+
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(schema)
+            .fetcher(
+                "Query",
+                "fast",
+                env -> {
+                  seen.set(Deadline.from(env));
+                  return "quick";
+                })
+            .timeouts(new FetcherTimeouts())
+            .build();
+
+    ExecutionResult response = graphQL.execute("query { fast }");
+
+    assertThat(response.getData(), is(Map.of("fast", "quick")));
+    assertNull(seen.get());
+  }
+
+  @Test
+  public void expiredDeadlineSkipsFetcher() {
+    FetcherTimeouts timeouts = new FetcherTimeouts();
+    AtomicReference<Boolean> called = new AtomicReference<>(false);
+
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(schema)
+            .fetcher(
+                "Query",
+                "fast",
+                env -> {
+                  called.set(true);
+                  return "quick";
+                })
+            .timeouts(timeouts)
+            .build();
+
+    ExecutionInput input = ExecutionInput.newExecutionInput().query("query { fast }").build();
+    Deadline.after(Duration.ofNanos(-1)).attachTo(input.getGraphQLContext());
+    ExecutionResult response = graphQL.execute(input);
+
+    assertThat(response.getErrors().size(), is(1));
+    assertThat(called.get(), is(false));
+    assertThat(timeouts.getTimeoutCount(), is(1L));
+  }
+
+  private static String sleepy() {
+    try {
+      Thread.sleep(20);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return "done";
+  }
+}
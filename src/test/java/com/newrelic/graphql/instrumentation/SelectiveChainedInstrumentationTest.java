@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.instrumentation;
+
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import com.newrelic.graphql.schema.SimpleGraphQLBuilder;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class SelectiveChainedInstrumentationTest {
+  private static class CountingState implements InstrumentationState {
+    private final AtomicInteger executions = new AtomicInteger();
+  }
+
+  private static class OperationCounter extends SimplePerformantInstrumentation {
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+      return new CountingState();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(
+        InstrumentationExecutionParameters parameters, InstrumentationState state) {
+      ((CountingState) state).executions.incrementAndGet();
+      executions.incrementAndGet();
+      return SimpleInstrumentationContext.noOp();
+    }
+  }
+
+  // Implements the deprecated signature, which the current one delegates to by default
+  @SuppressWarnings("deprecation")
+  private static class FetchCounter implements Instrumentation {
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @Override
+    public InstrumentationContext<Object> beginFieldFetch(
+        InstrumentationFieldFetchParameters parameters) {
+      fetches.incrementAndGet();
+      return null;
+    }
+  }
+
+  @Test
+  public void dispatchesOnlyToOverriddenCallbacks() {
+    OperationCounter operations = new OperationCounter();
+    FetchCounter fetches = new FetchCounter();
+    SelectiveChainedInstrumentation chain =
+        new SelectiveChainedInstrumentation(List.of(operations, fetches));
+
+    assertThat(chain.getInstrumentations("beginExecution"), is(List.of(operations)));
+    assertThat(chain.getInstrumentations("beginFieldFetch"), is(List.of(fetches)));
+    assertThat(chain.getInstrumentations("beginField"), is(List.of()));
+    assertThat(chain.beginField(null, null), is(sameInstance(SimpleInstrumentationContext.noOp())));
+  }
+
+  @Test
+  public void runsInstrumentationsInBuiltGraphQL() {
+    OperationCounter operations = new OperationCounter();
+    FetchCounter fetches = new FetchCounter();
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(new StringReader("type Query { a: String, b: String }"))
+            .fetcher("Query", "a", env -> "a")
+            .fetcher("Query", "b", env -> "b")
+            .instrumentation(List.of(operations, fetches))
+            .build();
+
+    ExecutionResult result = graphQL.execute("{ a b }");
+
+    assertThat(result.getData(), is((Object) Map.of("a", "a", "b", "b")));
+    assertThat(graphQL.getInstrumentation() instanceof SelectiveChainedInstrumentation, is(true));
+    assertThat(operations.executions.get(), is(1));
+    assertThat(fetches.fetches.get(), is(2));
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.instrumentation;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
+
+import com.newrelic.graphql.schema.SimpleGraphQLBuilder;
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class SlowOperationLogTest {
+  private GraphQL graphQL(SlowOperationLog slowLog) {
+    return new SimpleGraphQLBuilder(
+            new StringReader(
+                "type Query { user(id: String, tags: [String]): User, fast: Int } "
+                    + "type User { name: String, email: String }"))
+        .fetcher("Query", "user", env -> new Object())
+        .fetcher("Query", "fast", env -> 1)
+        .fetcher(
+            "User",
+            "name",
+            env -> {
+              Thread.sleep(20);
+              return "alice";
+            })
+        .fetcher("User", "email", env -> "alice@example.com")
+        .instrumentation(List.of(slowLog))
+        .build();
+  }
+
+  private static ExecutionInput userQuery() {
+    return ExecutionInput.newExecutionInput()
+        .query(
+            "query User($id: String, $tags: [String]) "
+                + "{ user(id: $id, tags: $tags) { email name } }")
+        .operationName("User")
+        .variables(Map.of("id", "secret-id", "tags", List.of("a", "b")))
+        .build();
+  }
+
+  @Test
+  public void recordsSlowOperations() {
+    SlowOperationLog slowLog =
+        SlowOperationLog.newSlowOperationLog().threshold(Duration.ofMillis(10)).build();
+
+    graphQL(slowLog).execute(userQuery());
+
+    List<SlowOperation> operations = slowLog.getSlowOperations();
+    assertThat(operations.size(), is(1));
+    SlowOperation operation = operations.get(0);
+    assertThat(operation.getOperationName(), is("User"));
+    assertThat(
+        operation.getSignature(),
+        is("query User($id:String,$tags:[String]){user(id:$id,tags:$tags){email name}}"));
+    assertThat(operation.getVariables(), is(Map.of("id", "String", "tags", "List(2)")));
+    assertThat(operation.getDurationNanos() >= Duration.ofMillis(20).toNanos(), is(true));
+    assertThat(operation.getExecutionNanos() >= Duration.ofMillis(20).toNanos(), is(true));
+    assertThat(operation.getSlowestFields().get(0).getPath(), is("/user/name"));
+    assertThat(operation.getSlowestFields().size(), is(3));
+    assertThat(slowLog.getRecordedCount(), is(1L));
+  }
+
+  @Test
+  public void skipsFastOperations() {
+    // Well above a cold first execution, which can take tens of milliseconds
+    SlowOperationLog slowLog =
+        SlowOperationLog.newSlowOperationLog().threshold(Duration.ofSeconds(5)).build();
+
+    graphQL(slowLog).execute("{ fast }");
+
+    assertThat(slowLog.getSlowOperations(), is(List.of()));
+  }
+
+  @Test
+  public void keepsSlowestFieldsOnly() {
+    SlowOperationLog slowLog =
+        SlowOperationLog.newSlowOperationLog().threshold(Duration.ZERO).topFields(1).build();
+
+    graphQL(slowLog).execute(userQuery());
+
+    List<SlowOperation.SlowField> fields = slowLog.getSlowOperations().get(0).getSlowestFields();
+    assertThat(fields.size(), is(1));
+    assertThat(fields.get(0).getPath(), is("/user/name"));
+  }
+
+  @Test
+  public void keepsSlowestWhenFull() {
+    SlowOperationLog slowLog =
+        SlowOperationLog.newSlowOperationLog().threshold(Duration.ZERO).capacity(2).build();
+    GraphQL graphQL = graphQL(slowLog);
+
+    graphQL.execute(userQuery());
+    for (int i = 0; i < 5; i++) {
+      graphQL.execute("{ fast }");
+    }
+
+    List<SlowOperation> operations = slowLog.getSlowOperations();
+    assertThat(operations.size(), is(2));
+    assertThat(operations.get(0).getOperationName(), is("User"));
+    assertThat(slowLog.getRecordedCount(), is(6L));
+  }
+
+  @Test
+  public void dropsOperationsOutsideWindow() throws Exception {
+    SlowOperationLog slowLog =
+        SlowOperationLog.newSlowOperationLog()
+            .threshold(Duration.ZERO)
+            .window(Duration.ofMillis(5))
+            .build();
+
+    graphQL(slowLog).execute("{ fast }");
+    Thread.sleep(20);
+
+    assertThat(slowLog.getSlowOperations(), is(List.of()));
+  }
+
+  @Test
+  public void skipsUnsampledOperations() {
+    SlowOperationLog slowLog =
+        SlowOperationLog.newSlowOperationLog().threshold(Duration.ZERO).sampleRate(0).build();
+
+    graphQL(slowLog).execute("{ fast }");
+
+    assertThat(slowLog.getRecordedCount(), is(0L));
+  }
+
+  @Test
+  public void dumpsJsonWithoutVariableValues() {
+    SlowOperationLog slowLog =
+        SlowOperationLog.newSlowOperationLog().threshold(Duration.ZERO).build();
+
+    graphQL(slowLog).execute(userQuery());
+
+    String json = slowLog.toJson();
+    assertThat(json, containsString("\"operationName\":\"User\""));
+    assertThat(json, containsString("\"path\":\"/user/name\""));
+    assertThat(json, not(containsString("secret-id")));
+  }
+
+  @Test
+  public void rejectsInvalidLimits() {
+    SlowOperationLog.Builder builder = SlowOperationLog.newSlowOperationLog();
+    assertThrows(IllegalArgumentException.class, () -> builder.capacity(0));
+    assertThrows(IllegalArgumentException.class, () -> builder.sampleRate(2));
+    assertThrows(IllegalArgumentException.class, () -> builder.window(Duration.ZERO));
+  }
+}
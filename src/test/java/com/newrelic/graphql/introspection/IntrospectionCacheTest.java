@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.introspection;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newrelic.graphql.schema.SimpleGraphQLBuilder;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.introspection.IntrospectionQuery;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class IntrospectionCacheTest {
+  private static GraphQL graphQL() {
+    return new SimpleGraphQLBuilder(new StringReader("type Query { name: String }"))
+        .fetcher("Query", "name", env -> "alice")
+        .build();
+  }
+
+  private static ExecutionInput input(String query) {
+    return ExecutionInput.newExecutionInput(query).build();
+  }
+
+  @Test
+  public void servesIntrospectionFromCache() throws Exception {
+    IntrospectionCache cache = IntrospectionCache.newIntrospectionCache().build();
+    GraphQL graphQL = graphQL();
+
+    ExecutionResult first = cache.execute(graphQL, input(IntrospectionQuery.INTROSPECTION_QUERY));
+    ExecutionResult second = cache.execute(graphQL, input(IntrospectionQuery.INTROSPECTION_QUERY));
+
+    assertThat(first.getErrors(), is(List.of()));
+    assertThat(second, is(sameInstance(first)));
+    assertThat(cache.getMissCount(), is(1L));
+    assertThat(cache.getHitCount(), is(1L));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ((PreSerializedResult) second).writeTo(out);
+    assertThat(
+        new ObjectMapper().readValue(out.toByteArray(), Map.class),
+        is((Object) new ObjectMapper().convertValue(first.toSpecification(), Map.class)));
+  }
+
+  @Test
+  public void invalidatesOnNewSchema() {
+    IntrospectionCache cache = IntrospectionCache.newIntrospectionCache().build();
+    String query = "{ __type(name: \"Query\") { name } }";
+
+    ExecutionResult first = cache.execute(graphQL(), input(query));
+    ExecutionResult second = cache.execute(graphQL(), input(query));
+
+    assertThat(second, is(not(sameInstance(first))));
+    assertThat(second.getData(), is((Object) first.getData()));
+    assertThat(cache.getMissCount(), is(2L));
+  }
+
+  @Test
+  public void executesOtherOperations() {
+    IntrospectionCache cache = IntrospectionCache.newIntrospectionCache().build();
+    GraphQL graphQL = graphQL();
+
+    ExecutionResult typename = cache.execute(graphQL, input("{ name __typename }"));
+    ExecutionResult mixed =
+        cache.execute(graphQL, input("{ name __schema { queryType { name } } }"));
+
+    assertThat(typename.getData(), is((Object) Map.of("name", "alice", "__typename", "Query")));
+    assertThat(mixed, is(not(instanceOf(PreSerializedResult.class))));
+    assertThat(cache.getMissCount(), is(0L));
+  }
+
+  @Test
+  public void rejectsWhenDisabled() {
+    IntrospectionCache cache = IntrospectionCache.newIntrospectionCache().enabled(false).build();
+
+    ExecutionResult result = cache.execute(graphQL(), input("{ __schema { types { name } } }"));
+
+    assertThat(result.getErrors().get(0).getMessage(), is("Introspection is disabled"));
+    assertThat(cache.getRejectedCount(), is(1L));
+  }
+
+  @Test
+  public void rejectsAnyIntrospectionWhenDisabled() {
+    IntrospectionCache cache = IntrospectionCache.newIntrospectionCache().enabled(false).build();
+    GraphQL graphQL = graphQL();
+
+    List<ExecutionInput> inputs =
+        List.of(
+            input("{ name __schema { types { name } } }"),
+            input("{ ...F } fragment F on Query { __schema { types { name } } }"),
+            input("{ ... on Query { t: __type(name: \"Query\") { name } } }"),
+            ExecutionInput.newExecutionInput("query($n: String!) { __type(name: $n) { name } }")
+                .variables(Map.of("n", "Query"))
+                .build());
+    for (ExecutionInput input : inputs) {
+      ExecutionResult result = cache.execute(graphQL, input);
+      assertThat(result.getData(), is(nullValue()));
+      assertThat(result.getErrors().get(0).getMessage(), is("Introspection is disabled"));
+    }
+    assertThat(cache.getRejectedCount(), is(4L));
+
+    ExecutionResult typename = cache.execute(graphQL, input("{ name __typename }"));
+    assertThat(typename.getData(), is((Object) Map.of("name", "alice", "__typename", "Query")));
+  }
+
+  @Test
+  public void keysEntriesBySchema() {
+    IntrospectionCache cache = IntrospectionCache.newIntrospectionCache().build();
+    GraphQL first = graphQL();
+    GraphQL second =
+        new SimpleGraphQLBuilder(new StringReader("type Query { name: String, age: Int }")).build();
+    String query = "{ __type(name: \"Query\") { fields { name } } }";
+
+    ExecutionResult fromFirst = cache.execute(first, input(query));
+    ExecutionResult fromSecond = cache.execute(second, input(query));
+
+    assertThat(fromSecond, is(not(sameInstance(fromFirst))));
+    assertThat(cache.execute(first, input(query)), is(sameInstance(fromFirst)));
+    assertThat(cache.execute(second, input(query)), is(sameInstance(fromSecond)));
+    assertThat(cache.getMissCount(), is(2L));
+    assertThat(cache.getHitCount(), is(2L));
+  }
+
+  @Test
+  public void rateLimitsIntrospection() {
+    IntrospectionCache cache = IntrospectionCache.newIntrospectionCache().maxPerSecond(1).build();
+    GraphQL graphQL = graphQL();
+    String query = "{ __schema { types { name } } }";
+
+    List<ExecutionResult> results = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      results.add(cache.execute(graphQL, input(query)));
+    }
+
+    // At most two of these can land in separate seconds, so at least one is over the limit
+    assertThat(results.get(0).getErrors(), is(List.of()));
+    assertThat(cache.getRejectedCount() >= 1, is(true));
+    assertThat(
+        results.stream()
+            .anyMatch(
+                result ->
+                    !result.getErrors().isEmpty()
+                        && result
+                            .getErrors()
+                            .get(0)
+                            .getMessage()
+                            .equals("Introspection rate limit exceeded")),
+        is(true));
+  }
+
+  @Test
+  public void rateLimitsWithinEachSecond() {
+    IntrospectionCache cache = IntrospectionCache.newIntrospectionCache().maxPerSecond(2).build();
+
+    // Seconds are compared signed, so windows before the epoch work the same
+    for (long second : new long[] {-5, 1_700_000_000L}) {
+      assertThat(cache.admit(second), is(true));
+      assertThat(cache.admit(second), is(true));
+      assertThat(cache.admit(second), is(false));
+      assertThat(cache.admit(second + 1), is(true));
+    }
+  }
+
+  @Test
+  public void detectsIntrospectionOperations() {
+    assertThat(
+        IntrospectionCache.isIntrospection("{ __schema { types { name } } }", null), is(true));
+    assertThat(
+        IntrospectionCache.isIntrospection(
+            "query A { __schema { types { name } } } query B { name }", "A"),
+        is(true));
+    assertThat(
+        IntrospectionCache.isIntrospection(
+            "query A { __schema { types { name } } } query B { name }", null),
+        is(false));
+    assertThat(
+        IntrospectionCache.isIntrospection(
+            "query($n: String!) { __type(name: $n) { name } }", null),
+        is(false));
+    assertThat(IntrospectionCache.mentionsIntrospection("{ user { __typename } }"), is(false));
+    assertThat(
+        IntrospectionCache.selectsIntrospection(
+            "query A { name } query B { ...F } fragment F on Query { __schema { types { name } } }",
+            "A"),
+        is(false));
+    assertThat(
+        IntrospectionCache.selectsIntrospection(
+            "query A { name } query B { ...F } fragment F on Query { __schema { types { name } } }",
+            "B"),
+        is(true));
+    assertThat(
+        IntrospectionCache.selectsIntrospection("{ name # __schema\n __typename }", null),
+        is(false));
+  }
+}
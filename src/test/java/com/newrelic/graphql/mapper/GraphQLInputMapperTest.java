@@ -6,17 +6,32 @@ package com.newrelic.graphql.mapper;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
-
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.newrelic.graphql.schema.SimpleGraphQLBuilder;
 import graphql.Scalars;
 import graphql.schema.GraphQLEnumType;
+import graphql.schema.GraphQLInputObjectField;
 import graphql.schema.GraphQLInputObjectType;
 import graphql.schema.GraphQLList;
 import graphql.schema.GraphQLNonNull;
+import graphql.schema.GraphQLSchema;
 import graphql.schema.GraphQLType;
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -29,6 +44,36 @@ public class GraphQLInputMapperTest {
 
   private GraphQLEnumType myEnumType = GraphQLEnumType.newEnum().name("MyEnum").build();
 
+  private GraphQLInputObjectType myAddressType =
+      GraphQLInputObjectType.newInputObject()
+          .name("MyAddress")
+          .field(
+              GraphQLInputObjectField.newInputObjectField()
+                  .name("city")
+                  .type(Scalars.GraphQLString))
+          .build();
+
+  private GraphQLInputObjectType myImmutableType =
+      GraphQLInputObjectType.newInputObject()
+          .name("MyImmutable")
+          .field(
+              GraphQLInputObjectField.newInputObjectField()
+                  .name("name")
+                  .type(Scalars.GraphQLString))
+          .field(
+              GraphQLInputObjectField.newInputObjectField().name("count").type(Scalars.GraphQLInt))
+          .field(GraphQLInputObjectField.newInputObjectField().name("kind").type(myEnumType))
+          .field(GraphQLInputObjectField.newInputObjectField().name("address").type(myAddressType))
+          .field(
+              GraphQLInputObjectField.newInputObjectField()
+                  .name("previous")
+                  .type(new GraphQLList(new GraphQLNonNull(myAddressType))))
+          .field(
+              GraphQLInputObjectField.newInputObjectField()
+                  .name("ids")
+                  .type(new GraphQLList(Scalars.GraphQLID)))
+          .build();
+
   @Before
   public void setup() {
     String packageName = this.getClass().getPackage().getName();
@@ -50,6 +95,243 @@ public class GraphQLInputMapperTest {
     assertEquals(MyEnum.FIRST, actual);
   }
 
+  @Test
+  public void convertToImmutableObject() throws ClassNotFoundException {
+    Map<String, Object> map = new HashMap<>();
+    map.put("name", "home");
+    map.put("count", 3);
+    map.put("kind", "SECOND");
+    map.put("address", Map.of("city", "Portland"));
+    map.put("previous", List.of(Map.of("city", "Seattle"), Map.of("city", "Boise")));
+    map.put("ids", List.of("1", "2"));
+
+    MyImmutable actual = mapper.convert(map, new GraphQLNonNull(myImmutableType));
+
+    assertEquals("home", actual.getName());
+    assertEquals(3L, actual.getCount());
+    assertEquals(MyEnum.SECOND, actual.getKind());
+    assertEquals(new MyAddress("Portland"), actual.getAddress());
+    assertEquals(List.of(new MyAddress("Seattle"), new MyAddress("Boise")), actual.getPrevious());
+    assertEquals(List.of(1L, 2L), actual.getIds());
+  }
+
+  @Test
+  public void convertToImmutableObjectWithMissingFields() throws ClassNotFoundException {
+    MyImmutable actual = mapper.convert(Map.of("name", "home"), myImmutableType);
+
+    assertEquals("home", actual.getName());
+    assertEquals(0L, actual.getCount());
+    assertEquals(null, actual.getAddress());
+    assertEquals(null, actual.getPrevious());
+  }
+
+  @Test
+  public void convertListOfImmutableObjects() throws ClassNotFoundException {
+    List<Map<String, Object>> list = new ArrayList<>();
+    list.add(Map.of("city", "Portland"));
+    list.add(null);
+
+    List<MyAddress> actual = mapper.convert(list, new GraphQLList(myAddressType));
+
+    List<MyAddress> expected = new ArrayList<>();
+    expected.add(new MyAddress("Portland"));
+    expected.add(null);
+    assertEquals(expected, actual);
+    assertEquals(
+        new MyAddress("Boise"),
+        mapper
+            .<MyAddress>convertStream(
+                List.of(Map.of("city", "Boise")), new GraphQLList(myAddressType))
+            .findFirst()
+            .get());
+  }
+
+  @Test
+  public void convertToImmutableObjectWithSetField() throws ClassNotFoundException {
+    GraphQLInputObjectType myRouteType =
+        GraphQLInputObjectType.newInputObject()
+            .name("MyRoute")
+            .field(
+                GraphQLInputObjectField.newInputObjectField()
+                    .name("kinds")
+                    .type(new GraphQLList(myEnumType)))
+            .build();
+
+    MyRoute actual =
+        mapper.convert(Map.of("kinds", List.of("FIRST", "THIRD", "FIRST")), myRouteType);
+
+    assertEquals(Set.of(MyEnum.FIRST, MyEnum.THIRD), actual.getKinds());
+  }
+
+  @Test
+  public void convertToImmutableObjectWithUnmappedNestedInput() throws ClassNotFoundException {
+    GraphQLInputObjectType optionsType =
+        GraphQLInputObjectType.newInputObject()
+            .name("NoSuchOptions")
+            .field(
+                GraphQLInputObjectField.newInputObjectField()
+                    .name("verbose")
+                    .type(Scalars.GraphQLBoolean))
+            .build();
+    GraphQLInputObjectType myNestedType =
+        GraphQLInputObjectType.newInputObject()
+            .name("MyNested")
+            .field(
+                GraphQLInputObjectField.newInputObjectField()
+                    .name("name")
+                    .type(Scalars.GraphQLString))
+            .field(GraphQLInputObjectField.newInputObjectField().name("options").type(optionsType))
+            .build();
+
+    MyNested actual =
+        mapper.convert(Map.of("name", "home", "options", Map.of("verbose", true)), myNestedType);
+
+    assertEquals("home", actual.getName());
+    assertEquals(Map.of("verbose", true), actual.getOptions());
+  }
+
+  @Test
+  public void convertToImmutableObjectWithUnmappedNestedEnum() throws ClassNotFoundException {
+    GraphQLEnumType statusType =
+        GraphQLEnumType.newEnum().name("NoSuchStatus").value("ACTIVE").value("CLOSED").build();
+    GraphQLInputObjectType myFilteredType =
+        GraphQLInputObjectType.newInputObject()
+            .name("MyFiltered")
+            .field(GraphQLInputObjectField.newInputObjectField().name("status").type(statusType))
+            .field(
+                GraphQLInputObjectField.newInputObjectField()
+                    .name("limit")
+                    .type(Scalars.GraphQLInt))
+            .build();
+
+    MyFiltered actual = mapper.convert(Map.of("status", "ACTIVE", "limit", 5), myFilteredType);
+
+    assertEquals("ACTIVE", actual.getStatus());
+    assertEquals(5, actual.getLimit());
+  }
+
+  @Test
+  public void convertToImmutableObjectWithJacksonAnnotations() throws ClassNotFoundException {
+    GraphQLInputObjectType myRenamedType =
+        GraphQLInputObjectType.newInputObject()
+            .name("MyRenamed")
+            .field(
+                GraphQLInputObjectField.newInputObjectField()
+                    .name("full_name")
+                    .type(Scalars.GraphQLString))
+            .field(
+                GraphQLInputObjectField.newInputObjectField()
+                    .name("count")
+                    .type(Scalars.GraphQLInt))
+            .build();
+
+    MyRenamed actual = mapper.convert(Map.of("full_name", "alice", "count", 2), myRenamedType);
+
+    assertEquals("alice", actual.getName());
+    assertEquals(2, actual.getCount());
+  }
+
+  @Test
+  public void convertWithCustomObjectMapperUsesJackson() throws ClassNotFoundException {
+    ObjectMapper objectMapper =
+        new ObjectMapper()
+            .registerModule(
+                new SimpleModule()
+                    .addDeserializer(
+                        MyAddress.class,
+                        new JsonDeserializer<MyAddress>() {
+                          @Override
+                          public MyAddress deserialize(JsonParser parser, DeserializationContext c)
+                              throws IOException {
+                            JsonNode node = parser.readValueAsTree();
+                            return new MyAddress(node.get("city").asText().toUpperCase());
+                          }
+                        }));
+    GraphQLInputMapper custom =
+        new GraphQLInputMapper(this.getClass().getPackage().getName(), objectMapper);
+
+    MyAddress actual = custom.convert(Map.of("city", "Portland"), myAddressType);
+    assertEquals(new MyAddress("PORTLAND"), actual);
+  }
+
+  @Test
+  public void builderSearchesPackagesInOrder() throws ClassNotFoundException {
+    GraphQLInputMapper built =
+        GraphQLInputMapper.newGraphQLInputMapper()
+            .packageName("com.newrelic.graphql.missing")
+            .packageName(this.getClass().getPackage().getName())
+            .build();
+
+    MyEnum actual = built.convert("THIRD", myEnumType);
+    assertEquals(MyEnum.THIRD, actual);
+  }
+
+  @Test
+  public void builderUsesTypeOverrides() throws ClassNotFoundException {
+    GraphQLInputMapper built =
+        GraphQLInputMapper.newGraphQLInputMapper().type("Location", MyAddress.class).build();
+    GraphQLInputObjectType locationType =
+        GraphQLInputObjectType.newInputObject()
+            .name("Location")
+            .field(
+                GraphQLInputObjectField.newInputObjectField()
+                    .name("city")
+                    .type(Scalars.GraphQLString))
+            .build();
+
+    MyAddress actual = built.convert(Map.of("city", "Portland"), locationType);
+    assertEquals(new MyAddress("Portland"), actual);
+    assertThrows(ClassNotFoundException.class, () -> built.convert("FIRST", myEnumType));
+  }
+
+  @Test
+  public void builderValidatesSchemaInputTypes() {
+    GraphQLSchema schema =
+        new SimpleGraphQLBuilder(
+                new StringReader(
+                    "enum Output { A } input MyAddress { city: String } input Unknown { a: Int } "
+                        + "type Query { find(a: MyAddress, b: Unknown): Output }"))
+            .build()
+            .getGraphQLSchema();
+
+    GraphQLInputMapper.Builder builder =
+        GraphQLInputMapper.newGraphQLInputMapper()
+            .packageName(this.getClass().getPackage().getName())
+            .schema(schema);
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, builder::build);
+    assertTrue(e.getMessage().contains("[Unknown]"));
+
+    builder.type("Unknown", MyObject.class).build();
+  }
+
+  @Test
+  public void nullPackageFailsOnConversion() throws ClassNotFoundException {
+    GraphQLInputMapper nullPackage = new GraphQLInputMapper(null);
+
+    assertEquals("Howdy", nullPackage.convert("Howdy", Scalars.GraphQLString));
+    assertThrows(ClassNotFoundException.class, () -> nullPackage.convert("FIRST", myEnumType));
+  }
+
+  @Test
+  public void builderNeedsPackageOrOverride() {
+    assertThrows(
+        IllegalArgumentException.class, () -> GraphQLInputMapper.newGraphQLInputMapper().build());
+  }
+
+  @Test
+  public void convertListOfEnums() throws ClassNotFoundException {
+    List<MyEnum> actual =
+        mapper.convert(
+            List.of("FIRST", MyEnum.THIRD), new GraphQLNonNull(new GraphQLList(myEnumType)));
+
+    assertEquals(List.of(MyEnum.FIRST, MyEnum.THIRD), actual);
+  }
+
+  @Test
+  public void convertUnknownEnumValue() {
+    assertThrows(IllegalArgumentException.class, () -> mapper.convert("FOURTH", myEnumType));
+  }
+
   @Test
   public void convertToObject() throws ClassNotFoundException {
     Map<String, String> map = new HashMap<>();
@@ -169,6 +451,76 @@ public class GraphQLInputMapperTest {
     assertEquals(list, actual);
   }
 
+  @Test
+  public void convertStreamOfObjects() throws ClassNotFoundException {
+    List<Map<String, String>> list = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      Map<String, String> map = new HashMap<>();
+      map.put("v1", String.valueOf(i));
+      map.put("v2", "2");
+      list.add(map);
+    }
+
+    List<MyObject> actual =
+        mapper
+            .<MyObject>convertStream(list, new GraphQLNonNull(new GraphQLList(myObjectType)))
+            .collect(Collectors.toList());
+
+    assertEquals(5, actual.size());
+    assertEquals(new MyObject("4", "2"), actual.get(4));
+  }
+
+  @Test
+  public void convertStreamOfScalars() throws ClassNotFoundException {
+    List<String> list = List.of("hi", "there");
+
+    List<String> actual =
+        mapper
+            .<String>convertStream(list, new GraphQLList(Scalars.GraphQLString))
+            .collect(Collectors.toList());
+
+    assertEquals(list, actual);
+  }
+
+  @Test
+  public void convertStreamRequiresList() {
+    assertThrows(
+        IllegalArgumentException.class, () -> mapper.convertStream(List.of(), myObjectType));
+  }
+
+  @Test
+  public void convertChunksOfEnums() throws ClassNotFoundException {
+    List<String> list = List.of("FIRST", "SECOND", "THIRD", "FIRST", "SECOND");
+    List<List<MyEnum>> chunks = new ArrayList<>();
+
+    mapper.<MyEnum>convertChunks(list, new GraphQLList(myEnumType), 2, false, chunks::add);
+
+    assertEquals(3, chunks.size());
+    assertEquals(List.of(MyEnum.FIRST, MyEnum.SECOND), chunks.get(0));
+    assertEquals(List.of(MyEnum.SECOND), chunks.get(2));
+  }
+
+  @Test
+  public void convertChunksInParallel() throws ClassNotFoundException {
+    List<String> list = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      list.add("THIRD");
+    }
+    AtomicInteger count = new AtomicInteger();
+
+    mapper.<MyEnum>convertChunks(
+        list,
+        new GraphQLList(myEnumType),
+        64,
+        true,
+        chunk -> {
+          assertTrue(chunk.size() <= 64);
+          count.addAndGet(chunk.size());
+        });
+
+    assertEquals(1000, count.get());
+  }
+
   @Test
   public void wrench() {
     GraphQLType unsupportedGraphQLType =
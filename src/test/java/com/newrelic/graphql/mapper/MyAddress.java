@@ -0,0 +1,29 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.mapper;
+
+import java.util.Objects;
+
+public class MyAddress {
+  private final String city;
+
+  public MyAddress(String city) {
+    this.city = city;
+  }
+
+  public String getCity() {
+    return city;
+  }
+
+  @Override
+  public boolean equals(Object item) {
+    return item instanceof MyAddress && Objects.equals(city, ((MyAddress) item).city);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(city);
+  }
+}
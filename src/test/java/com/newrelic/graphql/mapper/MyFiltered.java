@@ -0,0 +1,23 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.mapper;
+
+public class MyFiltered {
+  private final String status;
+  private final int limit;
+
+  public MyFiltered(String status, int limit) {
+    this.status = status;
+    this.limit = limit;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+}
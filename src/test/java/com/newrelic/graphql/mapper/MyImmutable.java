@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.mapper;
+
+import java.util.List;
+
+public class MyImmutable {
+  private final String name;
+  private final long count;
+  private final MyEnum kind;
+  private final MyAddress address;
+  private final List<MyAddress> previous;
+  private final List<Long> ids;
+
+  public MyImmutable(
+      String name,
+      long count,
+      MyEnum kind,
+      MyAddress address,
+      List<MyAddress> previous,
+      List<Long> ids) {
+    this.name = name;
+    this.count = count;
+    this.kind = kind;
+    this.address = address;
+    this.previous = previous;
+    this.ids = ids;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public MyEnum getKind() {
+    return kind;
+  }
+
+  public MyAddress getAddress() {
+    return address;
+  }
+
+  public List<MyAddress> getPrevious() {
+    return previous;
+  }
+
+  public List<Long> getIds() {
+    return ids;
+  }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.mapper;
+
+import java.util.Map;
+
+public class MyNested {
+  private final String name;
+  private final Map<String, Object> options;
+
+  public MyNested(String name, Map<String, Object> options) {
+    this.name = name;
+    this.options = options;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Map<String, Object> getOptions() {
+    return options;
+  }
+}
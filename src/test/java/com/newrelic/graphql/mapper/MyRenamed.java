@@ -0,0 +1,25 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.mapper;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class MyRenamed {
+  private final String name;
+  private final int count;
+
+  public MyRenamed(@JsonProperty("full_name") String name, @JsonProperty("count") int count) {
+    this.name = name;
+    this.count = count;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getCount() {
+    return count;
+  }
+}
@@ -0,0 +1,19 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.mapper;
+
+import java.util.Set;
+
+public class MyRoute {
+  private final Set<MyEnum> kinds;
+
+  public MyRoute(Set<MyEnum> kinds) {
+    this.kinds = kinds;
+  }
+
+  public Set<MyEnum> getKinds() {
+    return kinds;
+  }
+}
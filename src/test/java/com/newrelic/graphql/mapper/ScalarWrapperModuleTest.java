@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.mapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.newrelic.graphql.schema.scalars.DateTime;
+import com.newrelic.graphql.schema.scalars.DurationWrapper;
+import com.newrelic.graphql.schema.scalars.EpochMilliseconds;
+import com.newrelic.graphql.schema.scalars.Minutes;
+import com.newrelic.graphql.schema.scalars.PredefinedScalars;
+import com.newrelic.graphql.schema.scalars.Seconds;
+import graphql.schema.GraphQLInputObjectType;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class ScalarWrapperModuleTest {
+
+  private final ObjectMapper json =
+      JsonMapper.builder().addModule(new ScalarWrapperModule()).build();
+  private final GraphQLInputMapper mapper =
+      new GraphQLInputMapper(this.getClass().getPackage().getName());
+
+  @Test
+  public void conversionPassesWrapperThrough() throws ClassNotFoundException {
+    EpochMilliseconds millis = new EpochMilliseconds(1000L);
+    assertSame(millis, mapper.convert(millis, PredefinedScalars.EpochMilliseconds));
+  }
+
+  @Test
+  public void conversionPassesDateTimeThrough() throws ClassNotFoundException {
+    DateTime dateTime = new DateTime(ZonedDateTime.parse("1978-09-01T10:15:30-09:00"));
+    assertSame(dateTime, mapper.convert(dateTime, PredefinedScalars.DateTime));
+  }
+
+  @Test
+  public void writesRawNumbers() throws Exception {
+    assertEquals("1000", json.writeValueAsString(new EpochMilliseconds(1000L)));
+    assertEquals("1.5", json.writeValueAsString(new Seconds(1.5)));
+  }
+
+  @Test
+  public void writesDateTimeStrings() throws Exception {
+    String value = "1978-09-01T10:15:30-09:00";
+    assertEquals(
+        "\"" + value + "\"", json.writeValueAsString(new DateTime(ZonedDateTime.parse(value))));
+  }
+
+  @Test
+  public void readsRawNumbers() throws Exception {
+    assertEquals(new Minutes(25L), json.readValue("25", Minutes.class));
+    assertEquals(new Seconds(1.5), json.readValue("1.5", Seconds.class));
+  }
+
+  @Test
+  public void readsDateTimeStrings() throws Exception {
+    String value = "1978-09-01T10:15:30-09:00";
+    assertEquals(
+        new DateTime(ZonedDateTime.parse(value)),
+        json.readValue("\"" + value + "\"", DateTime.class));
+  }
+
+  @Test
+  public void readsLegacyBeanForm() throws Exception {
+    assertEquals(new Minutes(25L), json.readValue("{\"rawValue\": 25}", Minutes.class));
+    assertEquals(
+        new DateTime(ZonedDateTime.parse("1978-09-01T10:15:30-09:00")),
+        json.readValue("{\"dateTime\": \"1978-09-01T10:15:30-09:00\"}", DateTime.class));
+  }
+
+  @Test
+  public void conversionKeepsBeanFormForOtherWrappers() throws ClassNotFoundException {
+    Map<String, Object> raw = new HashMap<>();
+    raw.put("delay", new MyDelay(5L));
+    raw.put("millis", new EpochMilliseconds(1000L));
+
+    MyDelayContainer actual = mapper.convert(raw, MyDelayContainer.GraphQLType);
+
+    assertEquals(new MyDelay(5L), actual.delay);
+    assertEquals(new EpochMilliseconds(1000L), actual.millis);
+  }
+}
+
+class MyDelay extends DurationWrapper<MyDelay> {
+  MyDelay(Number value) {
+    super(value, n -> Duration.ofSeconds(n.longValue()));
+  }
+
+  @JsonCreator
+  private MyDelay(Map<String, Object> props) {
+    this(rawValueFromProps(props));
+  }
+}
+
+class MyDelayContainer {
+  public static final GraphQLInputObjectType GraphQLType =
+      GraphQLInputObjectType.newInputObject().name("MyDelayContainer").build();
+
+  public final MyDelay delay;
+  public final EpochMilliseconds millis;
+
+  public MyDelayContainer(
+      @JsonProperty("delay") MyDelay delay, @JsonProperty("millis") EpochMilliseconds millis) {
+    this.delay = delay;
+    this.millis = millis;
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
+
+import graphql.ExecutionResult;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.schema.GraphQLInputObjectType;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Test;
+
+public class SchemaVariantsTest {
+  private static final String schema =
+      "directive @visibleTo(roles: [String!]!) on FIELD_DEFINITION | INPUT_FIELD_DEFINITION "
+          + "type Query { account: Account, billing: Billing @visibleTo(roles: [\"enterprise\"]) } "
+          + "type Account { name: String, seats(filter: Filter): Int } "
+          + "type Billing { plan: String } "
+          + "input Filter { active: Boolean, region: String @visibleTo(roles: [\"enterprise\"]) }";
+
+  private SimpleGraphQLBuilder builder() {
+    return new SimpleGraphQLBuilder(new StringReader(schema))
+        .fetcher("Query", "account", env -> Map.of("name", "acme"))
+        .fetcher("Query", "billing", env -> Map.of("plan", "gold"))
+        .fetcher("Account", "seats", env -> 3);
+  }
+
+  @Test
+  public void prunesFieldsByDirective() {
+    SchemaVariants variants =
+        builder().variantsByDirective("visibleTo", "roles", "free", "enterprise").buildVariants();
+
+    ExecutionResult free =
+        variants.forRole("free").execute("{ account { name } billing { plan } }");
+    assertThat(free.getErrors().size(), is(1));
+    assertThat(free.getErrors().get(0).getMessage(), containsString("billing"));
+
+    ExecutionResult enterprise =
+        variants.forRole("enterprise").execute("{ account { name seats } billing { plan } }");
+    assertThat(enterprise.getErrors(), is(List.of()));
+    assertThat(
+        enterprise.getData(),
+        is(
+            (Object)
+                Map.of(
+                    "account", Map.of("name", "acme", "seats", 3),
+                    "billing", Map.of("plan", "gold"))));
+    assertThat(variants.getRoles(), is(Set.of("free", "enterprise")));
+  }
+
+  @Test
+  public void configuresEachVariantBuilder() {
+    Map<String, Map<String, PreparsedDocumentEntry>> documents = new ConcurrentHashMap<>();
+    SchemaVariants variants =
+        builder()
+            .variantsByDirective("visibleTo", "roles", "free", "enterprise")
+            .buildVariants(
+                (role, builder) -> {
+                  Map<String, PreparsedDocumentEntry> cache = new ConcurrentHashMap<>();
+                  documents.put(String.valueOf(role), cache);
+                  builder.preparsedDocumentProvider(
+                      (input, parse) ->
+                          cache.computeIfAbsent(input.getQuery(), q -> parse.apply(input)));
+                });
+    String query = "{ billing { plan } }";
+
+    assertThat(variants.forRole("enterprise").execute(query).getErrors(), is(List.of()));
+    assertThat(variants.forRole("free").execute(query).getErrors().size(), is(1));
+    assertThat(variants.getFull().execute(query).getErrors(), is(List.of()));
+    assertThat(documents.keySet(), is(Set.of("free", "enterprise", "null")));
+    assertThat(documents.get("free").size(), is(1));
+  }
+
+  @Test
+  public void removesUnreachableTypesAndInputFields() {
+    SchemaVariants variants =
+        builder().variantsByDirective("visibleTo", "roles", "free").buildVariants();
+
+    GraphQLSchema free = variants.forRole("free").getGraphQLSchema();
+    assertThat(free.getType("Billing"), is(nullValue()));
+    assertThat(free.getType("Account"), is(notNullValue()));
+    assertThat(
+        ((GraphQLInputObjectType) free.getType("Filter")).getField("region"), is(nullValue()));
+
+    ExecutionResult introspection =
+        variants.forRole("free").execute("{ __type(name: \"Billing\") { name } }");
+    assertThat(((Map<String, Object>) introspection.getData()).get("__type"), is(nullValue()));
+  }
+
+  @Test
+  public void keepsFullSchema() {
+    SchemaVariants variants =
+        builder().variantsByDirective("visibleTo", "roles", "free").buildVariants();
+
+    ExecutionResult result = variants.getFull().execute("{ billing { plan } }");
+
+    assertThat(result.getErrors(), is(List.of()));
+  }
+
+  @Test
+  public void prunesFieldsByCallback() {
+    SchemaVariants variants =
+        builder()
+            .variant("anonymous", env -> !"seats".equals(env.getSchemaElement().getName()))
+            .buildVariants();
+
+    GraphQLObjectType account =
+        (GraphQLObjectType) variants.forRole("anonymous").getGraphQLSchema().getType("Account");
+    assertThat(account.getFieldDefinition("seats"), is(nullValue()));
+    assertThat(account.getFieldDefinition("name"), is(notNullValue()));
+  }
+
+  @Test
+  public void rejectsUnknownRoles() {
+    SchemaVariants variants =
+        builder().variantsByDirective("visibleTo", "roles", "free").buildVariants();
+
+    assertThrows(IllegalArgumentException.class, () -> variants.forRole("admin"));
+  }
+
+  @Test
+  public void requiresVariants() {
+    assertThrows(IllegalArgumentException.class, () -> builder().buildVariants());
+  }
+}
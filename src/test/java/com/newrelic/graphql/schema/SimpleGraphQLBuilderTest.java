@@ -6,10 +6,15 @@ package com.newrelic.graphql.schema;
 
 import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertTrue;
 
+import com.newrelic.graphql.instrumentation.SelectiveChainedInstrumentation;
+import com.newrelic.graphql.schema.SchemaBuildReport.Phase;
+import com.newrelic.graphql.schema.fetchers.PropertyAccessorReport;
 import com.newrelic.graphql.schema.scalars.EpochMilliseconds;
 import com.newrelic.graphql.schema.scalars.EpochSeconds;
 import com.newrelic.graphql.schema.scalars.Milliseconds;
@@ -25,6 +30,7 @@ import graphql.execution.SimpleDataFetcherExceptionHandler;
 import graphql.execution.instrumentation.Instrumentation;
 import graphql.execution.instrumentation.InstrumentationContext;
 import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
 import graphql.scalar.GraphqlStringCoercing;
 import graphql.schema.DataFetcher;
@@ -42,6 +48,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Test;
 
 public class SimpleGraphQLBuilderTest {
@@ -555,6 +562,39 @@ public class SimpleGraphQLBuilderTest {
     assertThat(secondInstrumentationCount.get(), is(1));
   }
 
+  @Test
+  public void suppliedDataLoaderDispatcherIsNotDuplicated() {
+    DataLoaderDispatcherInstrumentation dispatcher = new DataLoaderDispatcherInstrumentation();
+
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(schema)
+            .fetcher("Query", "read", env -> "dispatched")
+            .instrumentation(List.of(dispatcher))
+            .build();
+
+    SelectiveChainedInstrumentation chain =
+        (SelectiveChainedInstrumentation) graphQL.getInstrumentation();
+    assertThat(chain.getInstrumentations(), is(List.of(dispatcher)));
+  }
+
+  @Test
+  public void dataLoaderDispatcherIsAddedLast() {
+    AtomicInteger executionCount = new AtomicInteger(0);
+    TestInstrumentation testInstrumentation = new TestInstrumentation(executionCount);
+
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(schema)
+            .fetcher("Query", "read", env -> "dispatched")
+            .instrumentation(List.of(testInstrumentation))
+            .build();
+
+    List<Instrumentation> chain =
+        ((SelectiveChainedInstrumentation) graphQL.getInstrumentation()).getInstrumentations();
+    assertThat(chain.size(), is(2));
+    assertThat(chain.get(0), is(testInstrumentation));
+    assertTrue(chain.get(1) instanceof DataLoaderDispatcherInstrumentation);
+  }
+
   @Test
   public void emptyInstrumentationSetDoesNotFail() {
     DataFetcher fetcher = env -> "no-instrumentation";
@@ -572,6 +612,102 @@ public class SimpleGraphQLBuilderTest {
     assertThat(response.getData(), is(expectedResponse("read", "no-instrumentation")));
   }
 
+  @Test
+  public void generatedPropertyFetchersReadResultClasses() {
+    DataFetcher fetcher = env -> new MyObject("1", "v");
+    AtomicReference<PropertyAccessorReport> report = new AtomicReference<>();
+
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(schemaWithInterfaces)
+            .fetcher("Query", "read", fetcher)
+            .useGeneratedPropertyFetchers(true)
+            .resultClass("MyObject", MyObject.class)
+            .propertyAccessorReport(report::set)
+            .build();
+
+    ExecutionResult response = graphQL.execute("query { read { id ... on MyObject { value }} }");
+
+    Map<String, String> map = new HashMap<>();
+    map.put("id", "1");
+    map.put("value", "v");
+
+    assertThat(response.getData(), is(expectedResponse("read", map)));
+    assertThat(report.get().isValid(), is(true));
+    assertThat(report.get().getPreparedCount(), is(2));
+  }
+
+  @Test
+  public void generatedPropertyFetchersReportMismatchedClasses() {
+    AtomicReference<PropertyAccessorReport> report = new AtomicReference<>();
+
+    new SimpleGraphQLBuilder(schemaWithUnions)
+        .useGeneratedPropertyFetchers(true)
+        .resultClass("MyObject", AnotherObject.class)
+        .resultClass("MissingObject", MyObject.class)
+        .propertyAccessorReport(report::set)
+        .build();
+
+    assertThat(report.get().isValid(), is(false));
+    assertThat(report.get().getUnknownTypes(), is(List.of("MissingObject")));
+    assertThat(report.get().getMissingProperties().size(), is(1));
+    assertThat(report.get().getMissingProperties().get(0), startsWith("MyObject.value"));
+  }
+
+  @Test
+  public void generatedPropertyFetchersReadMaps() {
+    Map<String, String> map = new HashMap<>();
+    map.put("id", "1");
+    map.put("value", "v");
+
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(schemaWithUnions)
+            .fetcher("Query", "read", env -> map)
+            .typeResolver("MyUnion", env -> env.getSchema().getObjectType("MyObject"))
+            .useGeneratedPropertyFetchers(true)
+            .build();
+
+    ExecutionResult response = graphQL.execute("query { read { ... on MyObject { id value }} }");
+
+    assertThat(response.getData(), is(expectedResponse("read", map)));
+  }
+
+  @Test
+  public void builderWithReportCountsWiring() {
+    SchemaBuildResult result =
+        new SimpleGraphQLBuilder(schemaWithUnions)
+            .fetcher("Query", "read", env -> new MyObject("1", "v"))
+            .builderWithReport();
+
+    SchemaBuildReport report = result.getReport();
+    assertThat(report.getFetcherCount(), is(1));
+    assertThat(report.getTypeResolverCount(), is(1));
+    assertThat(report.getScalarCount(), is(0));
+    assertThat(report.getFieldCount(), is(5));
+    assertThat(report.getPropertyAccessorReport(), is(nullValue()));
+
+    ExecutionResult response =
+        result.getBuilder().build().execute("query { read { ... on MyObject { id }} }");
+    assertThat(response.getData(), is(expectedResponse("read", Map.of("id", "1"))));
+  }
+
+  @Test
+  public void builderWithReportTimesPhases() {
+    SchemaBuildReport report =
+        new SimpleGraphQLBuilder(schema)
+            .useGeneratedPropertyFetchers(true)
+            .configure((registry, wiring) -> {})
+            .builderWithReport()
+            .getReport();
+
+    assertThat(report.getScalarCount(), is(2));
+    assertThat(report.getPropertyAccessorReport().isValid(), is(true));
+    assertTrue(report.getDuration(Phase.PARSE).toNanos() > 0);
+    assertTrue(report.getDuration(Phase.SCHEMA_GENERATION).toNanos() > 0);
+    assertTrue(report.getTotalDuration().compareTo(report.getDuration(Phase.PARSE)) >= 0);
+    assertTrue(report.getAllocatedBytes(Phase.SCHEMA_GENERATION) != 0);
+    assertThat(report.toString(), startsWith("SchemaBuildReport{"));
+  }
+
   static class TestInstrumentation extends SimpleInstrumentation {
     private final AtomicInteger executionCount;
 
@@ -635,6 +771,35 @@ public class SimpleGraphQLBuilderTest {
     }
   }
 
+  @Test
+  public void enumTypesUseJavaConstants() {
+    AtomicReference<Object> received = new AtomicReference<>();
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(
+                new StringReader(
+                    "enum Unit { SECONDS, MINUTES } type Query { convert(unit: Unit): Unit }"))
+            .enumType("Unit", TimeUnitName.class)
+            .fetcher(
+                "Query",
+                "convert",
+                env -> {
+                  received.set(env.getArgument("unit"));
+                  return TimeUnitName.MINUTES;
+                })
+            .build();
+
+    ExecutionResult result = graphQL.execute("{ convert(unit: SECONDS) }");
+
+    assertThat(result.getErrors(), is(List.of()));
+    assertThat(received.get(), is(TimeUnitName.SECONDS));
+    assertThat(result.getData(), is(expectedResponse("convert", "MINUTES")));
+  }
+
+  public enum TimeUnitName {
+    SECONDS,
+    MINUTES
+  }
+
   private <T> Map<String, T> expectedResponse(String key, T value) {
     Map<String, T> expected = new HashMap<>();
     expected.put(key, value);
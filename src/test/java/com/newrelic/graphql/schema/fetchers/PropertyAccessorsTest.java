@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema.fetchers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class PropertyAccessorsTest {
+
+  @Test
+  public void readsGetter() {
+    assertEquals("v", PropertyAccessors.forClass(Bean.class, "value").apply(new Bean()));
+  }
+
+  @Test
+  public void readsBooleanGetter() {
+    assertEquals(true, PropertyAccessors.forClass(Bean.class, "active").apply(new Bean()));
+  }
+
+  @Test
+  public void readsPrimitiveGetter() {
+    assertEquals(42, PropertyAccessors.forClass(Bean.class, "count").apply(new Bean()));
+  }
+
+  @Test
+  public void readsRecordStyleAccessor() {
+    assertEquals("r", PropertyAccessors.forClass(Bean.class, "recordish").apply(new Bean()));
+  }
+
+  @Test
+  public void readsField() {
+    assertEquals("f", PropertyAccessors.forClass(Bean.class, "field").apply(new Bean()));
+  }
+
+  @Test
+  public void readsNonPublicClass() {
+    assertEquals("hidden", PropertyAccessors.forClass(Hidden.class, "name").apply(new Hidden()));
+  }
+
+  @Test
+  public void readsMapKey() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("value", "m");
+    assertEquals("m", PropertyAccessors.forClass(HashMap.class, "value").apply(map));
+  }
+
+  @Test
+  public void missingPropertyIsNull() {
+    assertNull(PropertyAccessors.forClass(Bean.class, "nope"));
+  }
+
+  @Test
+  public void fetcherPreparesKnownClasses() {
+    PropertyAccessorFetcher fetcher = new PropertyAccessorFetcher("value");
+    assertTrue(fetcher.prepare(Bean.class));
+    assertFalse(fetcher.prepare(Hidden.class));
+    assertEquals("v", fetcher.get(null, new Bean(), null));
+    assertNull(fetcher.get(null, new Hidden(), null));
+    assertNull(fetcher.get(null, null, null));
+  }
+
+  public static class Bean {
+    public final String field = "f";
+
+    public String getValue() {
+      return "v";
+    }
+
+    public boolean isActive() {
+      return true;
+    }
+
+    public int getCount() {
+      return 42;
+    }
+
+    public String recordish() {
+      return "r";
+    }
+  }
+
+  static class Hidden {
+    private String getName() {
+      return "hidden";
+    }
+  }
+}
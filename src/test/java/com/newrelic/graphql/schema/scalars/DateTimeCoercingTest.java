@@ -14,6 +14,7 @@ import graphql.language.StringValue;
 import graphql.schema.CoercingParseLiteralException;
 import graphql.schema.CoercingParseValueException;
 import graphql.schema.CoercingSerializeException;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
 import org.junit.Test;
@@ -89,12 +90,24 @@ public class DateTimeCoercingTest {
     assertEquals(zonedString, actual);
   }
 
+  @Test
+  public void serializeZonedDateTime() {
+    assertEquals(zonedString, new DateTimeCoercing().serialize(zonedExample));
+  }
+
+  @Test
+  public void serializeInstant() {
+    Instant instant = zonedExample.toInstant();
+    String actual = new DateTimeCoercing().serialize(instant);
+    assertEquals(instant, ZonedDateTime.parse(actual).toInstant());
+  }
+
   @Test
   public void serializeInvalidType() {
     CoercingSerializeException thrown =
         assertThrows(
             CoercingSerializeException.class, () -> new DateTimeCoercing().serialize(new Object()));
-    assertThat(thrown.getCause(), instanceOf(ClassCastException.class));
+    assertThat(thrown.getMessage(), containsString("'Object'"));
   }
 
   @Test
@@ -102,6 +115,13 @@ public class DateTimeCoercingTest {
     CoercingSerializeException thrown =
         assertThrows(
             CoercingSerializeException.class, () -> new DateTimeCoercing().serialize(null));
-    assertThat(thrown.getCause(), instanceOf(NullPointerException.class));
+    assertThat(thrown.getMessage(), containsString("null"));
+  }
+
+  @Test
+  public void serializeEmptyDateTime() {
+    assertThrows(
+        CoercingSerializeException.class,
+        () -> new DateTimeCoercing().serialize(new DateTime((ZonedDateTime) null)));
   }
 }
@@ -6,13 +6,17 @@ package com.newrelic.graphql.schema.scalars;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.newrelic.graphql.mapper.GraphQLInputMapper;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingSerializeException;
 import graphql.schema.GraphQLInputObjectType;
 import graphql.schema.GraphQLList;
 import java.time.Instant;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -51,6 +55,31 @@ public class EpochMillisecondsTest {
     assertEquals(Instant.ofEpochSecond(0, 1233999L), floating.getInstant());
   }
 
+  @Test
+  public void serializeRawInstants() {
+    Coercing<EpochMilliseconds, Number> coercing = EpochMilliseconds.getCoercing();
+    Instant instant = Instant.ofEpochMilli(1580488444901L);
+
+    assertEquals(1580488444901L, coercing.serialize(instant));
+    assertEquals(1580488444901L, coercing.serialize(instant.atZone(ZoneId.of("America/Denver"))));
+    assertEquals(1580488444901.5, coercing.serialize(instant.plusNanos(500_000)));
+    assertEquals(-1L, coercing.serialize(Instant.ofEpochMilli(-1L)));
+  }
+
+  @Test
+  public void serializeRawInstantsOutOfRange() {
+    Coercing<EpochMilliseconds, Number> coercing = EpochMilliseconds.getCoercing();
+
+    assertThrows(CoercingSerializeException.class, () -> coercing.serialize(Instant.MAX));
+    assertThrows(CoercingSerializeException.class, () -> coercing.serialize(Instant.MIN));
+    assertThrows(
+        CoercingSerializeException.class,
+        () -> coercing.serialize(Instant.ofEpochSecond(10_000_000_000_000_000L)));
+    assertEquals(
+        Instant.ofEpochMilli(Long.MAX_VALUE).toEpochMilli(),
+        coercing.serialize(Instant.ofEpochMilli(Long.MAX_VALUE)));
+  }
+
   @Test
   public void convertToScalarFromInstanceOfSelf() throws ClassNotFoundException {
     Object actual =
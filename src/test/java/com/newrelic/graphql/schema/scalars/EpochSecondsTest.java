@@ -10,9 +10,11 @@ import static org.junit.Assert.assertTrue;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.newrelic.graphql.mapper.GraphQLInputMapper;
+import graphql.schema.Coercing;
 import graphql.schema.GraphQLInputObjectType;
 import graphql.schema.GraphQLList;
 import java.time.Instant;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -50,6 +52,19 @@ public class EpochSecondsTest {
     assertEquals(Instant.ofEpochSecond(1, 233999999L), floating.getInstant());
   }
 
+  @Test
+  public void serializeRawInstants() {
+    Coercing<EpochSeconds, Number> coercing = EpochSeconds.getCoercing();
+    Instant instant = Instant.ofEpochSecond(1580725125L);
+
+    assertEquals(1580725125L, coercing.serialize(instant));
+    assertEquals(1580725125L, coercing.serialize(instant.atZone(ZoneId.of("UTC"))));
+    assertEquals(1580725125.25, coercing.serialize(instant.plusMillis(250)));
+    assertEquals(1580725125L, coercing.serialize(1580725125L));
+    assertEquals(Instant.MIN.getEpochSecond(), coercing.serialize(Instant.MIN));
+    assertEquals(Instant.MAX.getEpochSecond() + 0.999999999, coercing.serialize(Instant.MAX));
+  }
+
   @Test
   public void convertToScalarFromInstanceOfSelf() throws ClassNotFoundException {
     Object actual = mapper.convert(new EpochSeconds(1000), PredefinedScalars.EpochSeconds);
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema.scalars;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import com.newrelic.graphql.schema.SimpleGraphQLBuilder;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.language.FloatValue;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class Int64Test {
+  private static final long big = 9_007_199_254_740_993L;
+
+  private final Coercing<Int64, Number> coercing = Int64.getCoercing();
+  private final Coercing<Int64ID, String> idCoercing = Int64ID.getCoercing();
+
+  @Test
+  public void parsesNumbersAndNumericStrings() {
+    assertEquals(big, coercing.parseValue(big).longValue());
+    assertEquals(42L, coercing.parseValue(42).longValue());
+    assertEquals(big, coercing.parseValue(Long.toString(big)).longValue());
+    assertEquals(-7L, coercing.parseValue(-7.0).longValue());
+    assertEquals(big, coercing.parseValue(BigInteger.valueOf(big)).longValue());
+    assertEquals(3L, coercing.parseValue(new BigDecimal("3.00")).longValue());
+  }
+
+  @Test
+  public void rejectsNonIntegers() {
+    assertThrows(CoercingParseValueException.class, () -> coercing.parseValue(1.5));
+    assertThrows(CoercingParseValueException.class, () -> coercing.parseValue("1.5"));
+    assertThrows(CoercingParseValueException.class, () -> coercing.parseValue("abc"));
+    assertThrows(CoercingParseValueException.class, () -> coercing.parseValue(1e19));
+    assertThrows(
+        CoercingParseValueException.class, () -> coercing.parseValue(BigInteger.ONE.shiftLeft(63)));
+    assertThrows(CoercingParseValueException.class, () -> coercing.parseValue(true));
+  }
+
+  @Test
+  public void parsesLiterals() {
+    assertEquals(big, coercing.parseLiteral(new IntValue(BigInteger.valueOf(big))).longValue());
+    assertEquals(big, coercing.parseLiteral(new StringValue(Long.toString(big))).longValue());
+    assertThrows(
+        CoercingParseLiteralException.class,
+        () -> coercing.parseLiteral(new IntValue(BigInteger.ONE.shiftLeft(64))));
+    assertThrows(
+        CoercingParseLiteralException.class,
+        () -> coercing.parseLiteral(new FloatValue(BigDecimal.ONE)));
+  }
+
+  @Test
+  public void serializesRawValues() {
+    assertEquals(big, coercing.serialize(new Int64(big)));
+    assertEquals(big, coercing.serialize(big));
+    assertEquals(5L, coercing.serialize(5));
+    assertEquals(big, coercing.serialize(Long.toString(big)));
+    assertThrows(CoercingSerializeException.class, () -> coercing.serialize("abc"));
+  }
+
+  @Test
+  public void idsSerializeAsStrings() {
+    assertEquals(Long.toString(big), idCoercing.serialize(new Int64ID(big)));
+    assertEquals(Long.toString(big), idCoercing.serialize(big));
+    assertEquals("12", idCoercing.serialize("12"));
+    assertThrows(CoercingSerializeException.class, () -> idCoercing.serialize("abc"));
+  }
+
+  @Test
+  public void idsParseStringsAndNumbers() {
+    assertEquals(big, idCoercing.parseValue(Long.toString(big)).longValue());
+    assertEquals(big, idCoercing.parseValue(big).longValue());
+    assertEquals(big, idCoercing.parseLiteral(new StringValue(Long.toString(big))).longValue());
+    assertEquals(big, idCoercing.parseLiteral(new IntValue(BigInteger.valueOf(big))).longValue());
+    assertThrows(
+        CoercingParseLiteralException.class, () -> idCoercing.parseLiteral(new StringValue("x")));
+  }
+
+  @Test
+  public void executesWithPredefinedScalars() {
+    AtomicReference<Object> received = new AtomicReference<>();
+    GraphQL graphQL =
+        new SimpleGraphQLBuilder(
+                new StringReader(
+                    "scalar Int64 scalar Int64ID "
+                        + "type Query { account(id: Int64ID): Int64ID, usage: Int64 }"))
+            .fetcher(
+                "Query",
+                "account",
+                env -> {
+                  received.set(env.getArgument("id"));
+                  return ((Int64ID) env.getArgument("id")).longValue();
+                })
+            .fetcher("Query", "usage", env -> big)
+            .build();
+
+    ExecutionResult result = graphQL.execute("{ account(id: \"" + big + "\") usage }");
+
+    assertEquals(List.of(), result.getErrors());
+    assertEquals(new Int64ID(big), received.get());
+    assertEquals(Map.of("account", Long.toString(big), "usage", big), result.getData());
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema.scalars;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.GraphQLScalarType;
+import java.math.BigInteger;
+import org.junit.Test;
+
+public class LiteralCacheTest {
+
+  @Test
+  public void numberLiteralsShareWrappers() {
+    NumberCoercing<EpochMilliseconds> coercing =
+        ((NumberCoercing<EpochMilliseconds>) EpochMilliseconds.getCoercing()).cacheLiterals(10);
+
+    EpochMilliseconds first = coercing.parseLiteral(new IntValue(BigInteger.valueOf(1000L)));
+    EpochMilliseconds second = coercing.parseLiteral(new IntValue(BigInteger.valueOf(1000L)));
+
+    assertSame(first, second);
+    assertEquals(new EpochMilliseconds(1000L), first);
+    assertEquals(1, coercing.getLiteralCache().getHitCount());
+    assertEquals(1, coercing.getLiteralCache().getMissCount());
+    assertEquals(0.5, coercing.getLiteralCache().getHitRate(), 0.0001);
+  }
+
+  @Test
+  public void stringAndIntLiteralsDoNotCollide() {
+    NumberCoercing<EpochSeconds> coercing =
+        ((NumberCoercing<EpochSeconds>) EpochSeconds.getCoercing()).cacheLiterals(10);
+
+    coercing.parseLiteral(new IntValue(BigInteger.ONE));
+    coercing.parseLiteral(new StringValue("1"));
+
+    assertEquals(2, coercing.getLiteralCache().size());
+    assertEquals(0, coercing.getLiteralCache().getHitCount());
+  }
+
+  @Test
+  public void stringLiteralsShareWrappers() {
+    DateTimeCoercing coercing = new DateTimeCoercing();
+    coercing.cacheLiterals(10);
+
+    DateTime first = coercing.parseLiteral(new StringValue("1978-09-01T10:15:30-09:00"));
+    DateTime second = coercing.parseLiteral(new StringValue("1978-09-01T10:15:30-09:00"));
+
+    assertSame(first, second);
+    assertEquals(1, coercing.getLiteralCache().getHitCount());
+  }
+
+  @Test
+  public void failuresAreNotCached() {
+    DateTimeCoercing coercing = new DateTimeCoercing();
+    coercing.cacheLiterals(10);
+
+    assertThrows(
+        CoercingParseLiteralException.class,
+        () -> coercing.parseLiteral(new StringValue("not a date")));
+    assertEquals(0, coercing.getLiteralCache().size());
+  }
+
+  @Test
+  public void cacheIsBounded() {
+    LiteralCache<String> cache = new LiteralCache<>(2);
+    cache.put("a", "a");
+    cache.put("b", "b");
+    cache.put("c", "c");
+
+    assertEquals(2, cache.size());
+    assertEquals("c", cache.get("c"));
+  }
+
+  @Test
+  public void cachingIsOffByDefault() {
+    assertNull(((NumberCoercing<?>) EpochSeconds.getCoercing()).getLiteralCache());
+    assertNull(new DateTimeCoercing().getLiteralCache());
+  }
+
+  @Test
+  public void predefinedScalarWithLiteralCache() {
+    GraphQLScalarType cached = PredefinedScalars.withLiteralCache("EpochMilliseconds", 10);
+
+    assertEquals("EpochMilliseconds", cached.getName());
+    assertNotSame(PredefinedScalars.EpochMilliseconds.getCoercing(), cached.getCoercing());
+    assertEquals(10, ((NumberCoercing<?>) cached.getCoercing()).getLiteralCache().getMaxSize());
+  }
+
+  @Test
+  public void unknownPredefinedScalarWithLiteralCache() {
+    assertThrows(
+        IllegalArgumentException.class, () -> PredefinedScalars.withLiteralCache("Nope", 10));
+  }
+}
@@ -10,6 +10,7 @@ import static org.junit.Assert.assertTrue;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.newrelic.graphql.mapper.GraphQLInputMapper;
+import graphql.schema.Coercing;
 import graphql.schema.GraphQLInputObjectType;
 import graphql.schema.GraphQLList;
 import java.time.Duration;
@@ -50,6 +51,15 @@ public class MillisecondsTest {
     assertEquals(Duration.ofSeconds(0, 1233999L), floating.getDuration());
   }
 
+  @Test
+  public void serializeRawDurations() {
+    Coercing<Milliseconds, Number> coercing = Milliseconds.getCoercing();
+
+    assertEquals(90_000L, coercing.serialize(Duration.ofSeconds(90)));
+    assertEquals(1.5, coercing.serialize(Duration.ofNanos(1_500_000)));
+    assertEquals(-5L, coercing.serialize(Duration.ofMillis(-5)));
+  }
+
   @Test
   public void convertToScalarFromInstanceOfSelf() throws ClassNotFoundException {
     Object actual = mapper.convert(new Milliseconds(1000), PredefinedScalars.Milliseconds);
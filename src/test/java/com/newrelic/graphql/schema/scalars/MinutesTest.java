@@ -8,9 +8,12 @@ import static org.junit.Assert.*;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.newrelic.graphql.mapper.GraphQLInputMapper;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingSerializeException;
 import graphql.schema.GraphQLInputObjectType;
 import graphql.schema.GraphQLList;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -48,6 +51,20 @@ public class MinutesTest {
     assertEquals(Duration.ofMinutes(1), floating.getDuration());
   }
 
+  @Test
+  public void serializeRawDurations() {
+    Coercing<Minutes, Number> coercing = Minutes.getCoercing();
+
+    assertEquals(90L, coercing.serialize(Duration.ofMinutes(90)));
+    assertEquals(1.5, coercing.serialize(Duration.ofSeconds(90)));
+    assertEquals(25, coercing.serialize(25));
+  }
+
+  @Test(expected = CoercingSerializeException.class)
+  public void serializeRejectsInstants() {
+    Minutes.getCoercing().serialize(Instant.now());
+  }
+
   @Test
   public void convertToScalarFromInstanceOfSelf() throws ClassNotFoundException {
     Object actual = mapper.convert(new Minutes(1000), PredefinedScalars.Minutes);
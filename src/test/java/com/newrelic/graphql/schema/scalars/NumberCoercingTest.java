@@ -124,6 +124,11 @@ public class NumberCoercingTest {
     assertEquals(numberWrapper.getRawValue(), actual);
   }
 
+  @Test
+  public void serializeRawNumber() {
+    assertEquals(originalValue, coercing.serialize(originalValue));
+  }
+
   @Test
   public void serializeInvalidType() {
     assertThrows(CoercingSerializeException.class, () -> coercing.serialize(new Object()));
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.schema.scalars;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import graphql.Scalars;
+import graphql.language.IntValue;
+import graphql.schema.GraphQLScalarType;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+public class PredefinedScalarsTest {
+
+  @Test
+  public void includesLibraryScalars() {
+    assertTrue(PredefinedScalars.isPredefined("EpochMilliseconds"));
+    assertTrue(PredefinedScalars.getPredefinedScalars().contains(PredefinedScalars.DateTime));
+    assertSame(PredefinedScalars.Seconds, PredefinedScalars.snapshot().get("Seconds"));
+  }
+
+  @Test
+  public void minutesCoercesToMinutes() {
+    Object minutes =
+        PredefinedScalars.Minutes.getCoercing().parseLiteral(new IntValue(BigInteger.TEN));
+    assertEquals(new Minutes(10L), minutes);
+  }
+
+  @Test
+  public void registerAddsToRegistry() {
+    List<GraphQLScalarType> before = PredefinedScalars.getPredefinedScalars();
+
+    GraphQLScalarType registered =
+        PredefinedScalars.register("RegisteredOnce", DateTimeCoercing::new);
+
+    assertSame(registered, PredefinedScalars.get("RegisteredOnce"));
+    assertFalse(before.contains(registered));
+    assertTrue(PredefinedScalars.getPredefinedScalars().contains(registered));
+  }
+
+  @Test
+  public void registerSameTypeTwiceIsAllowed() {
+    GraphQLScalarType type =
+        GraphQLScalarType.newScalar()
+            .name("RegisteredTwice")
+            .coercing(new DateTimeCoercing())
+            .build();
+
+    assertSame(type, PredefinedScalars.register(type));
+    assertSame(type, PredefinedScalars.register(type));
+  }
+
+  @Test
+  public void registerConflictingNameFails() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> PredefinedScalars.register("DateTime", DateTimeCoercing::new));
+  }
+
+  @Test
+  public void registerBuiltinFails() {
+    assertThrows(
+        IllegalArgumentException.class, () -> PredefinedScalars.register(Scalars.GraphQLString));
+  }
+
+  @Test
+  public void snapshotsAreImmutable() {
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> PredefinedScalars.snapshot().put("Nope", PredefinedScalars.DateTime));
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> PredefinedScalars.getPredefinedScalars().add(PredefinedScalars.DateTime));
+  }
+
+  @Test
+  public void concurrentRegistrationKeepsEveryScalar() throws InterruptedException {
+    int threadCount = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < threadCount; i++) {
+      String name = "Concurrent" + i;
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                } catch (InterruptedException e) {
+                  return;
+                }
+                PredefinedScalars.register(name, DateTimeCoercing::new);
+              });
+      thread.start();
+      threads.add(thread);
+    }
+
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    for (int i = 0; i < threadCount; i++) {
+      assertTrue(PredefinedScalars.isPredefined("Concurrent" + i));
+    }
+  }
+}
@@ -10,6 +10,7 @@ import static org.junit.Assert.assertTrue;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.newrelic.graphql.mapper.GraphQLInputMapper;
+import graphql.schema.Coercing;
 import graphql.schema.GraphQLInputObjectType;
 import graphql.schema.GraphQLList;
 import java.time.Duration;
@@ -50,6 +51,15 @@ public class SecondsTest {
     assertEquals(Duration.ofSeconds(1, 233999999L), floating.getDuration());
   }
 
+  @Test
+  public void serializeRawDurations() {
+    Coercing<Seconds, Number> coercing = Seconds.getCoercing();
+
+    assertEquals(90L, coercing.serialize(Duration.ofSeconds(90)));
+    assertEquals(0.25, coercing.serialize(Duration.ofMillis(250)));
+    assertEquals(-90L, coercing.serialize(Duration.ofSeconds(-90)));
+  }
+
   @Test
   public void convertToScalarFromInstanceOfSelf() throws ClassNotFoundException {
     Object actual = mapper.convert(new Seconds(1000), PredefinedScalars.Seconds);
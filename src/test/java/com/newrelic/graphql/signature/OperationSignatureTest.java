@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.signature;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import com.newrelic.graphql.schema.SimpleGraphQLBuilder;
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.parser.Parser;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Test;
+
+public class OperationSignatureTest {
+  private static OperationSignature sign(String query) {
+    return OperationSignature.of(Parser.parse(query), (String) null);
+  }
+
+  @Test
+  public void normalizesFormattingAliasesLiteralsAndOrder() {
+    OperationSignature first =
+        sign(
+            "query Users($limit: Int) {\n"
+                + "  users(limit: $limit, filter: {name: \"bob\"}) { id ...details }\n"
+                + "  count(since: 100)\n"
+                + "}\n"
+                + "fragment details on User { name, friends(first: 5) { id } }");
+    OperationSignature second =
+        sign(
+            "fragment details on User { f: friends(first: 10) { id } n: name } "
+                + "query Users($limit: Int) { total: count(since: 2) "
+                + "users(filter: {name: \"alice\"}, limit: $limit) { ...details id } }");
+
+    assertThat(first, is(second));
+    assertThat(first.getHash128(), is(second.getHash128()));
+    assertThat(
+        first.getSignature(),
+        is(
+            "query Users($limit:Int){count(since:0) users(filter:{},limit:$limit){...details id}}"
+                + " fragment details on User{friends(first:0){id} name}"));
+  }
+
+  @Test
+  public void keepsVariablesEnumsAndBooleans() {
+    assertThat(
+        sign("{ users(sort: NAME, active: true) { id @include(if: $x) } }").getSignature(),
+        is("query{users(active:true,sort:NAME){id@include(if:$x)}}"));
+    assertThat(sign("{ users(sort: NAME) { id } }"), is(not(sign("{ users(sort: AGE) { id } }"))));
+  }
+
+  @Test
+  public void hashesWithMurmur3() {
+    // Reference value from Guava's murmur3_128, whose bytes are each half in little-endian order
+    long[] hash =
+        Murmur3.hash128(
+            "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8));
+    assertThat(
+        Long.toHexString(Long.reverseBytes(hash[0])) + Long.toHexString(Long.reverseBytes(hash[1])),
+        is("6c1b07bc7bbc4be347939ac4a93c437a"));
+  }
+
+  private static GraphQL graphQL(
+      OperationSignatureCache signatures,
+      List<OperationSignature> seen,
+      PreparsedDocumentProvider documents) {
+    return new SimpleGraphQLBuilder(
+            new StringReader("type Query { name: String, age: Int, city: String }"))
+        .fetcher(
+            "Query",
+            "name",
+            env -> {
+              seen.add(OperationSignature.from(env));
+              return "alice";
+            })
+        .operationSignatures(signatures)
+        .builder()
+        .preparsedDocumentProvider(documents)
+        .build();
+  }
+
+  @Test
+  public void attachesSignatureToContext() {
+    OperationSignatureCache signatures = new OperationSignatureCache(10);
+    List<OperationSignature> seen = new ArrayList<>();
+    Map<String, PreparsedDocumentEntry> documents = new ConcurrentHashMap<>();
+    GraphQL graphQL =
+        graphQL(
+            signatures,
+            seen,
+            (input, parse) -> documents.computeIfAbsent(input.getQuery(), q -> parse.apply(input)));
+
+    graphQL.execute("{ name }");
+    graphQL.execute("{ name }");
+    graphQL.execute("{ n: name }");
+
+    assertThat(seen.get(0).getSignature(), is("query{name}"));
+    assertThat(seen.get(2), is(seen.get(0)));
+    assertThat(signatures.getMissCount(), is(2L));
+    assertThat(signatures.getHitCount(), is(1L));
+  }
+
+  @Test
+  public void signsPersistedQueriesByDocument() {
+    OperationSignatureCache signatures = new OperationSignatureCache(10);
+    List<OperationSignature> seen = new ArrayList<>();
+    // Persisted queries by id, all executed with the same placeholder text
+    Map<String, String> persisted = Map.of("a", "{ name }", "b", "{ name age }");
+    Map<String, PreparsedDocumentEntry> documents = new ConcurrentHashMap<>();
+    GraphQL graphQL =
+        graphQL(
+            signatures,
+            seen,
+            (input, parse) -> {
+              String id = (String) input.getExtensions().get("id");
+              return documents.computeIfAbsent(
+                  id,
+                  key ->
+                      parse.apply(input.transform(builder -> builder.query(persisted.get(key)))));
+            });
+
+    for (String id : List.of("a", "b", "a")) {
+      graphQL.execute(
+          ExecutionInput.newExecutionInput("PersistedQuery").extensions(Map.of("id", id)).build());
+    }
+
+    assertThat(seen.get(0).getSignature(), is("query{name}"));
+    assertThat(seen.get(1).getSignature(), is("query{age name}"));
+    assertThat(seen.get(2), is(seen.get(0)));
+    assertThat(signatures.getMissCount(), is(2L));
+    assertThat(signatures.getHitCount(), is(1L));
+  }
+}
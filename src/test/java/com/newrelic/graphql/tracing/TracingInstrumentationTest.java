@@ -0,0 +1,136 @@
+/*
+ * Copyright 2020 New Relic Corporation. All rights reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.newrelic.graphql.tracing;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import com.newrelic.graphql.schema.SimpleGraphQLBuilder;
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class TracingInstrumentationTest {
+  private final AtomicReference<TraceContext> seen = new AtomicReference<>();
+
+  private GraphQL graphQL(TracingInstrumentation tracing) {
+    return new SimpleGraphQLBuilder(
+            new StringReader("type Query { user: User } type User { name: String }"))
+        .fetcher(
+            "Query",
+            "user",
+            env -> {
+              seen.set(TraceContext.from(env));
+              return new Object();
+            })
+        .fetcher(
+            "User",
+            "name",
+            env -> {
+              Thread.sleep(5);
+              return "alice";
+            })
+        .tracing(tracing)
+        .build();
+  }
+
+  private static List<String> names(List<Span> spans) {
+    return spans.stream().map(Span::getName).collect(Collectors.toList());
+  }
+
+  @Test
+  public void exportsSampledOperations() {
+    InMemorySpanExporter exporter = new InMemorySpanExporter();
+    TracingInstrumentation tracing =
+        TracingInstrumentation.newTracingInstrumentation(exporter).sampleRate(1).build();
+
+    graphQL(tracing).execute("{ user { name } }");
+
+    List<Span> spans = exporter.getSpans();
+    assertThat(
+        names(spans),
+        is(List.of("operation", "parse", "validation", "/user", "/user/name", "execution")));
+    Span root = spans.get(0);
+    assertThat(root.getParentSpanId(), is(nullValue()));
+    assertThat(spans.get(1).getParentSpanId(), is(root.getSpanId()));
+    assertThat(spans.get(4).getParentSpanId(), is(spans.get(5).getSpanId()));
+    assertThat(spans.get(4).getDurationNanos() >= Duration.ofMillis(5).toNanos(), is(true));
+    assertThat(seen.get().getTraceId(), is(root.getTraceId()));
+    assertThat(seen.get().getSpanId(), is(root.getSpanId()));
+    assertThat(tracing.getExportedCount(), is(1L));
+  }
+
+  @Test
+  public void skipsUnsampledOperations() {
+    InMemorySpanExporter exporter = new InMemorySpanExporter();
+    TracingInstrumentation tracing =
+        TracingInstrumentation.newTracingInstrumentation(exporter).sampleRate(0).build();
+
+    graphQL(tracing).execute("{ user { name } }");
+
+    assertThat(exporter.getSpans(), is(List.of()));
+    assertThat(seen.get(), is(nullValue()));
+  }
+
+  @Test
+  public void exportsSlowOperationsWithoutFields() {
+    InMemorySpanExporter exporter = new InMemorySpanExporter();
+    TracingInstrumentation tracing =
+        TracingInstrumentation.newTracingInstrumentation(exporter)
+            .sampleRate(0)
+            .slowThreshold(Duration.ofMillis(1))
+            .build();
+
+    graphQL(tracing).execute("{ user { name } }");
+
+    assertThat(
+        names(exporter.getSpans()), is(List.of("operation", "parse", "validation", "execution")));
+    assertThat(seen.get().isSampled(), is(false));
+  }
+
+  @Test
+  public void continuesPropagatedTrace() {
+    InMemorySpanExporter exporter = new InMemorySpanExporter();
+    TracingInstrumentation tracing =
+        TracingInstrumentation.newTracingInstrumentation(exporter).sampleRate(0).build();
+    ExecutionInput input = ExecutionInput.newExecutionInput("{ user { name } }").build();
+    new TraceContext("0af7651916cd43dd8448eb211c80319c", "b7ad6b7169203331", true)
+        .attachTo(input.getGraphQLContext());
+
+    graphQL(tracing).execute(input);
+
+    Span root = exporter.getSpans().get(0);
+    assertThat(root.getTraceId(), is("0af7651916cd43dd8448eb211c80319c"));
+    assertThat(root.getParentSpanId(), is("b7ad6b7169203331"));
+  }
+
+  @Test
+  public void writesSpansToFile() throws Exception {
+    Path file = Files.createTempFile("spans", ".jsonl");
+    try {
+      TracingInstrumentation tracing =
+          TracingInstrumentation.newTracingInstrumentation(new FileSpanExporter(file))
+              .sampleRate(1)
+              .build();
+
+      graphQL(tracing).execute("{ user { name } }");
+
+      List<String> lines = Files.readAllLines(file);
+      assertThat(lines.size(), is(6));
+      assertThat(lines.get(0), containsString("\"name\":\"operation\""));
+    } finally {
+      Files.delete(file);
+    }
+  }
+}